@@ -0,0 +1,113 @@
+package ca.mcgill.ecse321.boardgame.benchmark;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ca.mcgill.ecse321.boardgame.BoardgameApplication;
+import ca.mcgill.ecse321.boardgame.model.AccountType;
+import ca.mcgill.ecse321.boardgame.model.BorrowRequest;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
+import ca.mcgill.ecse321.boardgame.service.BorrowRequestService;
+
+/**
+ * Latency of borrow request creation for owners with 10, 100 and 1,000
+ * copies, against the configured database. The request is for the owner's
+ * last copy, the worst case for a scan of the library. The requests made
+ * during an iteration are deleted after it, so later iterations do not pay
+ * for a growing request table. Like the integration tests, it empties the
+ * tables it uses, so run it against a test database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BorrowRequestCreationBenchmark {
+
+    private static final Date START = Date.valueOf("2025-05-01");
+    private static final Date END = Date.valueOf("2025-05-10");
+
+    @Param({ "10", "100", "1000" })
+    private int librarySize;
+
+    private ConfigurableApplicationContext context;
+    private BorrowRequestService borrowRequestService;
+    private BorrowRequestRepository borrowRequestRepo;
+    private GameCopyRepository gameCopyRepo;
+    private GameRepository gameRepo;
+    private UserAccountRepository userAccountRepo;
+    private long borrowerId;
+    private long ownerId;
+    private String title;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(BoardgameApplication.class).web(WebApplicationType.NONE).run();
+        borrowRequestService = context.getBean(BorrowRequestService.class);
+        borrowRequestRepo = context.getBean(BorrowRequestRepository.class);
+        gameCopyRepo = context.getBean(GameCopyRepository.class);
+        gameRepo = context.getBean(GameRepository.class);
+        userAccountRepo = context.getBean(UserAccountRepository.class);
+        clean();
+
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < librarySize; i++) {
+            games.add(new Game(String.format("Game %04d", i), "Description " + i, "Category"));
+        }
+        gameRepo.saveAll(games);
+        borrowerId = userAccountRepo.save(
+                new UserAccount("borrower", "password", "borrower@mail.com", AccountType.PLAYER)).getUserAccountID();
+        UserAccount owner = userAccountRepo.save(
+                new UserAccount("owner", "password", "owner@mail.com", AccountType.GAMEOWNER));
+        List<GameCopy> copies = new ArrayList<>();
+        for (Game game : games) {
+            copies.add(new GameCopy(new GameCopy.GameCopyKey(owner, game), "Copy"));
+        }
+        gameCopyRepo.saveAll(copies);
+        ownerId = owner.getUserAccountID();
+        title = games.get(librarySize - 1).getTitle();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteRequests() {
+        borrowRequestRepo.deleteAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clean();
+        context.close();
+    }
+
+    private void clean() {
+        borrowRequestRepo.deleteAll();
+        gameCopyRepo.deleteAll();
+        gameRepo.deleteAll();
+        userAccountRepo.deleteAll();
+    }
+
+    @Benchmark
+    public BorrowRequest createBorrowRequest() {
+        return borrowRequestService.createBorrowRequest(borrowerId, ownerId, title, START, END);
+    }
+}
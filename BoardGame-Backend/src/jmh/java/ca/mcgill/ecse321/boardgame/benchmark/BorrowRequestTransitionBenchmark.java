@@ -0,0 +1,81 @@
+package ca.mcgill.ecse321.boardgame.benchmark;
+
+import java.lang.reflect.Field;
+import java.sql.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ca.mcgill.ecse321.boardgame.model.AccountType;
+import ca.mcgill.ecse321.boardgame.model.BorrowRequest;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.RequestStatus;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+
+/**
+ * Cost of accepting a borrow request through the typed lifecycle methods,
+ * against the reflective field writes BorrowRequestService used before.
+ * Each invocation starts from a new PENDING request, so request construction
+ * is measured on its own as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BorrowRequestTransitionBenchmark {
+
+    private UserAccount borrower;
+    private GameCopy copy;
+    private Date date;
+
+    @Setup
+    public void setup() {
+        UserAccount owner = new UserAccount("owner", "password", "owner@mail.com", AccountType.GAMEOWNER);
+        borrower = new UserAccount("borrower", "password", "borrower@mail.com", AccountType.PLAYER);
+        copy = new GameCopy(new GameCopy.GameCopyKey(owner, new Game("Chess", "Strategy", "Classic")), "Copy");
+        date = Date.valueOf("2025-05-01");
+    }
+
+    @Benchmark
+    public BorrowRequest newRequest() {
+        return pending();
+    }
+
+    @Benchmark
+    public BorrowRequest acceptTyped() {
+        BorrowRequest request = pending();
+        request.accept(date);
+        return request;
+    }
+
+    @Benchmark
+    public BorrowRequest acceptReflective() throws ReflectiveOperationException {
+        BorrowRequest request = pending();
+        Field decisionDate = BorrowRequest.class.getDeclaredField("decisionDate");
+        decisionDate.setAccessible(true);
+        decisionDate.set(request, date);
+        Field status = BorrowRequest.class.getDeclaredField("status");
+        status.setAccessible(true);
+        status.set(request, RequestStatus.ACCEPTED);
+        return request;
+    }
+
+    @Benchmark
+    public BorrowRequest fullLifecycle() {
+        BorrowRequest request = pending();
+        request.accept(date);
+        request.pickUp();
+        request.markReturned();
+        return request;
+    }
+
+    private BorrowRequest pending() {
+        return new BorrowRequest(RequestStatus.PENDING, date, null, date, date, borrower, copy);
+    }
+}
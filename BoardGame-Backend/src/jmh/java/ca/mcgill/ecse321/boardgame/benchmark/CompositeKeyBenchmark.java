@@ -0,0 +1,95 @@
+package ca.mcgill.ecse321.boardgame.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ca.mcgill.ecse321.boardgame.model.AccountType;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameCopy.GameCopyKey;
+import ca.mcgill.ecse321.boardgame.model.Review.ReviewKey;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+
+/**
+ * Cost of equals and hashCode on the composite keys of GameCopy and Review,
+ * alone and through a hash map lookup as the persistence context does.
+ * The probe keys are built from distinct but equal objects, as happens when
+ * a key is rebuilt from request parameters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompositeKeyBenchmark {
+
+    @Param({ "100", "10000" })
+    private int keys;
+
+    private GameCopyKey gameCopyKey;
+    private GameCopyKey gameCopyProbe;
+    private ReviewKey reviewKey;
+    private ReviewKey reviewProbe;
+    private Map<GameCopyKey, Integer> gameCopyKeys;
+    private Map<ReviewKey, Integer> reviewKeys;
+
+    @Setup
+    public void setup() {
+        gameCopyKeys = new HashMap<>();
+        reviewKeys = new HashMap<>();
+        for (int i = 0; i < keys; i++) {
+            UserAccount user = user(i);
+            Game game = new Game("Game " + i, "Description", "Category");
+            gameCopyKeys.put(new GameCopyKey(user, game), i);
+            reviewKeys.put(new ReviewKey(user, game), i);
+        }
+        int last = keys - 1;
+        gameCopyKey = new GameCopyKey(user(last), new Game("Game " + last, "Description", "Category"));
+        gameCopyProbe = new GameCopyKey(user(last), new Game("Game " + last, "Description", "Category"));
+        reviewKey = new ReviewKey(user(last), new Game("Game " + last, "Description", "Category"));
+        reviewProbe = new ReviewKey(user(last), new Game("Game " + last, "Description", "Category"));
+    }
+
+    private static UserAccount user(int i) {
+        UserAccount user = new UserAccount("user" + i, "password", "user" + i + "@mail.com", AccountType.GAMEOWNER);
+        user.setUserAccountID(i);
+        return user;
+    }
+
+    @Benchmark
+    public int gameCopyKeyHashCode() {
+        return gameCopyKey.hashCode();
+    }
+
+    @Benchmark
+    public boolean gameCopyKeyEquals() {
+        return gameCopyKey.equals(gameCopyProbe);
+    }
+
+    @Benchmark
+    public Integer gameCopyKeyLookup() {
+        return gameCopyKeys.get(gameCopyProbe);
+    }
+
+    @Benchmark
+    public int reviewKeyHashCode() {
+        return reviewKey.hashCode();
+    }
+
+    @Benchmark
+    public boolean reviewKeyEquals() {
+        return reviewKey.equals(reviewProbe);
+    }
+
+    @Benchmark
+    public Integer reviewKeyLookup() {
+        return reviewKeys.get(reviewProbe);
+    }
+}
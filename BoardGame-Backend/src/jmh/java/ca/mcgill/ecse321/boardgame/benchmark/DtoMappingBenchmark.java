@@ -0,0 +1,63 @@
+package ca.mcgill.ecse321.boardgame.benchmark;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ca.mcgill.ecse321.boardgame.dto.EventResponseDto;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyResponseDto;
+import ca.mcgill.ecse321.boardgame.dto.ReviewResponseDto;
+import ca.mcgill.ecse321.boardgame.model.AccountType;
+import ca.mcgill.ecse321.boardgame.model.Event;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.Review;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+
+/**
+ * Cost of building the response DTOs that list endpoints create once per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+
+    private Event event;
+    private GameCopy gameCopy;
+    private Review review;
+
+    @Setup
+    public void setup() {
+        UserAccount owner = new UserAccount("owner", "password", "owner@mail.com", AccountType.GAMEOWNER);
+        owner.setUserAccountID(1);
+        Game game = new Game("Chess", "A strategic board game.", "Strategy");
+        Date date = Date.valueOf("2025-05-01");
+
+        event = new Event(date, Time.valueOf("18:00:00"), "Montreal", "Chess night", 10, game, owner, "Chess night");
+        gameCopy = new GameCopy(new GameCopy.GameCopyKey(owner, game), "Good condition");
+        review = new Review(new Review.ReviewKey(owner, game), 5, "Great game", date);
+    }
+
+    @Benchmark
+    public EventResponseDto eventResponseDto() {
+        return new EventResponseDto(event);
+    }
+
+    @Benchmark
+    public GameCopyResponseDto gameCopyResponseDto() {
+        return new GameCopyResponseDto(gameCopy);
+    }
+
+    @Benchmark
+    public ReviewResponseDto reviewResponseDto() {
+        return new ReviewResponseDto(review);
+    }
+}
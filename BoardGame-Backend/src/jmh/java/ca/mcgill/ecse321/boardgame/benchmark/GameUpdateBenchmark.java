@@ -0,0 +1,75 @@
+package ca.mcgill.ecse321.boardgame.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ca.mcgill.ecse321.boardgame.BoardgameApplication;
+import ca.mcgill.ecse321.boardgame.dto.GameRequestDto;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import ca.mcgill.ecse321.boardgame.service.GameService;
+
+/**
+ * Cost of GameService.updateGame, whose category is written through reflection,
+ * against the same update done with the entity setters in a transaction of its
+ * own. Both read and save the game through the configured database, so the gap
+ * between them is the reflective write. The benchmark adds one game of its own
+ * and deletes it afterwards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameUpdateBenchmark {
+
+    private static final String TITLE = "Game Update Benchmark";
+
+    private ConfigurableApplicationContext context;
+    private GameService gameService;
+    private GameRepository gameRepo;
+    private TransactionTemplate transactionTemplate;
+    private GameRequestDto dto;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(BoardgameApplication.class).web(WebApplicationType.NONE).run();
+        gameService = context.getBean(GameService.class);
+        gameRepo = context.getBean(GameRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        gameRepo.save(new Game(TITLE, "A strategic board game.", "Strategy"));
+        dto = new GameRequestDto(TITLE, "The classic strategy game.", "Classic");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        gameRepo.deleteById(TITLE);
+        context.close();
+    }
+
+    @Benchmark
+    public Game updateGame() {
+        return gameService.updateGame(TITLE, dto);
+    }
+
+    @Benchmark
+    public Game updateGameWithSetters() {
+        return transactionTemplate.execute(status -> {
+            Game game = gameRepo.findById(TITLE).orElseThrow();
+            game.setDescription(dto.getDescription());
+            game.setCategory(dto.getCategory());
+            return gameRepo.save(game);
+        });
+    }
+}
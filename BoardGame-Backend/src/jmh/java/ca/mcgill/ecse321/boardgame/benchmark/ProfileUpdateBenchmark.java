@@ -0,0 +1,110 @@
+package ca.mcgill.ecse321.boardgame.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ca.mcgill.ecse321.boardgame.BoardgameApplication;
+import ca.mcgill.ecse321.boardgame.dto.UserAccountRequestDto;
+import ca.mcgill.ecse321.boardgame.model.AccountType;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
+import ca.mcgill.ecse321.boardgame.service.UserAccountService;
+
+/**
+ * Latency of a GAMEOWNER to PLAYER profile update while other users own 100,
+ * 1,000 and 5,000 copies in total, against the configured database. Only
+ * that direction checks ownership, so the switch back to GAMEOWNER happens
+ * before each invocation and is not measured. Like the integration tests,
+ * it empties the tables it uses, so run it against a test database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProfileUpdateBenchmark {
+
+    private static final int GAMES = 100;
+
+    @Param({ "100", "1000", "5000" })
+    private int globalCopies;
+
+    private ConfigurableApplicationContext context;
+    private UserAccountService userAccountService;
+    private GameCopyRepository gameCopyRepo;
+    private GameRepository gameRepo;
+    private UserAccountRepository userAccountRepo;
+    private long profileId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(BoardgameApplication.class).web(WebApplicationType.NONE).run();
+        userAccountService = context.getBean(UserAccountService.class);
+        gameCopyRepo = context.getBean(GameCopyRepository.class);
+        gameRepo = context.getBean(GameRepository.class);
+        userAccountRepo = context.getBean(UserAccountRepository.class);
+        clean();
+
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < GAMES; i++) {
+            games.add(new Game("Game " + i, "Description " + i, "Category"));
+        }
+        gameRepo.saveAll(games);
+        // Owners each holding a copy of every game, until the table has the given number of copies
+        for (int owners = 0; owners * GAMES < globalCopies; owners++) {
+            UserAccount owner = userAccountRepo.save(new UserAccount("owner" + owners, "password",
+                    "owner" + owners + "@mail.com", AccountType.GAMEOWNER));
+            List<GameCopy> copies = new ArrayList<>();
+            for (Game game : games) {
+                copies.add(new GameCopy(new GameCopy.GameCopyKey(owner, game), "Copy"));
+            }
+            gameCopyRepo.saveAll(copies);
+        }
+        profileId = userAccountRepo.save(
+                new UserAccount("profile", "password", "profile@mail.com", AccountType.GAMEOWNER)).getUserAccountID();
+    }
+
+    @Setup(Level.Invocation)
+    public void switchToOwner() {
+        update(AccountType.GAMEOWNER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clean();
+        context.close();
+    }
+
+    private void clean() {
+        gameCopyRepo.deleteAll();
+        gameRepo.deleteAll();
+        userAccountRepo.deleteAll();
+    }
+
+    private UserAccount update(AccountType accountType) {
+        return userAccountService.updateUserAccountByUserAccountID(profileId,
+                new UserAccountRequestDto("profile", "password", "profile@mail.com", accountType));
+    }
+
+    @Benchmark
+    public UserAccount ownerToPlayer() {
+        return update(AccountType.PLAYER);
+    }
+}
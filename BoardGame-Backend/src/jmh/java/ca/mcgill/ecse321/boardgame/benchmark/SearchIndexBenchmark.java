@@ -0,0 +1,67 @@
+package ca.mcgill.ecse321.boardgame.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ca.mcgill.ecse321.boardgame.cache.TextIndex;
+
+/**
+ * Latency of a catalog search on the in-memory index, sampled so that the
+ * p99 can be read from the report. The catalog is synthetic: titles, short
+ * descriptions and categories drawn from a small vocabulary, so common words
+ * have long posting lists as real catalogs do. Queries mix whole words,
+ * prefixes and two-word searches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchIndexBenchmark {
+
+    private static final String[] WORDS = { "dragon", "castle", "trade", "empire", "space", "quest", "forest",
+            "kingdom", "dice", "card", "pirate", "island", "railway", "garden", "tower", "legend", "ocean", "mystery",
+            "wizard", "harvest", "galaxy", "train", "city", "war", "village", "treasure", "knight", "robot", "zombie",
+            "farm" };
+    private static final String[] CATEGORIES = { "Strategy", "Family", "Party", "Cooperative", "Abstract",
+            "Deck Building", "Worker Placement", "Wargame" };
+    private static final String[] QUERIES = { "dragon", "cas", "space pirate", "kingdom tower", "wiz", "deck",
+            "treasure island", "farm 42", "robot", "gal" };
+
+    @Param({ "10000", "100000" })
+    private int games;
+
+    private TextIndex<String> index;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        index = new TextIndex<>(3f, 1f, 2f);
+        for (int i = 0; i < games; i++) {
+            String title = word(random) + " " + word(random) + " " + i;
+            String description = "A game of " + word(random) + " and " + word(random) + " for "
+                    + (2 + random.nextInt(5)) + " players";
+            index.put(title, title, title, description, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        }
+    }
+
+    private static String word(Random random) {
+        String word = WORDS[random.nextInt(WORDS.length)];
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    @Benchmark
+    public List<TextIndex.Hit<String>> search() {
+        String query = QUERIES[next++ % QUERIES.length];
+        return index.search(query, 20);
+    }
+}
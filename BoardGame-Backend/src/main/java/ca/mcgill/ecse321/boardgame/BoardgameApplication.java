@@ -2,8 +2,10 @@ package ca.mcgill.ecse321.boardgame;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BoardgameApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,347 @@
+package ca.mcgill.ecse321.boardgame.cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index of the games by category and by whether a copy is available.
+ * Each game gets a small integer ordinal; every category holds a bit set of
+ * the ordinals of its games, and one more bit set marks the games with at
+ * least one available copy. A filter is then an OR of category sets and an
+ * AND with the availability set, and each facet count is the cardinality of
+ * one more AND, so counting costs a few word operations per thousand games
+ * whatever the filter matches.
+ * Categories are matched exactly, as they are stored. Ordinals freed by a
+ * removal are cleared from every set and reused by the next game.
+ * Queries share a read lock and changes take the write lock.
+ */
+public class FacetIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    // The same ordinals in title order, for listing pages of broad filters
+    private final TreeMap<String, Integer> byTitle = new TreeMap<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private String[] titles = new String[16];
+    private String[] categoryOf = new String[16];
+    private int[] availableCopies = new int[16];
+    private int ordinalCount;
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final Map<String, BitSet> categories = new HashMap<>();
+
+    /**
+     * Adds a game, or moves it to another category.
+     *
+     * @param title    the title of the game
+     * @param category its category, or null for none
+     */
+    public void put(String title, String category) {
+        String facet = facet(category);
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(title);
+            if (ordinal == null) {
+                ordinal = freeOrdinals.isEmpty() ? ordinalCount++ : freeOrdinals.poll();
+                if (ordinal == titles.length) {
+                    titles = Arrays.copyOf(titles, ordinal * 2);
+                    categoryOf = Arrays.copyOf(categoryOf, ordinal * 2);
+                    availableCopies = Arrays.copyOf(availableCopies, ordinal * 2);
+                }
+                ordinals.put(title, ordinal);
+                byTitle.put(title, ordinal);
+                titles[ordinal] = title;
+                live.set(ordinal);
+            } else {
+                clearCategory(ordinal);
+            }
+            categoryOf[ordinal] = facet;
+            if (facet != null) {
+                categories.computeIfAbsent(facet, c -> new BitSet()).set(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a game; does nothing if it is not indexed.
+     */
+    public void remove(String title) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(title);
+            if (ordinal == null) {
+                return;
+            }
+            byTitle.remove(title);
+            clearCategory(ordinal);
+            titles[ordinal] = null;
+            categoryOf[ordinal] = null;
+            availableCopies[ordinal] = 0;
+            live.clear(ordinal);
+            available.clear(ordinal);
+            freeOrdinals.add(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Changes the number of available copies of a game; does nothing if the
+     * game is not indexed.
+     *
+     * @param title the title of the game
+     * @param delta how many copies became available, negative when copies left
+     */
+    public void addAvailableCopies(String title, int delta) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(title);
+            if (ordinal == null) {
+                return;
+            }
+            availableCopies[ordinal] = Math.max(0, availableCopies[ordinal] + delta);
+            available.set(ordinal, availableCopies[ordinal] > 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the number of available copies of a game; does nothing if the
+     * game is not indexed.
+     *
+     * @param title  the title of the game
+     * @param copies how many of its copies are available
+     */
+    public void setAvailableCopies(String title, int copies) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(title);
+            if (ordinal == null) {
+                return;
+            }
+            availableCopies[ordinal] = Math.max(0, copies);
+            available.set(ordinal, availableCopies[ordinal] > 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filters the games and counts each facet. A game matches if it is in any
+     * of the given categories, or any game at all when none is given, and
+     * has an available copy when availableOnly is set. The count of a category
+     * applies the availability filter only, and the available count applies
+     * the category filter only, so each tells what choosing it would give.
+     *
+     * @param categories    the categories to keep, or empty for all
+     * @param availableOnly whether to keep only the games with an available copy
+     * @param afterTitle    only list titles after this one, or null to start at the first
+     * @param limit         the largest number of titles to list
+     * @return the matching count, the facet counts and a page of titles in order
+     */
+    public Result query(Collection<String> categories, boolean availableOnly, String afterTitle, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet byCategory;
+            if (categories == null || categories.isEmpty()) {
+                byCategory = (BitSet) live.clone();
+            } else {
+                byCategory = new BitSet();
+                for (String category : categories) {
+                    BitSet games = this.categories.get(facet(category));
+                    if (games != null) {
+                        byCategory.or(games);
+                    }
+                }
+            }
+            BitSet byAvailability = availableOnly ? available : live;
+
+            Map<String, Integer> categoryCounts = new TreeMap<>();
+            BitSet scratch = new BitSet();
+            for (Map.Entry<String, BitSet> entry : this.categories.entrySet()) {
+                scratch.clear();
+                scratch.or(entry.getValue());
+                scratch.and(byAvailability);
+                int count = scratch.cardinality();
+                if (count > 0) {
+                    categoryCounts.put(entry.getKey(), count);
+                }
+            }
+            scratch.clear();
+            scratch.or(byCategory);
+            scratch.and(available);
+            int availableCount = scratch.cardinality();
+
+            BitSet matches = byCategory;
+            matches.and(byAvailability);
+            int total = matches.cardinality();
+            List<Integer> page = firstTitles(matches, total, afterTitle, limit + 1);
+            boolean more = page.size() > limit;
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < page.size() && i < limit; i++) {
+                int ordinal = page.get(i);
+                items.add(new Item(titles[ordinal], categoryOf[ordinal], availableCopies[ordinal]));
+            }
+            return new Result(total, items, more, categoryCounts, availableCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of games in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The count smallest titles after afterTitle among the set ordinals, in title order
+    private List<Integer> firstTitles(BitSet matches, int matchCount, String afterTitle, int count) {
+        // Walking all titles in order finds count matches after about count * size / matchCount steps;
+        // when that beats going through every match, walk
+        if ((long) count * ordinals.size() < (long) matchCount * matchCount) {
+            List<Integer> ordered = new ArrayList<>(count);
+            Map<String, Integer> after = afterTitle == null ? byTitle : byTitle.tailMap(afterTitle, false);
+            for (int ordinal : after.values()) {
+                if (matches.get(ordinal)) {
+                    ordered.add(ordinal);
+                    if (ordered.size() == count) {
+                        break;
+                    }
+                }
+            }
+            return ordered;
+        }
+        // Largest kept title on top, so it is the one to drop
+        PriorityQueue<Integer> first = new PriorityQueue<>(Math.min(count, 1024),
+                (a, b) -> titles[b].compareTo(titles[a]));
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            String title = titles[ordinal];
+            if (afterTitle != null && title.compareTo(afterTitle) <= 0) {
+                continue;
+            }
+            if (first.size() < count) {
+                first.add(ordinal);
+            } else if (title.compareTo(titles[first.peek()]) < 0) {
+                first.poll();
+                first.add(ordinal);
+            }
+        }
+        List<Integer> ordered = new ArrayList<>(first);
+        ordered.sort((a, b) -> titles[a].compareTo(titles[b]));
+        return ordered;
+    }
+
+    private void clearCategory(int ordinal) {
+        String previous = categoryOf[ordinal];
+        if (previous == null) {
+            return;
+        }
+        BitSet games = categories.get(previous);
+        games.clear(ordinal);
+        if (games.isEmpty()) {
+            categories.remove(previous);
+        }
+    }
+
+    private static String facet(String category) {
+        if (category == null || category.trim().isEmpty()) {
+            return null;
+        }
+        return category.trim();
+    }
+
+    /**
+     * One game of a result page.
+     */
+    public static class Item {
+        private final String title;
+        private final String category;
+        private final int availableCopies;
+
+        Item(String title, String category, int availableCopies) {
+            this.title = title;
+            this.category = category;
+            this.availableCopies = availableCopies;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public int getAvailableCopies() {
+            return availableCopies;
+        }
+    }
+
+    /**
+     * The outcome of a query: how many games match, the first page of them, and
+     * the facet counts.
+     */
+    public static class Result {
+        private final int total;
+        private final List<Item> items;
+        private final boolean more;
+        private final Map<String, Integer> categoryCounts;
+        private final int availableCount;
+
+        Result(int total, List<Item> items, boolean more, Map<String, Integer> categoryCounts, int availableCount) {
+            this.total = total;
+            this.items = Collections.unmodifiableList(items);
+            this.more = more;
+            this.categoryCounts = Collections.unmodifiableMap(categoryCounts);
+            this.availableCount = availableCount;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+
+        /**
+         * Whether more titles follow the last item.
+         */
+        public boolean hasMore() {
+            return more;
+        }
+
+        /**
+         * The number of games in each category, by category name in order.
+         */
+        public Map<String, Integer> getCategoryCounts() {
+            return categoryCounts;
+        }
+
+        /**
+         * The number of games of the chosen categories with an available copy.
+         */
+        public int getAvailableCount() {
+            return availableCount;
+        }
+    }
+}
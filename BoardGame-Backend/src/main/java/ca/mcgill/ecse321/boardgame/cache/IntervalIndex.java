@@ -0,0 +1,116 @@
+package ca.mcgill.ecse321.boardgame.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable set of closed intervals [start, end] that finds an interval
+ * overlapping a query range in O(log n).
+ * Intervals are kept sorted by start, and each position also stores the
+ * largest end seen up to it. The intervals starting at or before the end of
+ * the query form a prefix of that order, and one of them overlaps the query
+ * exactly when the largest end of the prefix reaches its start. This is the
+ * max-end augmentation of an interval tree, laid out as flat arrays since the
+ * index is rebuilt rather than edited.
+ */
+public class IntervalIndex {
+
+    public static final long NONE = -1;
+
+    private static final IntervalIndex EMPTY = new IntervalIndex(new long[0], new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] maxEnds;
+    // Id of the interval that reaches maxEnds at each position
+    private final long[] maxEndIds;
+
+    private IntervalIndex(long[] starts, long[] maxEnds, long[] maxEndIds) {
+        this.starts = starts;
+        this.maxEnds = maxEnds;
+        this.maxEndIds = maxEndIds;
+    }
+
+    public static IntervalIndex empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the id of an interval overlapping [from, to], or NONE.
+     */
+    public long findOverlapping(long from, long to) {
+        int last = lastStartingAtOrBefore(to);
+        if (last < 0 || maxEnds[last] < from) {
+            return NONE;
+        }
+        return maxEndIds[last];
+    }
+
+    public boolean overlaps(long from, long to) {
+        return findOverlapping(from, to) != NONE;
+    }
+
+    public boolean contains(long point) {
+        return overlaps(point, point);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    private int lastStartingAtOrBefore(long value) {
+        int low = 0;
+        int high = starts.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= value) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    public static class Builder {
+
+        private final List<long[]> intervals = new ArrayList<>();
+
+        public Builder add(long start, long end, long id) {
+            if (end < start) {
+                throw new IllegalArgumentException("Interval " + id + " ends before it starts");
+            }
+            intervals.add(new long[] { start, end, id });
+            return this;
+        }
+
+        public IntervalIndex build() {
+            if (intervals.isEmpty()) {
+                return EMPTY;
+            }
+            long[][] sorted = intervals.toArray(new long[0][]);
+            Arrays.sort(sorted, (a, b) -> Long.compare(a[0], b[0]));
+
+            long[] starts = new long[sorted.length];
+            long[] maxEnds = new long[sorted.length];
+            long[] maxEndIds = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                starts[i] = sorted[i][0];
+                if (i == 0 || sorted[i][1] > maxEnds[i - 1]) {
+                    maxEnds[i] = sorted[i][1];
+                    maxEndIds[i] = sorted[i][2];
+                } else {
+                    maxEnds[i] = maxEnds[i - 1];
+                    maxEndIds[i] = maxEndIds[i - 1];
+                }
+            }
+            return new IntervalIndex(starts, maxEnds, maxEndIds);
+        }
+    }
+}
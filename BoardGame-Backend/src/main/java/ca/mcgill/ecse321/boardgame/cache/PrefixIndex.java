@@ -0,0 +1,226 @@
+package ca.mcgill.ecse321.boardgame.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import ca.mcgill.ecse321.boardgame.model.TextNormalizer;
+
+/**
+ * Sorted-array index of titles for type-ahead, ranked by a popularity count.
+ * Titles are kept in three parallel arrays ordered by their normalized form
+ * (see TextNormalizer.normalize), so the titles starting with a prefix are one
+ * contiguous range found with two binary searches. The range is then scanned
+ * once, keeping the k most popular titles in a small sorted buffer; among
+ * equally popular titles the first in alphabetical order wins.
+ * Adding or removing a title shifts the tail of the arrays, which is cheap for
+ * a catalog that changes a few times a minute; popularity changes are made in
+ * place. Lookups share a read lock and changes take the write lock.
+ */
+public class PrefixIndex {
+
+    // Rough JVM sizes, for the footprint estimate: compressed references, 16-byte array and String headers
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int STRING_BYTES = 24;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private String[] keys = new String[16];
+    private String[] titles = new String[16];
+    private long[] popularity = new long[16];
+    private int size;
+    // Bytes held by the key and title strings, kept up to date so the footprint is O(1)
+    private long stringBytes;
+
+    /**
+     * Adds a title with no popularity; a title already indexed keeps its own.
+     *
+     * @param title the title as displayed
+     */
+    public void add(String title) {
+        String key = TextNormalizer.normalize(title);
+        lock.writeLock().lock();
+        try {
+            int at = find(key, title);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                popularity = Arrays.copyOf(popularity, capacity);
+            }
+            System.arraycopy(keys, at, keys, at + 1, size - at);
+            System.arraycopy(titles, at, titles, at + 1, size - at);
+            System.arraycopy(popularity, at, popularity, at + 1, size - at);
+            keys[at] = key;
+            titles[at] = title;
+            popularity[at] = 0;
+            size++;
+            stringBytes += stringBytes(key) + stringBytes(title);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the popularity of a title; does nothing if it is not indexed.
+     *
+     * @param title      the title as displayed
+     * @param popularity how popular the title is; higher ranks first
+     */
+    public void setPopularity(String title, long popularity) {
+        String key = TextNormalizer.normalize(title);
+        lock.writeLock().lock();
+        try {
+            int at = find(key, title);
+            if (at >= 0) {
+                this.popularity[at] = popularity;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a title; does nothing if it is not indexed.
+     */
+    public void remove(String title) {
+        String key = TextNormalizer.normalize(title);
+        lock.writeLock().lock();
+        try {
+            int at = find(key, title);
+            if (at < 0) {
+                return;
+            }
+            stringBytes -= stringBytes(key) + stringBytes(title);
+            size--;
+            System.arraycopy(keys, at + 1, keys, at, size - at);
+            System.arraycopy(titles, at + 1, titles, at, size - at);
+            System.arraycopy(popularity, at + 1, popularity, at, size - at);
+            keys[size] = null;
+            titles[size] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the most popular titles whose normalized form starts with the
+     * normalized prefix, most popular first.
+     *
+     * @param prefix what has been typed so far
+     * @param limit  the largest number of titles to return
+     * @return the matching titles
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = TextNormalizer.normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(key);
+            int to = lowerBound(key + Character.MAX_VALUE);
+            int[] best = new int[Math.min(limit, to - from)];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (count == best.length && popularity[i] <= popularity[best[count - 1]]) {
+                    continue;
+                }
+                // Insertion into the buffer, which stays sorted by popularity
+                int at = count == best.length ? count - 1 : count++;
+                while (at > 0 && popularity[best[at - 1]] < popularity[i]) {
+                    best[at] = best[at - 1];
+                    at--;
+                }
+                best[at] = i;
+            }
+            List<String> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(titles[best[i]]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of titles in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimates the heap held by the index: its arrays, spare capacity
+     * included, and the strings they point to. Title strings shared with other
+     * structures are counted here as well.
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long arrays = 2L * (ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * keys.length)
+                    + ARRAY_HEADER_BYTES + (long) Long.BYTES * popularity.length;
+            return arrays + stringBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Position of the title, or -(insertion point) - 1 when it is not indexed
+    private int find(String key, String title) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = keys[mid].compareTo(key);
+            if (cmp == 0) {
+                // Titles that differ only in case or punctuation share a key; order them by title
+                cmp = titles[mid].compareTo(title);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+    // First position whose key is not less than the given one
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long stringBytes(String s) {
+        boolean latin1 = true;
+        for (int i = 0; i < s.length() && latin1; i++) {
+            latin1 = s.charAt(i) <= 0xFF;
+        }
+        long bytes = ARRAY_HEADER_BYTES + (long) s.length() * (latin1 ? 1 : 2);
+        // Objects are padded to 8 bytes
+        return STRING_BYTES + ((bytes + 7) & ~7L);
+    }
+}
@@ -0,0 +1,359 @@
+package ca.mcgill.ecse321.boardgame.cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import ca.mcgill.ecse321.boardgame.model.TextNormalizer;
+
+/**
+ * In-memory inverted index over short documents made of weighted text fields,
+ * ranked with BM25.
+ * Each term maps to a posting list of (document ordinal, weighted term
+ * frequency) pairs held in flat arrays, and the terms are kept sorted so a
+ * query word also matches the terms it is a prefix of. A search adds up the
+ * BM25 score of every posting of every matched term into one array indexed by
+ * ordinal, then keeps the best results in a bounded heap, so its cost grows
+ * with the postings it reads rather than with the number of documents.
+ * Removing a document only marks its ordinal dead; the posting lists are
+ * compacted once dead entries make up a quarter of the live ones, and the
+ * freed ordinals are reused after that.
+ * Searches share a read lock and changes take the write lock.
+ *
+ * @param <V> the value returned with each result
+ */
+public class TextIndex<V> {
+
+    public static final int MIN_PREFIX_LENGTH = 2;
+    public static final int MAX_PREFIX_TERMS = 64;
+
+    // A term reached through a prefix counts for less than the word itself
+    static final float PREFIX_WEIGHT = 0.5f;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_DEAD_TO_COMPACT = 64;
+    private static final float REMOVED = -1f;
+
+    private final float[] fieldWeights;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<Document<V>> documents = new ArrayList<>();
+    // Length of each document by ordinal, REMOVED once it leaves the index; read on every posting
+    private float[] lengths = new float[16];
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private int liveCount;
+    private int deadCount;
+    private double totalLength;
+
+    /**
+     * @param fieldWeights how much a word counts in each field, in the order
+     *                     the fields are given to put
+     */
+    public TextIndex(float... fieldWeights) {
+        this.fieldWeights = fieldWeights.clone();
+    }
+
+    /**
+     * Splits text into the terms it is indexed and searched under: its words
+     * as folded by TextNormalizer.
+     */
+    public static List<String> tokenize(String text) {
+        return TextNormalizer.words(text);
+    }
+
+    /**
+     * Adds a document, or replaces the one with the same key.
+     *
+     * @param key    the unique key of the document
+     * @param value  what a search returns for the document
+     * @param fields the text of each field, in the order of the field weights; null fields are empty
+     */
+    public void put(String key, V value, String... fields) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        for (int f = 0; f < fields.length && f < fieldWeights.length; f++) {
+            for (String token : tokenize(fields[f])) {
+                frequencies.merge(token, fieldWeights[f], Float::sum);
+                length += fieldWeights[f];
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            int ordinal;
+            Document<V> document = new Document<>(value, frequencies.keySet().toArray(new String[0]));
+            if (freeOrdinals.isEmpty()) {
+                ordinal = documents.size();
+                documents.add(document);
+                if (ordinal == lengths.length) {
+                    lengths = Arrays.copyOf(lengths, ordinal * 2);
+                }
+            } else {
+                ordinal = freeOrdinals.poll();
+                documents.set(ordinal, document);
+            }
+            lengths[ordinal] = length;
+            ordinals.put(key, ordinal);
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(ordinal, entry.getValue());
+            }
+            liveCount++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document; does nothing if the key is not indexed.
+     */
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the documents matching any word of the query, best first. Each
+     * word of at least MIN_PREFIX_LENGTH characters also matches up to
+     * MAX_PREFIX_TERMS longer terms starting with it. Of documents with the same
+     * score, the one indexed first comes first.
+     *
+     * @param query the words to look for
+     * @param limit the largest number of results
+     * @return the matching documents and their scores
+     */
+    public List<Hit<V>> search(String query, int limit) {
+        Set<String> words = new LinkedHashSet<>(tokenize(query));
+        if (words.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveCount == 0) {
+                return new ArrayList<>();
+            }
+            Scores scores = new Scores(documents.size(), (float) (totalLength / liveCount));
+            for (String word : words) {
+                Postings exact = terms.get(word);
+                if (exact != null) {
+                    score(exact, 1f, scores);
+                }
+                if (word.length() < MIN_PREFIX_LENGTH) {
+                    continue;
+                }
+                int expanded = 0;
+                for (Postings postings : terms.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                    if (expanded++ == MAX_PREFIX_TERMS) {
+                        break;
+                    }
+                    score(postings, PREFIX_WEIGHT, scores);
+                }
+            }
+            return topHits(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of documents in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of distinct terms in the index.
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Adds the BM25 contribution of one term to every live document it appears in
+    private void score(Postings postings, float weight, Scores scores) {
+        float idf = (float) Math.log(1 + (liveCount - postings.live + 0.5) / (postings.live + 0.5));
+        for (int i = 0; i < postings.size; i++) {
+            int ordinal = postings.ordinals[i];
+            float length = lengths[ordinal];
+            if (length == REMOVED) {
+                continue;
+            }
+            float frequency = postings.frequencies[i];
+            float norm = K1 * (1 - B + B * length / scores.averageLength);
+            scores.add(ordinal, weight * idf * frequency * (K1 + 1) / (frequency + norm));
+        }
+    }
+
+    private List<Hit<V>> topHits(Scores scores, int limit) {
+        float[] values = scores.values;
+        // Worst of the kept results on top: lowest score, then latest indexed
+        Comparator<Integer> worstFirst = (a, b) -> {
+            int byScore = Float.compare(values[a], values[b]);
+            return byScore != 0 ? byScore : Integer.compare(b, a);
+        };
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, scores.touchedCount) + 1, worstFirst);
+        for (int i = 0; i < scores.touchedCount; i++) {
+            int ordinal = scores.touched[i];
+            if (best.size() < limit) {
+                best.add(ordinal);
+            } else if (values[ordinal] >= values[best.peek()] && worstFirst.compare(ordinal, best.peek()) > 0) {
+                // Most documents score below the worst kept one and never reach the heap
+                best.poll();
+                best.add(ordinal);
+            }
+        }
+        List<Hit<V>> hits = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            int ordinal = best.poll();
+            hits.add(new Hit<>(documents.get(ordinal).value, values[ordinal]));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private void removeLocked(String key) {
+        Integer ordinal = ordinals.remove(key);
+        if (ordinal == null) {
+            return;
+        }
+        Document<V> document = documents.get(ordinal);
+        float length = lengths[ordinal];
+        lengths[ordinal] = REMOVED;
+        for (String term : document.terms) {
+            Postings postings = terms.get(term);
+            if (--postings.live == 0) {
+                // No live document has the term, so its dead entries can go with it
+                terms.remove(term);
+            }
+        }
+        liveCount--;
+        deadCount++;
+        totalLength -= length;
+        if (deadCount >= MIN_DEAD_TO_COMPACT && deadCount * 4 >= liveCount) {
+            compact();
+        }
+    }
+
+    // Drops the postings of removed documents and makes their ordinals reusable
+    private void compact() {
+        for (Postings postings : terms.values()) {
+            int kept = 0;
+            for (int i = 0; i < postings.size; i++) {
+                if (lengths[postings.ordinals[i]] != REMOVED) {
+                    postings.ordinals[kept] = postings.ordinals[i];
+                    postings.frequencies[kept] = postings.frequencies[i];
+                    kept++;
+                }
+            }
+            postings.size = kept;
+        }
+        for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+            if (lengths[ordinal] == REMOVED && documents.get(ordinal) != null) {
+                documents.set(ordinal, null);
+                freeOrdinals.add(ordinal);
+            }
+        }
+        deadCount = 0;
+    }
+
+    /**
+     * A search result: the value of a matching document and its score.
+     */
+    public static class Hit<V> {
+        private final V value;
+        private final float score;
+
+        Hit(V value, float score) {
+            this.value = value;
+            this.score = score;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+
+    private static class Document<V> {
+        final V value;
+        final String[] terms;
+
+        Document(V value, String[] terms) {
+            this.value = value;
+            this.terms = terms;
+        }
+    }
+
+    // Scores of one search, indexed by ordinal, and the ordinals that have one
+    private static class Scores {
+        final float[] values;
+        final float averageLength;
+        int[] touched = new int[16];
+        int touchedCount;
+
+        Scores(int size, float averageLength) {
+            this.values = new float[size];
+            this.averageLength = averageLength;
+        }
+
+        void add(int ordinal, float score) {
+            if (values[ordinal] == 0) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = ordinal;
+            }
+            values[ordinal] += score;
+        }
+    }
+
+    private static class Postings {
+        int[] ordinals = new int[2];
+        float[] frequencies = new float[2];
+        int size;
+        // Entries whose document is still in the index
+        int live;
+
+        void add(int ordinal, float frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ca.mcgill.ecse321.boardgame.cache;
+
+import ca.mcgill.ecse321.boardgame.model.AccountType;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+
+/**
+ * Immutable snapshot of the fields of a user account that existence and
+ * authorization checks need. It never carries the password.
+ */
+public final class UserIdentity {
+
+    private final long userAccountID;
+    private final String name;
+    private final String email;
+    private final AccountType accountType;
+
+    public UserIdentity(UserAccount userAccount) {
+        this.userAccountID = userAccount.getUserAccountID();
+        this.name = userAccount.getName();
+        this.email = userAccount.getEmail();
+        this.accountType = userAccount.getAccountType();
+    }
+
+    public long getUserAccountID() {
+        return userAccountID;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public AccountType getAccountType() {
+        return accountType;
+    }
+}
@@ -1,20 +1,28 @@
 package ca.mcgill.ecse321.boardgame.controller;
 
+import java.io.IOException;
+import java.sql.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import ca.mcgill.ecse321.boardgame.dto.BorrowRequestAcceptDto;
+import ca.mcgill.ecse321.boardgame.dto.BorrowRequestPageDto;
 import ca.mcgill.ecse321.boardgame.dto.BorrowRequestRequestDto;
 import ca.mcgill.ecse321.boardgame.dto.BorrowRequestResponseDto;
 import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
 import ca.mcgill.ecse321.boardgame.model.BorrowRequest;
+import ca.mcgill.ecse321.boardgame.model.RequestStatus;
 import ca.mcgill.ecse321.boardgame.service.BorrowRequestService;
+import ca.mcgill.ecse321.boardgame.service.ExportService;
 
 @RestController
 @RequestMapping("/api/borrowrequests")
@@ -24,6 +32,9 @@ public class BorrowRequestController {
     @Autowired
     private BorrowRequestService service;
 
+    @Autowired
+    private ExportService exportService;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BorrowRequestResponseDto createBorrowRequest(@RequestBody @Valid BorrowRequestRequestDto dto) {
@@ -37,9 +48,8 @@ public class BorrowRequestController {
     }
 
     @PutMapping("/{requestId}/accept")
-    public BorrowRequestResponseDto acceptRequest(@PathVariable long requestId) {
-        BorrowRequest br = service.acceptRequest(requestId);
-        return new BorrowRequestResponseDto(br);
+    public BorrowRequestAcceptDto acceptRequest(@PathVariable long requestId) {
+        return service.acceptRequest(requestId);
     }
 
     @PutMapping("/{requestId}/decline")
@@ -48,6 +58,31 @@ public class BorrowRequestController {
         return new BorrowRequestResponseDto(br);
     }
 
+    @PutMapping("/{requestId}/pickup")
+    public BorrowRequestResponseDto pickUpRequest(@PathVariable long requestId) {
+        BorrowRequest br = service.pickUpRequest(requestId);
+        return new BorrowRequestResponseDto(br);
+    }
+
+    @PutMapping("/{requestId}/return")
+    public BorrowRequestResponseDto returnRequest(@PathVariable long requestId) {
+        BorrowRequest br = service.returnRequest(requestId);
+        return new BorrowRequestResponseDto(br);
+    }
+
+    /**
+     * Streams every borrow request as newline-delimited JSON, for reporting. The rows
+     * are written as they are read, so the export never builds the full list.
+     *
+     * @param response the response the requests are written to
+     * @throws IOException if the response cannot be written
+     */
+    @GetMapping("/export")
+    public void exportBorrowRequests(HttpServletResponse response) throws IOException {
+        response.setContentType(ExportService.NDJSON);
+        exportService.exportBorrowRequests(response.getOutputStream());
+    }
+
     @GetMapping("/{requestId}")
     public BorrowRequestResponseDto getBorrowRequest(@PathVariable long requestId) {
         BorrowRequest br = service.getBorrowRequest(requestId);
@@ -68,6 +103,37 @@ public class BorrowRequestController {
                 .collect(Collectors.toList());
     }
 
+    @GetMapping("/page")
+    public BorrowRequestPageDto getBorrowRequestsPage(
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(required = false) Date from,
+            @RequestParam(required = false) Date to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BorrowRequestService.DEFAULT_PAGE_SIZE) int size) {
+        return service.getBorrowRequestsPage(status, from, to, cursor, size);
+    }
+
+    @GetMapping("/user/{userId}/page")
+    public BorrowRequestPageDto getBorrowRequestsPageByUserId(@PathVariable long userId,
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(required = false) Date from,
+            @RequestParam(required = false) Date to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BorrowRequestService.DEFAULT_PAGE_SIZE) int size) {
+        return service.getBorrowRequestsPageByUserId(userId, status, from, to, cursor, size);
+    }
+
+    // Requests addressed to the copies of an owner; pending ones unless another status is asked for
+    @GetMapping("/owner/{ownerId}/inbox")
+    public BorrowRequestPageDto getIncomingRequestsPage(@PathVariable long ownerId,
+            @RequestParam(defaultValue = "PENDING") RequestStatus status,
+            @RequestParam(required = false) Date from,
+            @RequestParam(required = false) Date to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BorrowRequestService.DEFAULT_PAGE_SIZE) int size) {
+        return service.getIncomingRequestsPage(ownerId, status, from, to, cursor, size);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<?> handleNotFound(ResourceNotFoundException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -75,6 +141,13 @@ public class BorrowRequestController {
         return new ResponseEntity<>(body, ex.getStatus());
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleConcurrentUpdate(ObjectOptimisticLockingFailureException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("errors", List.of("BorrowRequest was changed by another request"));
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<?> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
         Map<String, Object> body = new HashMap<>();
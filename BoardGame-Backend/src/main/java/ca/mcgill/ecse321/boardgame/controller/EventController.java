@@ -1,13 +1,17 @@
 package ca.mcgill.ecse321.boardgame.controller;
 
 import ca.mcgill.ecse321.boardgame.dto.EventCreationDto;
+import ca.mcgill.ecse321.boardgame.dto.EventPurgeResultDto;
 import ca.mcgill.ecse321.boardgame.dto.EventResponseDto;
 import ca.mcgill.ecse321.boardgame.service.EventService;
+import ca.mcgill.ecse321.boardgame.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -18,6 +22,9 @@ public class EventController {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private ExportService exportService;
+
     /**
      * Creates a new event.
      *
@@ -32,6 +39,19 @@ public class EventController {
         return new EventResponseDto(eventService.createEvent(eventCreationDto, userAccountId));
     }
 
+    /**
+     * Streams every event as newline-delimited JSON, for reporting. The rows
+     * are written as they are read, so the export never builds the full list.
+     *
+     * @param response the response the events are written to
+     * @throws IOException if the response cannot be written
+     */
+    @GetMapping("/export")
+    public void exportEvents(HttpServletResponse response) throws IOException {
+        response.setContentType(ExportService.NDJSON);
+        exportService.exportEvents(response.getOutputStream());
+    }
+
     /**
      * Retrieves the details of a specific event by its ID.
      *
@@ -76,6 +96,16 @@ public class EventController {
         eventService.updateEventDescription(eventId, newDescription);
     }
 
+    /**
+     * Deletes all expired events and their registrations.
+     *
+     * @return the number of rows deleted and the time taken
+     */
+    @DeleteMapping("/expired")
+    public EventPurgeResultDto purgeExpiredEvents() {
+        return eventService.purgeExpiredEvents();
+    }
+
     /**
      * Deletes a specific event by its ID.
      *
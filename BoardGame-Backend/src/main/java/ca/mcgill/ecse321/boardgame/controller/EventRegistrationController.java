@@ -3,11 +3,14 @@ package ca.mcgill.ecse321.boardgame.controller;
 import ca.mcgill.ecse321.boardgame.dto.EventRegistrationRequestDto;
 import ca.mcgill.ecse321.boardgame.dto.EventRegistrationResponseDto;
 import ca.mcgill.ecse321.boardgame.service.EventRegistrationService;
+import ca.mcgill.ecse321.boardgame.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -18,6 +21,9 @@ public class EventRegistrationController {
     @Autowired
     private EventRegistrationService eventRegistrationService;
 
+    @Autowired
+    private ExportService exportService;
+
     /**
      * Registers a participant for an event.
      *
@@ -30,6 +36,19 @@ public class EventRegistrationController {
         return eventRegistrationService.register(dto);
     }
 
+    /**
+     * Streams every event registration as newline-delimited JSON, for reporting. The rows
+     * are written as they are read, so the export never builds the full list.
+     *
+     * @param response the response the registrations are written to
+     * @throws IOException if the response cannot be written
+     */
+    @GetMapping("/export")
+    public void exportEventRegistrations(HttpServletResponse response) throws IOException {
+        response.setContentType(ExportService.NDJSON);
+        exportService.exportEventRegistrations(response.getOutputStream());
+    }
+
     /**
      * Retrieves a specific event registration.
      *
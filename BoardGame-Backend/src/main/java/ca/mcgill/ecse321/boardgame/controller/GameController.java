@@ -1,17 +1,32 @@
 package ca.mcgill.ecse321.boardgame.controller;
 
+import ca.mcgill.ecse321.boardgame.cache.CacheStats;
 import ca.mcgill.ecse321.boardgame.dto.EventRegistrationResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import ca.mcgill.ecse321.boardgame.dto.AutocompleteStatsDto;
+import ca.mcgill.ecse321.boardgame.dto.GameBrowsePageDto;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyPageDto;
+import ca.mcgill.ecse321.boardgame.dto.GameImportResultDto;
 import ca.mcgill.ecse321.boardgame.dto.GameListDto;
+import ca.mcgill.ecse321.boardgame.dto.GamePageDto;
+import ca.mcgill.ecse321.boardgame.dto.GameRatingDto;
 import ca.mcgill.ecse321.boardgame.dto.GameRequestDto;
 import ca.mcgill.ecse321.boardgame.dto.GameResponseDto;
+import ca.mcgill.ecse321.boardgame.dto.GameSearchHitDto;
 import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameStatus;
+import ca.mcgill.ecse321.boardgame.service.GameBrowseService;
+import ca.mcgill.ecse321.boardgame.service.GameCopyService;
+import ca.mcgill.ecse321.boardgame.service.GameImportService;
+import ca.mcgill.ecse321.boardgame.service.GameSearchService;
 import ca.mcgill.ecse321.boardgame.service.GameService;
 
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,16 +42,115 @@ public class GameController {
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private GameCopyService gameCopyService;
+
+    @Autowired
+    private GameImportService gameImportService;
+
+    @Autowired
+    private GameSearchService gameSearchService;
+
+    @Autowired
+    private GameBrowseService gameBrowseService;
+
     /**
-     * Retrieves all games.
+     * Retrieves all games, capped to a bounded number of titles.
      *
-     * @return a list of all games
+     * @return a list of games ordered by title
      */
     @GetMapping
     public List<GameResponseDto> getAllGames() {
         return gameService.getAllGames();
     }
 
+    /**
+     * Retrieves one page of games ordered by title.
+     *
+     * @param cursor the nextCursor returned with the previous page, omitted for the first page
+     * @param size   the number of games per page
+     * @return the GamePageDto holding the games and the next cursor
+     */
+    @GetMapping("/page")
+    public GamePageDto getGamesPage(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + GameService.DEFAULT_PAGE_SIZE) int size) {
+        return gameService.getGamesPage(cursor, size);
+    }
+
+    /**
+     * Browses the catalog by category, with the number of games behind each choice.
+     *
+     * @param category  the categories to keep, repeated for several, omitted for all
+     * @param available whether to keep only the games with a copy that can be borrowed
+     * @param cursor    the nextCursor returned with the previous page, omitted for the first page
+     * @param size      the number of games per page
+     * @return the GameBrowsePageDto holding the games, the facet counts and the next cursor
+     */
+    @GetMapping("/browse")
+    public GameBrowsePageDto browseGames(@RequestParam(required = false) List<String> category,
+            @RequestParam(defaultValue = "false") boolean available,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + GameService.DEFAULT_PAGE_SIZE) int size) {
+        return gameBrowseService.browse(category, available, cursor, size);
+    }
+
+    /**
+     * Searches the titles, descriptions and categories of the games.
+     *
+     * @param q     the words to look for
+     * @param limit the largest number of results
+     * @return the matching games, best first
+     */
+    @GetMapping("/search")
+    public List<GameSearchHitDto> searchGames(@RequestParam String q,
+            @RequestParam(defaultValue = "" + GameSearchService.DEFAULT_LIMIT) int limit) {
+        return gameSearchService.search(q, limit);
+    }
+
+    /**
+     * Completes a game title as it is typed, most reviewed games first.
+     *
+     * @param prefix the start of the title
+     * @param limit  the largest number of titles
+     * @return the matching titles
+     */
+    @GetMapping("/autocomplete")
+    public List<String> autocompleteTitles(@RequestParam String prefix,
+            @RequestParam(defaultValue = "" + GameSearchService.DEFAULT_AUTOCOMPLETE_LIMIT) int limit) {
+        return gameSearchService.autocomplete(prefix, limit);
+    }
+
+    /**
+     * Retrieves the size and estimated memory footprint of the title autocomplete index.
+     *
+     * @return the number of titles and the bytes they take
+     */
+    @GetMapping("/autocomplete/stats")
+    public AutocompleteStatsDto getAutocompleteStats() {
+        return gameSearchService.getAutocompleteStats();
+    }
+
+    /**
+     * Retrieves the counters of the game title lookup cache.
+     *
+     * @return the hit, miss and eviction counts
+     */
+    @GetMapping("/cache/stats")
+    public CacheStats getGameCacheStats() {
+        return gameService.getGameCacheStats();
+    }
+
+    /**
+     * Retrieves the ratings of many games at once, without reading their reviews.
+     *
+     * @param titles the titles of the games
+     * @return one GameRatingDto per title, in the order given
+     */
+    @GetMapping("/ratings")
+    public List<GameRatingDto> getRatings(@RequestParam List<String> titles) {
+        return gameService.getRatings(titles);
+    }
+
     /**
      * Retrieves a game by its title.
      *
@@ -46,7 +160,24 @@ public class GameController {
     @GetMapping("/{title}")
     public GameResponseDto getGameByTitle(@PathVariable String title) {
         Game game = gameService.getGameByTitle(title);
-        return new GameResponseDto(game);
+        return new GameResponseDto(game, gameService.getRating(game.getTitle()));
+    }
+
+    /**
+     * Retrieves one page of the copies of a game across all owners, ordered by owner ID.
+     *
+     * @param title  the title of the game
+     * @param status the status of the copies to list, omitted for every status
+     * @param cursor the nextCursor returned with the previous page, omitted for the first page
+     * @param size   the number of copies per page
+     * @return the GameCopyPageDto holding the copies and the next cursor
+     */
+    @GetMapping("/{title}/copies")
+    public GameCopyPageDto getGameCopies(@PathVariable String title,
+            @RequestParam(required = false) GameStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + GameCopyService.DEFAULT_PAGE_SIZE) int size) {
+        return gameCopyService.getGameCopiesPage(title, status, cursor, size);
     }
 
     /**
@@ -59,7 +190,23 @@ public class GameController {
     @ResponseStatus(HttpStatus.CREATED)
     public GameResponseDto createGame(@RequestBody @Valid GameRequestDto gameRequestDto) {
         Game createdGame = gameService.createGame(gameRequestDto);
-        return new GameResponseDto(createdGame);
+        return new GameResponseDto(createdGame, new GameRatingDto(createdGame.getTitle()));
+    }
+
+    /**
+     * Imports games in bulk from a CSV file with a header row, or from one JSON
+     * object per line. The file is read and stored in chunks, never as a whole;
+     * titles that already exist are skipped.
+     *
+     * @param contentType text/csv or application/x-ndjson
+     * @param chunkSize   the number of rows per insert batch, omitted for the configured size
+     * @param body        the catalog to import
+     * @return the GameImportResultDto with the counts and the rows that were not imported
+     */
+    @PostMapping(value = "/import", consumes = { GameImportService.CSV, GameImportService.NDJSON })
+    public GameImportResultDto importGames(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(required = false) Integer chunkSize, InputStream body) {
+        return gameImportService.importGames(body, contentType, chunkSize);
     }
 
     /**
@@ -73,7 +220,7 @@ public class GameController {
     public GameResponseDto updateGame(@PathVariable String title,
             @RequestBody @Valid GameRequestDto gameRequestDto) {
         Game updatedGame = gameService.updateGame(title, gameRequestDto);
-        return new GameResponseDto(updatedGame);
+        return new GameResponseDto(updatedGame, gameService.getRating(updatedGame.getTitle()));
     }
 
     /**
@@ -3,11 +3,15 @@ package ca.mcgill.ecse321.boardgame.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyBatchResultDto;
 import ca.mcgill.ecse321.boardgame.dto.GameCopyCreationDto;
 import ca.mcgill.ecse321.boardgame.dto.GameCopyResponseDto;
 import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.service.BorrowWindowService;
 import ca.mcgill.ecse321.boardgame.service.GameCopyService;
+import ca.mcgill.ecse321.boardgame.service.GameService;
 import jakarta.validation.Valid;
+import java.sql.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,6 +23,12 @@ public class GameCopyController {
     @Autowired
     private GameCopyService gameCopyService;
 
+    @Autowired
+    private BorrowWindowService borrowWindowService;
+
+    @Autowired
+    private GameService gameService;
+
     /**
      * Creates a new game copy for the specified user.
      *
@@ -35,6 +45,19 @@ public class GameCopyController {
         return new GameCopyResponseDto(createdGameCopy);
     }
 
+    /**
+     * Adds many game copies to the library of the specified user at once.
+     *
+     * @param userAccountId the ID of the owner of the copies
+     * @param copies        the title and description of each copy
+     * @return the number of copies created and the outcome of each title
+     */
+    @PostMapping("/{userAccountId}/batch")
+    public GameCopyBatchResultDto createGameCopies(@PathVariable long userAccountId,
+            @RequestBody List<GameCopyCreationDto> copies) {
+        return gameCopyService.createGameCopies(userAccountId, copies);
+    }
+
     /**
      * Updates the status of a game copy for the specified user.
      *
@@ -84,6 +107,38 @@ public class GameCopyController {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Checks whether a game copy is free to lend between two dates, both included.
+     *
+     * @param userAccountId the ID of the owner of the game copy
+     * @param title         the title of the game copy
+     * @param startDate     the first day of the range
+     * @param endDate       the last day of the range
+     * @return true if no accepted request holds the copy on any day of the range
+     */
+    @GetMapping("/{userAccountId}/{title}/availability")
+    public boolean isGameCopyFree(@PathVariable long userAccountId, @PathVariable String title,
+            @RequestParam Date startDate, @RequestParam Date endDate) {
+        return !borrowWindowService.isCopyBooked(userAccountId, gameService.resolveTitle(title), startDate,
+                endDate);
+    }
+
+    /**
+     * Retrieves the copies of a game that are free to lend between two dates, both included.
+     *
+     * @param gameTitle the title of the game
+     * @param startDate the first day of the range
+     * @param endDate   the last day of the range
+     * @return a list of GameCopyResponseDto objects
+     */
+    @GetMapping("/free")
+    public List<GameCopyResponseDto> getFreeGameCopies(@RequestParam String gameTitle,
+            @RequestParam Date startDate, @RequestParam Date endDate) {
+        return borrowWindowService.findFreeCopies(gameService.resolveTitle(gameTitle), startDate, endDate).stream()
+                .map(GameCopyResponseDto::new)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Deletes a game copy for the specified user.
      *
@@ -1,10 +1,12 @@
 package ca.mcgill.ecse321.boardgame.controller;
 
+import ca.mcgill.ecse321.boardgame.cache.CacheStats;
 import ca.mcgill.ecse321.boardgame.dto.UserAccountListDto;
 import ca.mcgill.ecse321.boardgame.dto.UserAccountRequestDto;
 import ca.mcgill.ecse321.boardgame.dto.UserAccountResponseDto;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
 import ca.mcgill.ecse321.boardgame.service.UserAccountService;
+import ca.mcgill.ecse321.boardgame.service.UserIdentityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +29,9 @@ public class UserAccountController {
     @Autowired
     private UserAccountService userAccountService;
 
+    @Autowired
+    private UserIdentityService userIdentityService;
+
     /**
      * Return all the user accounts in the database
      *
@@ -53,6 +58,16 @@ public class UserAccountController {
         return new UserAccountResponseDto(userAccount);
     }
 
+    /**
+     * Return the counters of the user identity cache
+     *
+     * @return The hit, miss and eviction counts
+     */
+    @GetMapping("/UserAccount/cache/stats")
+    public CacheStats getIdentityCacheStats() {
+        return userIdentityService.getStats();
+    }
+
     /**
      * Create a new user account
      *
@@ -0,0 +1,26 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+/**
+ * Data transfer object for the size of the title autocomplete index.
+ * The memory figure is an estimate of the heap the index holds.
+ */
+public class AutocompleteStatsDto {
+    private int titles;
+    private long memoryBytes;
+
+    // Required for Jackson serialization
+    public AutocompleteStatsDto() {}
+
+    public AutocompleteStatsDto(int titles, long memoryBytes) {
+        this.titles = titles;
+        this.memoryBytes = memoryBytes;
+    }
+
+    public int getTitles() {
+        return titles;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+}
@@ -0,0 +1,21 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+import ca.mcgill.ecse321.boardgame.model.BorrowRequest;
+
+/**
+ * An accepted borrow request, with the number of competing pending requests
+ * for the same copy that were declined along with it.
+ */
+public class BorrowRequestAcceptDto extends BorrowRequestResponseDto {
+
+    private int declinedRequests;
+
+    public BorrowRequestAcceptDto() {}
+
+    public BorrowRequestAcceptDto(BorrowRequest br, int declinedRequests) {
+        super(br);
+        this.declinedRequests = declinedRequests;
+    }
+
+    public int getDeclinedRequests() { return declinedRequests; }
+}
@@ -0,0 +1,19 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+import java.util.List;
+
+public class BorrowRequestPageDto {
+
+    private List<BorrowRequestResponseDto> borrowRequests;
+    private String nextCursor;
+
+    public BorrowRequestPageDto() {}
+
+    public BorrowRequestPageDto(List<BorrowRequestResponseDto> borrowRequests, String nextCursor) {
+        this.borrowRequests = borrowRequests;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BorrowRequestResponseDto> getBorrowRequests() { return borrowRequests; }
+    public String getNextCursor() { return nextCursor; }
+}
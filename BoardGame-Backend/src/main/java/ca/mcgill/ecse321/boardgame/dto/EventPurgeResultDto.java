@@ -0,0 +1,38 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+/**
+ * Outcome of one run of the expired event purge.
+ */
+public class EventPurgeResultDto {
+
+    private long eventsDeleted;
+    private long registrationsDeleted;
+    private int chunks;
+    private long elapsedMillis;
+
+    protected EventPurgeResultDto() {
+    }
+
+    public EventPurgeResultDto(long eventsDeleted, long registrationsDeleted, int chunks, long elapsedMillis) {
+        this.eventsDeleted = eventsDeleted;
+        this.registrationsDeleted = registrationsDeleted;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getEventsDeleted() {
+        return eventsDeleted;
+    }
+
+    public long getRegistrationsDeleted() {
+        return registrationsDeleted;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -7,6 +7,7 @@ import java.sql.Time;
 
 public class EventResponseDto {
 
+    private Long eventId;
     private String eventName;
     private Date eventDate;
     private Time eventTime;
@@ -20,6 +21,7 @@ public class EventResponseDto {
     }
 
     public EventResponseDto(Event event) {
+        this.eventId = event.getEventID();
         this.eventName = event.getEventName();
         this.eventDate = event.getDate();
         this.eventTime = event.getTime();
@@ -31,6 +33,10 @@ public class EventResponseDto {
     }
 
     // Getters and Setters
+    public Long getEventId() {
+        return eventId;
+    }
+
     public String getEventName() {
         return eventName;
     }
@@ -0,0 +1,33 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+import ca.mcgill.ecse321.boardgame.cache.FacetIndex;
+
+/**
+ * Data transfer object for one game in a faceted browse page.
+ */
+public class GameBrowseItemDto {
+    private String title;
+    private String category;
+    private int availableCopies;
+
+    // Required for Jackson serialization
+    public GameBrowseItemDto() {}
+
+    public GameBrowseItemDto(FacetIndex.Item item) {
+        this.title = item.getTitle();
+        this.category = item.getCategory();
+        this.availableCopies = item.getAvailableCopies();
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public int getAvailableCopies() {
+        return availableCopies;
+    }
+}
@@ -0,0 +1,51 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data transfer object for one page of a faceted browse of the catalog.
+ * The total counts every matching game, not just this page. Each category
+ * count is the number of games that choosing only that category would give,
+ * and the available count the number that asking for an available copy
+ * would give. The next cursor is null when there are no more games.
+ */
+public class GameBrowsePageDto {
+    private int total;
+    private List<GameBrowseItemDto> games;
+    private Map<String, Integer> categoryCounts;
+    private int availableCount;
+    private String nextCursor;
+
+    // Required for Jackson serialization
+    public GameBrowsePageDto() {}
+
+    public GameBrowsePageDto(int total, List<GameBrowseItemDto> games, Map<String, Integer> categoryCounts,
+            int availableCount, String nextCursor) {
+        this.total = total;
+        this.games = games;
+        this.categoryCounts = categoryCounts;
+        this.availableCount = availableCount;
+        this.nextCursor = nextCursor;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public List<GameBrowseItemDto> getGames() {
+        return games;
+    }
+
+    public Map<String, Integer> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public int getAvailableCount() {
+        return availableCount;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
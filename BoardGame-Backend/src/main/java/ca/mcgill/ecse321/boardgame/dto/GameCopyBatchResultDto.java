@@ -0,0 +1,34 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+import java.util.List;
+
+/**
+ * The result of registering a batch of game copies for one owner: the number
+ * of copies created and one outcome per title, in the order they were sent.
+ */
+public class GameCopyBatchResultDto {
+    private long owner;
+    private int created;
+    private List<GameCopyOutcomeDto> outcomes;
+
+    // Required for Jackson serialization
+    public GameCopyBatchResultDto() {}
+
+    public GameCopyBatchResultDto(long owner, int created, List<GameCopyOutcomeDto> outcomes) {
+        this.owner = owner;
+        this.created = created;
+        this.outcomes = outcomes;
+    }
+
+    public long getOwner() {
+        return owner;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public List<GameCopyOutcomeDto> getOutcomes() {
+        return outcomes;
+    }
+}
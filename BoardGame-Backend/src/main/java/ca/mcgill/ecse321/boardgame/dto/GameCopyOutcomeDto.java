@@ -0,0 +1,39 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+/**
+ * What became of one title of a batch of game copies.
+ */
+public class GameCopyOutcomeDto {
+
+    public enum Outcome {
+        CREATED, ALREADY_OWNED, GAME_NOT_FOUND, INVALID
+    }
+
+    private String title;
+    private Outcome outcome;
+    private String message;
+
+    // Required for Jackson serialization
+    public GameCopyOutcomeDto() {}
+
+    public GameCopyOutcomeDto(String title, Outcome outcome, String message) {
+        this.title = title;
+        this.outcome = outcome;
+        this.message = message;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Why the copy was not created, or null when it was.
+     */
+    public String getMessage() {
+        return message;
+    }
+}
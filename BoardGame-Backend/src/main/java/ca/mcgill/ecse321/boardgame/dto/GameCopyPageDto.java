@@ -0,0 +1,34 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+import java.util.List;
+
+/**
+ * Data transfer object for one page of the copies of a game, ordered by owner.
+ * The next cursor is null when there are no more copies.
+ */
+public class GameCopyPageDto {
+    private String title;
+    private List<GameCopySummaryDto> copies;
+    private String nextCursor;
+
+    // Required for Jackson serialization
+    public GameCopyPageDto() {}
+
+    public GameCopyPageDto(String title, List<GameCopySummaryDto> copies, String nextCursor) {
+        this.title = title;
+        this.copies = copies;
+        this.nextCursor = nextCursor;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<GameCopySummaryDto> getCopies() {
+        return copies;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,40 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
+
+/**
+ * Data transfer object for one copy in a listing of the copies of a game.
+ * The game itself is described once by the enclosing page.
+ */
+public class GameCopySummaryDto {
+    private long owner;
+    private String ownerName;
+    private String description;
+    private String status;
+
+    // Required for Jackson serialization
+    public GameCopySummaryDto() {}
+
+    public GameCopySummaryDto(GameCopy gameCopy) {
+        this.owner = gameCopy.getGameCopyKey().getOwner().getUserAccountID();
+        this.ownerName = gameCopy.getGameCopyKey().getOwner().getName();
+        this.description = gameCopy.getDescription();
+        this.status = gameCopy.getStatus().toString();
+    }
+
+    public long getOwner() {
+        return owner;
+    }
+
+    public String getOwnerName() {
+        return ownerName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
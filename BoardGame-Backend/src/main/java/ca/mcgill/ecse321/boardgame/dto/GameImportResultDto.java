@@ -0,0 +1,66 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of one bulk catalog import. At most GameImportService.MAX_REPORTED_ERRORS
+ * rows are listed in errors; errorsTruncated tells whether more were dropped.
+ */
+public class GameImportResultDto {
+
+    private long rowsRead;
+    private long imported;
+    private long duplicates;
+    private long failed;
+    private int chunks;
+    private long elapsedMillis;
+    private List<ImportErrorDto> errors;
+    private boolean errorsTruncated;
+
+    protected GameImportResultDto() {
+    }
+
+    public GameImportResultDto(long rowsRead, long imported, long duplicates, long failed, int chunks,
+            long elapsedMillis, List<ImportErrorDto> errors, boolean errorsTruncated) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.failed = failed;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedMillis;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public List<ImportErrorDto> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+}
@@ -0,0 +1,37 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+import java.util.List;
+
+/**
+ * Data transfer object for one page of the game catalog.
+ * The next cursor is null when there are no more games.
+ */
+
+public class GamePageDto {
+    private List<GameResponseDto> games;
+    private String nextCursor;
+
+    // Required for Jackson serialization
+    public GamePageDto() {}
+
+    public GamePageDto(List<GameResponseDto> games, String nextCursor) {
+        this.games = games;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<GameResponseDto> getGames() {
+        return games;
+    }
+
+    public void setGames(List<GameResponseDto> games) {
+        this.games = games;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,66 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ca.mcgill.ecse321.boardgame.model.GameRating;
+
+/**
+ * Data transfer object for the rating of a game, read from its running
+ * totals rather than from the reviews themselves.
+ */
+public class GameRatingDto {
+    private String gameTitle;
+    private long reviewCount;
+    private long ratingSum;
+    private Double averageRating;
+    private List<Long> histogram;
+
+    // Required for Jackson serialization
+    public GameRatingDto() {}
+
+    /**
+     * The rating of a game nobody has reviewed yet.
+     */
+    public GameRatingDto(String gameTitle) {
+        this.gameTitle = gameTitle;
+        this.histogram = new ArrayList<>(List.of(0L, 0L, 0L, 0L, 0L));
+    }
+
+    public GameRatingDto(GameRating rating) {
+        this.gameTitle = rating.getGameTitle();
+        this.reviewCount = rating.getReviewCount();
+        this.ratingSum = rating.getRatingSum();
+        this.averageRating = reviewCount == 0 ? null : (double) ratingSum / reviewCount;
+        this.histogram = new ArrayList<>();
+        for (long stars : rating.getHistogram()) {
+            histogram.add(stars);
+        }
+    }
+
+    public String getGameTitle() {
+        return gameTitle;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    /**
+     * The mean rating, or null when the game has no reviews.
+     */
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    /**
+     * The number of reviews giving one to five stars, in that order.
+     */
+    public List<Long> getHistogram() {
+        return histogram;
+    }
+}
@@ -11,6 +11,7 @@ public class GameResponseDto {
     private String title;
     private String description;
     private String category;
+    private GameRatingDto rating;
 
     // Required for Jackson serialization
     public GameResponseDto() {}
@@ -21,6 +22,11 @@ public class GameResponseDto {
         this.category = game.getCategory();
     }
 
+    public GameResponseDto(Game game, GameRatingDto rating) {
+        this(game);
+        this.rating = rating;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -44,4 +50,11 @@ public class GameResponseDto {
     public void setCategory(String category) {
         this.category = category;
     }
+
+    /**
+     * The review totals of the game, or null when they were not loaded.
+     */
+    public GameRatingDto getRating() {
+        return rating;
+    }
 }
@@ -0,0 +1,40 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+import ca.mcgill.ecse321.boardgame.model.Game;
+
+/**
+ * Data transfer object for one result of a catalog search.
+ * The score only orders the results of the same search.
+ */
+public class GameSearchHitDto {
+    private String title;
+    private String description;
+    private String category;
+    private float score;
+
+    // Required for Jackson serialization
+    public GameSearchHitDto() {}
+
+    public GameSearchHitDto(Game game, float score) {
+        this.title = game.getTitle();
+        this.description = game.getDescription();
+        this.category = game.getCategory();
+        this.score = score;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public float getScore() {
+        return score;
+    }
+}
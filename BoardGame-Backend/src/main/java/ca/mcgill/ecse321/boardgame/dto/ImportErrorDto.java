@@ -0,0 +1,35 @@
+package ca.mcgill.ecse321.boardgame.dto;
+
+/**
+ * A row of a bulk import that was not stored, with the line it starts on.
+ */
+public class ImportErrorDto {
+
+    private long line;
+    private String key;
+    private String message;
+
+    protected ImportErrorDto() {
+    }
+
+    public ImportErrorDto(long line, String key, String message) {
+        this.line = line;
+        this.key = key;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * The title or other identifying value of the row, when it could be read.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
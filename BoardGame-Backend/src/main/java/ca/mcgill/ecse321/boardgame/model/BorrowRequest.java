@@ -1,12 +1,23 @@
 package ca.mcgill.ecse321.boardgame.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.antlr.v4.runtime.misc.NotNull;
 import org.springframework.lang.NonNull;
 
 import java.sql.*;
 
 @Entity(name = "BorrowRequest")
+@Table(indexes = {
+        @Index(name = "idx_borrow_request_status_date", columnList = "status, request_date, id"),
+        @Index(name = "idx_borrow_request_borrower_date", columnList = "borrower_user_accountid, request_date, id"),
+        // Owner inbox: the requests for an owner's copies, in keyset order
+        @Index(name = "idx_borrow_request_owner_date",
+                columnList = "game_to_borrow_owner_user_accountid, status, request_date, id"),
+        // Range lookups of the windows booked on one copy
+        @Index(name = "idx_borrow_request_copy_window",
+                columnList = "game_to_borrow_owner_user_accountid, game_to_borrow_game_title, start_date, end_date")
+})
 public class BorrowRequest {
 
     @Id
@@ -28,14 +39,19 @@ public class BorrowRequest {
     @Temporal(TemporalType.DATE)
     private Date endDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(nullable = false)
     private UserAccount borrower;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({@JoinColumn(nullable = false),@JoinColumn(nullable = false )})
     private GameCopy gameToBorrow;
 
+    // Each transition is one UPDATE guarded by this version
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     protected BorrowRequest(){}
 
     public BorrowRequest(RequestStatus status,Date requestDate,Date decisionDate,Date startDate,Date endDate,UserAccount borrower,GameCopy gameToBorrow){
@@ -80,5 +96,44 @@ public class BorrowRequest {
         return gameToBorrow;
     }
 
+    public long getVersion(){
+        return version;
+    }
+
+    public void accept(Date decisionDate){
+        transitionTo(RequestStatus.ACCEPTED);
+        this.decisionDate = decisionDate;
+    }
+
+    public void decline(Date decisionDate){
+        transitionTo(RequestStatus.DECLINED);
+        this.decisionDate = decisionDate;
+    }
+
+    public void pickUp(){
+        transitionTo(RequestStatus.PICKEDUP);
+    }
+
+    public void markReturned(){
+        transitionTo(RequestStatus.RETURNED);
+    }
+
+    /**
+     * Checks that the request may move to the given status, without moving it.
+     *
+     * @param next the status to move to
+     * @throws IllegalStateException if the lifecycle does not allow the move
+     */
+    public void checkTransition(RequestStatus next){
+        if (!status.canBecome(next)){
+            throw new IllegalStateException("Borrow request " + id + " cannot go from " + status + " to " + next);
+        }
+    }
+
+    private void transitionTo(RequestStatus next){
+        checkTransition(next);
+        status = next;
+    }
+
 
 }
@@ -1,10 +1,14 @@
 package ca.mcgill.ecse321.boardgame.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.sql.*;
 
 @Entity(name = "Event")
+// Fetch plan of the event listings: each event is read with its game and its creator
+@NamedEntityGraph(name = "Event.withGameAndCreator",
+        attributeNodes = { @NamedAttributeNode("gameToPlay"), @NamedAttributeNode("creator") })
 public class Event {
 
     @Id
@@ -25,11 +29,15 @@ public class Event {
 
     private int maxParticipant;
 
-    @ManyToOne
+    // Seats taken so far; only changed through the guarded updates in EventRepository
+    @ColumnDefault("0")
+    private int registeredCount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(nullable = false)
     private Game gameToPlay;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(nullable = false)
     private UserAccount creator;
 
@@ -76,6 +84,10 @@ public class Event {
         return maxParticipant;
     }
 
+    public int getRegisteredCount() {
+        return registeredCount;
+    }
+
     public Game getGameToPlay() {
         return gameToPlay;
     }
@@ -32,10 +32,10 @@ public class EventRegistration {
     @Embeddable
     public static class EventRegistrationKey implements Serializable{
 
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         private UserAccount registrant;
 
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         private Event event;
 
         public EventRegistrationKey() {
@@ -5,14 +5,30 @@ import jakarta.persistence.*;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 
+/**
+ * A game of the catalog. The title is the primary key and is kept as entered;
+ * the title key is its case-folded form with accents dropped and whitespace
+ * and punctuation collapsed, and is unique, so "Catan", "catan" and
+ * "CATAN!" are one game. Every lookup by a title given by a client goes
+ * through the key. The folding is TextNormalizer's, kept in the model so that
+ * a change to search cannot alter the stored keys.
+ */
 @Entity(name = "Game")
+@Table(indexes = {
+        @Index(name = "idx_game_title_key", columnList = "title_key", unique = true)
+})
 public class Game implements Serializable {
 
     @Id
     private String title;
 
+    // Unicode decomposition can make the key longer than the title
+    @Column(nullable = false, length = 512)
+    private String titleKey;
+
     private String description;
 
     private String category;
@@ -25,14 +41,38 @@ public class Game implements Serializable {
             throw new IllegalArgumentException("Title cannot be null or empty");
         }
         this.title = title;
+        this.titleKey = toTitleKey(title);
         this.description = description;
         this.category = category;
     }
 
+    /**
+     * Returns the title key of a title: its words in lower case without
+     * accents, separated by single spaces. A title with no letter or digit
+     * keeps its own characters, in lower case, so that it still has a key.
+     *
+     * @param title the title as given
+     * @return the key the title is stored and looked up under
+     */
+    public static String toTitleKey(String title) {
+        if (title == null) {
+            return null;
+        }
+        String key = TextNormalizer.normalize(title);
+        if (key.isEmpty()) {
+            key = title.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        }
+        return key;
+    }
+
     public String getTitle() {
         return title;
     }
 
+    public String getTitleKey() {
+        return titleKey;
+    }
+
     public String getDescription() {
         return description;
     }
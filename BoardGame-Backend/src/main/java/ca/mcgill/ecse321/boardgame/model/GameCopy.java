@@ -1,11 +1,27 @@
 package ca.mcgill.ecse321.boardgame.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.io.Serializable;
 import java.util.Objects;
 
 @Entity(name = "GameCopy")
+// Fetch plans of the copy listings: GameCopyResponseDto reads the owner's name and the game's description,
+// GameCopySummaryDto only the owner's name
+@NamedEntityGraph(name = "GameCopy.withOwnerAndGame",
+        attributeNodes = @NamedAttributeNode(value = "gameCopyKey", subgraph = "ownerAndGame"),
+        subgraphs = @NamedSubgraph(name = "ownerAndGame",
+                attributeNodes = { @NamedAttributeNode("owner"), @NamedAttributeNode("game") }))
+@NamedEntityGraph(name = "GameCopy.withOwner",
+        attributeNodes = @NamedAttributeNode(value = "gameCopyKey", subgraph = "owner"),
+        subgraphs = @NamedSubgraph(name = "owner", attributeNodes = @NamedAttributeNode("owner")))
+@Table(indexes = {
+        // The primary key leads with the game column, so owner lookups need their own index
+        @Index(name = "idx_game_copy_owner", columnList = "owner_user_accountid"),
+        // Copies of one game in a given status, in owner order for keyset paging
+        @Index(name = "idx_game_copy_game_status", columnList = "game_title, status, owner_user_accountid")
+})
 public class GameCopy {
 
     @EmbeddedId
@@ -15,6 +31,11 @@ public class GameCopy {
 
     private GameStatus status;
 
+    // Lending and returning update the status in place and bump the version
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     protected GameCopy() {
     }
 
@@ -36,6 +57,10 @@ public class GameCopy {
         return status;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public void setDescription(String description) {
         this.description = description;
     }
@@ -47,10 +72,10 @@ public class GameCopy {
     @Embeddable
     public static class GameCopyKey implements Serializable {
 
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         private UserAccount owner;
 
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         private Game game;
 
         public GameCopyKey() {
@@ -0,0 +1,60 @@
+package ca.mcgill.ecse321.boardgame.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Running totals of the reviews of one game: how many there are, the sum of
+ * their ratings and how many gave each number of stars. ReviewService keeps
+ * the row in step with the review table in the same transaction as each
+ * change; a game without reviews has no row.
+ */
+@Entity(name = "GameRating")
+public class GameRating {
+
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 5;
+
+    // Not a foreign key, so deleting a game never has to wait on its totals
+    @Id
+    private String gameTitle;
+
+    private long reviewCount;
+
+    private long ratingSum;
+
+    private long oneStar;
+
+    private long twoStars;
+
+    private long threeStars;
+
+    private long fourStars;
+
+    private long fiveStars;
+
+    protected GameRating() {
+    }
+
+    public GameRating(String gameTitle) {
+        this.gameTitle = gameTitle;
+    }
+
+    public String getGameTitle() {
+        return gameTitle;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    /**
+     * The number of reviews that gave each rating, from one star to five.
+     */
+    public long[] getHistogram() {
+        return new long[] { oneStar, twoStars, threeStars, fourStars, fiveStars };
+    }
+}
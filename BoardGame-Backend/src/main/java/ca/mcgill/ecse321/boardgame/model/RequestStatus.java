@@ -1,5 +1,25 @@
 package ca.mcgill.ecse321.boardgame.model;
 
 public enum RequestStatus {
-    PENDING, ACCEPTED, DECLINED, RETURNED, PICKEDUP
+    PENDING, ACCEPTED, DECLINED, RETURNED, PICKEDUP;
+
+    /**
+     * Lifecycle of a request: PENDING, then ACCEPTED or DECLINED; an accepted
+     * request is PICKEDUP and finally RETURNED.
+     *
+     * @param next the status to move to
+     * @return whether a request in this status may move to next
+     */
+    public boolean canBecome(RequestStatus next) {
+        switch (this) {
+            case PENDING:
+                return next == ACCEPTED || next == DECLINED;
+            case ACCEPTED:
+                return next == PICKEDUP;
+            case PICKEDUP:
+                return next == RETURNED;
+            default:
+                return false;
+        }
+    }
 }
@@ -7,6 +7,10 @@ import java.sql.*;
 import java.util.Objects;
 
 @Entity(name = "Review")
+@Table(indexes = {
+        @Index(name = "idx_review_reviewer", columnList = "reviewer_user_accountid"),
+        @Index(name = "idx_review_game", columnList = "game_to_review_title")
+})
 public class Review implements Serializable {
 
     @EmbeddedId
@@ -48,10 +52,10 @@ public class Review implements Serializable {
     @Embeddable
     public static class ReviewKey implements Serializable {
 
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         private UserAccount reviewer;
 
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         private Game gameToReview;
 
         public ReviewKey() {
@@ -0,0 +1,50 @@
+package ca.mcgill.ecse321.boardgame.model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Folds text to the form game titles are compared in: lower case, accents
+ * dropped, and anything other than a letter or a digit separating words.
+ * Title keys are stored in this form under a unique index, so changing it
+ * means recomputing every stored key. The search indexes fold their text the
+ * same way so that a typed title finds the game it names.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Splits text into lower-case words without accents; anything other than a
+     * letter or a digit separates words.
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return words;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String word : NON_WORD.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Returns the words of the text joined by single spaces, so that titles
+     * differing only in case, accents or punctuation have the same form.
+     */
+    public static String normalize(String text) {
+        return String.join(" ", words(text));
+    }
+}
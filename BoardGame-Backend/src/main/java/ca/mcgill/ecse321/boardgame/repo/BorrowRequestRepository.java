@@ -1,14 +1,22 @@
 package ca.mcgill.ecse321.boardgame.repo;
 
 import ca.mcgill.ecse321.boardgame.model.BorrowRequest;
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
 import ca.mcgill.ecse321.boardgame.model.RequestStatus;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BorrowRequestRepository extends CrudRepository<BorrowRequest, Long> {
     public BorrowRequest findBorrowRequestById(long id);
@@ -16,12 +24,59 @@ public interface BorrowRequestRepository extends CrudRepository<BorrowRequest, L
     @Query("SELECT br FROM BorrowRequest br JOIN br.gameToBorrow gc JOIN gc.gameCopyKey gck JOIN gck.game g WHERE br.borrower = :borrower AND g.title = :gameTitle")
     List<BorrowRequest> findByBorrowerAndGameTitle(UserAccount borrower, String gameTitle);
 
+    boolean existsByBorrowerUserAccountIDAndGameToBorrowGameCopyKeyGameTitle(long borrowerId, String gameTitle);
+
     List<BorrowRequest> findByBorrowerUserAccountID(long borrowerId);
 
+    // Every request in id order, read through a cursor 500 rows at a time; the caller must close the stream
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT br FROM BorrowRequest br ORDER BY br.id")
+    Stream<BorrowRequest> streamAllForExport();
+
     @Query("SELECT br FROM BorrowRequest br JOIN br.gameToBorrow gc JOIN gc.gameCopyKey gck JOIN gck.game g WHERE br.borrower = :borrower AND g.title = :gameTitle AND br.status = :requestStatus")
     public List<BorrowRequest> findByBorrowerAndGameTitleAndRequestStatus(UserAccount borrower, String gameTitle,
             RequestStatus requestStatus);
 
+    // Keyset page of requests ordered by (requestDate, id), starting after (afterDate, afterId).
+    // No fetch plan: BorrowRequestResponseDto only reads the ids of the borrower, owner and game
+    @Query("SELECT br FROM BorrowRequest br WHERE br.status IN :statuses AND br.requestDate BETWEEN :from AND :to AND (br.requestDate > :afterDate OR (br.requestDate = :afterDate AND br.id > :afterId)) ORDER BY br.requestDate ASC, br.id ASC")
+    List<BorrowRequest> findPage(Collection<RequestStatus> statuses, Date from, Date to, Date afterDate,
+            long afterId, Limit limit);
+
+    // Same keyset page, restricted to the requests of one borrower
+    @Query("SELECT br FROM BorrowRequest br WHERE br.borrower.userAccountID = :borrowerId AND br.status IN :statuses AND br.requestDate BETWEEN :from AND :to AND (br.requestDate > :afterDate OR (br.requestDate = :afterDate AND br.id > :afterId)) ORDER BY br.requestDate ASC, br.id ASC")
+    List<BorrowRequest> findPageByBorrower(long borrowerId, Collection<RequestStatus> statuses, Date from, Date to,
+            Date afterDate, long afterId, Limit limit);
+
+    // Same keyset page, restricted to the requests for the copies of one owner
+    @Query("SELECT br FROM BorrowRequest br WHERE br.gameToBorrow.gameCopyKey.owner.userAccountID = :ownerId AND br.status IN :statuses AND br.requestDate BETWEEN :from AND :to AND (br.requestDate > :afterDate OR (br.requestDate = :afterDate AND br.id > :afterId)) ORDER BY br.requestDate ASC, br.id ASC")
+    List<BorrowRequest> findPageByOwner(long ownerId, Collection<RequestStatus> statuses, Date from, Date to,
+            Date afterDate, long afterId, Limit limit);
+
+    // Declines, in one statement, the other pending requests for a copy whose dates overlap [startDate, endDate]
+    @Modifying
+    @Query("UPDATE BorrowRequest br SET br.status = :declined, br.decisionDate = :decisionDate, br.version = br.version + 1 WHERE br.gameToBorrow = :copy AND br.id <> :acceptedId AND br.status = :pending AND br.startDate <= :endDate AND br.endDate >= :startDate")
+    int declineOverlappingPending(GameCopy copy, long acceptedId, Date startDate, Date endDate, Date decisionDate,
+            RequestStatus pending, RequestStatus declined);
+
+    // Whether any request in the given statuses is on the copy
+    boolean existsByGameToBorrowAndStatusIn(GameCopy gameToBorrow, Collection<RequestStatus> statuses);
+
+    // Whether another request in the given statuses holds the copy for a date in [startDate, endDate]
+    @Query("SELECT COUNT(br) > 0 FROM BorrowRequest br WHERE br.gameToBorrow = :copy AND br.id <> :requestId AND br.status IN :statuses AND br.startDate <= :endDate AND br.endDate >= :startDate")
+    boolean existsOverlapping(GameCopy copy, long requestId, Date startDate, Date endDate,
+            Collection<RequestStatus> statuses);
+
+    // (id, startDate, endDate) of the requests in the given statuses on one copy
+    @Query("SELECT br.id, br.startDate, br.endDate FROM BorrowRequest br WHERE br.gameToBorrow.gameCopyKey.owner.userAccountID = :ownerId AND br.gameToBorrow.gameCopyKey.game.title = :gameTitle AND br.status IN :statuses")
+    List<Object[]> findWindowsByCopy(long ownerId, String gameTitle, Collection<RequestStatus> statuses);
+
+    // (id, startDate, endDate) of the requests in the given statuses made by one borrower for a game
+    @Query("SELECT br.id, br.startDate, br.endDate FROM BorrowRequest br WHERE br.borrower.userAccountID = :borrowerId AND br.gameToBorrow.gameCopyKey.game.title = :gameTitle AND br.status IN :statuses")
+    List<Object[]> findWindowsByBorrowerAndGameTitle(long borrowerId, String gameTitle,
+            Collection<RequestStatus> statuses);
+
     // Custom query to delete borrow requests by owner and game title
     @Modifying
     @Transactional
@@ -3,11 +3,18 @@ package ca.mcgill.ecse321.boardgame.repo;
 import ca.mcgill.ecse321.boardgame.model.Event;
 import ca.mcgill.ecse321.boardgame.model.EventRegistration;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface EventRegistrationRepository
         extends CrudRepository<EventRegistration, EventRegistration.EventRegistrationKey> {
@@ -15,9 +22,23 @@ public interface EventRegistrationRepository
 
     List<EventRegistration> findAllByEventRegistrationKeyEvent(Event event);
 
+    long countByEventRegistrationKeyEvent(Event event);
+
     List<EventRegistration> findAllByEventRegistrationKeyRegistrant(UserAccount userAccount);
 
-    // Custom query to find events that a user is registered for
-    @Query("SELECT er.eventRegistrationKey.event FROM EventRegistration er WHERE er.eventRegistrationKey.registrant = :user")
+    // Every registration, read through a cursor 500 rows at a time; the caller must close the stream
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT er FROM EventRegistration er")
+    Stream<EventRegistration> streamAllForExport();
+
+    @Modifying
+    @Query("DELETE FROM EventRegistration er WHERE er.eventRegistrationKey.event.eventID IN :eventIDs")
+    int deleteAllByEventIDs(Collection<Long> eventIDs);
+
+    // Custom query to find events that a user is registered for, with each event's game and creator
+    // fetched in the same statement
+    @EntityGraph("Event.withGameAndCreator")
+    @Query("SELECT e FROM Event e WHERE EXISTS (SELECT 1 FROM EventRegistration er WHERE er.eventRegistrationKey.event = e AND er.eventRegistrationKey.registrant = :user)")
     List<Event> findEventsByEventRegistrationKeyRegistrant(@Param("user") UserAccount userAccount);
 }
@@ -2,11 +2,21 @@ package ca.mcgill.ecse321.boardgame.repo;
 
 import ca.mcgill.ecse321.boardgame.model.Event;
 import ca.mcgill.ecse321.boardgame.model.Game;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Time;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface EventRepository extends CrudRepository<Event, Long> {
     public Event findEventByEventID(long eventID);
@@ -16,4 +26,39 @@ public interface EventRepository extends CrudRepository<Event, Long> {
 
     List<Event> findAll();
 
+    // All events with their game and creator fetched in the same statement
+    @EntityGraph("Event.withGameAndCreator")
+    @Query("SELECT e FROM Event e")
+    List<Event> findAllWithGameAndCreator();
+
+    // Every event in id order, read through a cursor 500 rows at a time; the caller must close the stream
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT e FROM Event e ORDER BY e.eventID")
+    Stream<Event> streamAllForExport();
+
+    // Ids of the oldest expired events, one purge chunk at a time
+    @Query("SELECT e.eventID FROM Event e WHERE e.date < :date ORDER BY e.eventID")
+    List<Long> findExpiredEventIds(Date date, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM Event e WHERE e.eventID IN :eventIDs")
+    int deleteAllByEventIDs(Collection<Long> eventIDs);
+
+    // Takes one seat if the event is not full; returns the number of rows updated (0 when full)
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount + 1 WHERE e.eventID = :eventID AND e.registeredCount < e.maxParticipant")
+    int reserveSeat(long eventID);
+
+    // Gives one seat back after a cancellation
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount - 1 WHERE e.eventID = :eventID AND e.registeredCount > 0")
+    int releaseSeat(long eventID);
+
+    // Recomputes every seat counter from the registration rows
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.registeredCount = (SELECT COUNT(er) FROM EventRegistration er WHERE er.eventRegistrationKey.event = e)")
+    int syncRegisteredCounts();
+
 }
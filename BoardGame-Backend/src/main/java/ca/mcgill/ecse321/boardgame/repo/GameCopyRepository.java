@@ -1,10 +1,18 @@
 package ca.mcgill.ecse321.boardgame.repo;
 
 import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.GameStatus;
+import ca.mcgill.ecse321.boardgame.model.RequestStatus;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
 
+import java.sql.Date;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,4 +21,58 @@ public interface GameCopyRepository extends CrudRepository<GameCopy, GameCopy.Ga
     public GameCopy findGameCopyByGameCopyKey(GameCopy.GameCopyKey gameCopyKey);
 
     public List<GameCopy> findAllByGameCopyKeyOwner(UserAccount owner);
+
+    public boolean existsByGameCopyKeyOwnerUserAccountID(long ownerId);
+
+    // The game is found through its unique title key, then the copy through the primary key
+    @Query("SELECT gc FROM GameCopy gc JOIN gc.gameCopyKey gck JOIN gck.game g WHERE gck.owner.userAccountID = :ownerId AND g.titleKey = :titleKey")
+    public GameCopy findByOwnerIdAndGameTitleKey(long ownerId, String titleKey);
+
+    // Titles among the given ones that the owner already has a copy of, read from the primary key
+    @Query("SELECT gc.gameCopyKey.game.title FROM GameCopy gc WHERE gc.gameCopyKey.owner.userAccountID = :ownerId AND gc.gameCopyKey.game.title IN :titles")
+    public List<String> findOwnedTitles(long ownerId, Collection<String> titles);
+
+    // Serves getUserGameCopies
+    @EntityGraph("GameCopy.withOwnerAndGame")
+    @Query("SELECT gc FROM GameCopy gc WHERE gc.gameCopyKey.owner.userAccountID = :ownerId")
+    public List<GameCopy> findAllWithOwnerAndGameByOwnerId(long ownerId);
+
+    // Serves getAllGameCopies
+    @EntityGraph("GameCopy.withOwnerAndGame")
+    @Query("SELECT gc FROM GameCopy gc")
+    public List<GameCopy> findAllWithOwnerAndGame();
+
+    // Keyset page of the copies of a game in the given statuses, ordered by owner id, starting after afterOwnerId.
+    // Serves getGameCopiesPage; the game is already known
+    @EntityGraph("GameCopy.withOwner")
+    @Query("SELECT gc FROM GameCopy gc WHERE gc.gameCopyKey.game.title = :gameTitle AND gc.status IN :statuses AND gc.gameCopyKey.owner.userAccountID > :afterOwnerId ORDER BY gc.gameCopyKey.owner.userAccountID ASC")
+    public List<GameCopy> findPageByGameTitle(String gameTitle, Collection<GameStatus> statuses, long afterOwnerId,
+            Limit limit);
+
+    // Copies of a game with no request in the given statuses overlapping [startDate, endDate]
+    @EntityGraph("GameCopy.withOwnerAndGame")
+    @Query("SELECT gc FROM GameCopy gc WHERE gc.gameCopyKey.game.title = :gameTitle AND NOT EXISTS (SELECT br.id FROM BorrowRequest br WHERE br.gameToBorrow = gc AND br.status IN :statuses AND br.startDate <= :endDate AND br.endDate >= :startDate)")
+    public List<GameCopy> findFreeCopies(String gameTitle, Date startDate, Date endDate,
+            Collection<RequestStatus> statuses);
+
+    // (title, count) of the copies in a status for every game that has any, read from the game/status index
+    @Query("SELECT gc.gameCopyKey.game.title, COUNT(gc) FROM GameCopy gc WHERE gc.status = :status GROUP BY gc.gameCopyKey.game.title")
+    public List<Object[]> countByGameTitleInStatus(GameStatus status);
+
+    // (title, count) of the copies in a status for the given games that have any
+    @Query("SELECT gc.gameCopyKey.game.title, COUNT(gc) FROM GameCopy gc WHERE gc.gameCopyKey.game.title IN :gameTitles AND gc.status = :status GROUP BY gc.gameCopyKey.game.title")
+    public List<Object[]> countByGameTitlesInStatus(Collection<String> gameTitles, GameStatus status);
+
+    // Number of copies of one game in a status, read from the game/status index
+    public long countByGameCopyKeyGameTitleAndStatus(String gameTitle, GameStatus status);
+
+    // Moves a copy from one status to another; returns 0 when the copy is not in the expected status
+    // Takes the write lock on one copy row until the transaction ends, so work on that copy runs one transaction at a time
+    @Modifying
+    @Query("UPDATE GameCopy gc SET gc.version = gc.version + 1 WHERE gc.gameCopyKey.owner.userAccountID = :ownerId AND gc.gameCopyKey.game.title = :gameTitle")
+    public int lockCopy(long ownerId, String gameTitle);
+
+    @Modifying
+    @Query("UPDATE GameCopy gc SET gc.status = :newStatus, gc.version = gc.version + 1 WHERE gc.gameCopyKey.owner.userAccountID = :ownerId AND gc.gameCopyKey.game.title = :gameTitle AND gc.status = :expectedStatus")
+    public int updateStatusIfCurrent(long ownerId, String gameTitle, GameStatus expectedStatus, GameStatus newStatus);
 }
@@ -0,0 +1,65 @@
+package ca.mcgill.ecse321.boardgame.repo;
+
+import ca.mcgill.ecse321.boardgame.model.GameRating;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface GameRatingRepository extends CrudRepository<GameRating, String> {
+
+    // Totals of many games in one primary key lookup; games without reviews are missing from the result
+    List<GameRating> findAllByGameTitleIn(Collection<String> gameTitles);
+
+    // Review count of one game as stored, read past any GameRating already loaded in the persistence context
+    @Query("SELECT r.reviewCount FROM GameRating r WHERE r.gameTitle = :gameTitle")
+    Optional<Long> findReviewCount(String gameTitle);
+
+    // Counts one more review, creating the row on a game's first review; safe under concurrent reviews
+    @Modifying
+    @Query("INSERT INTO GameRating (gameTitle, reviewCount, ratingSum, oneStar, twoStars, threeStars, fourStars, fiveStars) "
+            + "VALUES (:gameTitle, 1, :rating, CASE WHEN :rating = 1 THEN 1 ELSE 0 END, CASE WHEN :rating = 2 THEN 1 ELSE 0 END, "
+            + "CASE WHEN :rating = 3 THEN 1 ELSE 0 END, CASE WHEN :rating = 4 THEN 1 ELSE 0 END, CASE WHEN :rating = 5 THEN 1 ELSE 0 END) "
+            + "ON CONFLICT (gameTitle) DO UPDATE SET reviewCount = reviewCount + 1, ratingSum = ratingSum + excluded.ratingSum, "
+            + "oneStar = oneStar + excluded.oneStar, twoStars = twoStars + excluded.twoStars, "
+            + "threeStars = threeStars + excluded.threeStars, fourStars = fourStars + excluded.fourStars, "
+            + "fiveStars = fiveStars + excluded.fiveStars")
+    int addRating(String gameTitle, int rating);
+
+    // Takes one review back out; returns 0 when the game has no counted reviews
+    @Modifying
+    @Query("UPDATE GameRating r SET r.reviewCount = r.reviewCount - 1, r.ratingSum = r.ratingSum - :rating, "
+            + "r.oneStar = r.oneStar - CASE WHEN :rating = 1 THEN 1 ELSE 0 END, r.twoStars = r.twoStars - CASE WHEN :rating = 2 THEN 1 ELSE 0 END, "
+            + "r.threeStars = r.threeStars - CASE WHEN :rating = 3 THEN 1 ELSE 0 END, r.fourStars = r.fourStars - CASE WHEN :rating = 4 THEN 1 ELSE 0 END, "
+            + "r.fiveStars = r.fiveStars - CASE WHEN :rating = 5 THEN 1 ELSE 0 END "
+            + "WHERE r.gameTitle = :gameTitle AND r.reviewCount > 0")
+    int removeRating(String gameTitle, int rating);
+
+    // Drops the totals of a game once its last review is gone
+    @Modifying
+    @Query("DELETE FROM GameRating r WHERE r.gameTitle = :gameTitle AND r.reviewCount = 0")
+    int deleteIfEmpty(String gameTitle);
+
+    // Recomputes every game's totals from the review rows
+    @Modifying
+    @Transactional
+    @Query("INSERT INTO GameRating (gameTitle, reviewCount, ratingSum, oneStar, twoStars, threeStars, fourStars, fiveStars) "
+            + "SELECT rv.reviewKey.gameToReview.title, COUNT(*), SUM(rv.rating), COUNT(*) FILTER (WHERE rv.rating = 1), "
+            + "COUNT(*) FILTER (WHERE rv.rating = 2), COUNT(*) FILTER (WHERE rv.rating = 3), "
+            + "COUNT(*) FILTER (WHERE rv.rating = 4), COUNT(*) FILTER (WHERE rv.rating = 5) "
+            + "FROM Review rv GROUP BY rv.reviewKey.gameToReview.title "
+            + "ON CONFLICT (gameTitle) DO UPDATE SET reviewCount = excluded.reviewCount, ratingSum = excluded.ratingSum, "
+            + "oneStar = excluded.oneStar, twoStars = excluded.twoStars, threeStars = excluded.threeStars, "
+            + "fourStars = excluded.fourStars, fiveStars = excluded.fiveStars")
+    int syncAll();
+
+    // Drops the totals of games that no longer have any review
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GameRating r WHERE NOT EXISTS (SELECT 1 FROM Review rv WHERE rv.reviewKey.gameToReview.title = r.gameTitle)")
+    int deleteUnreviewed();
+}
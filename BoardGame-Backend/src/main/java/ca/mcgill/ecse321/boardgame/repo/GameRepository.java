@@ -1,8 +1,28 @@
 package ca.mcgill.ecse321.boardgame.repo;
 
 import ca.mcgill.ecse321.boardgame.model.Game;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface GameRepository extends CrudRepository<Game, String> {
     public Game findGameByTitle(String title);
+
+    // Lookup by the unique title key, see Game.toTitleKey
+    public Game findGameByTitleKey(String titleKey);
+
+    List<Game> findAllByTitleKeyIn(Collection<String> titleKeys);
+
+    // First page of the catalog, ordered by title
+    List<Game> findAllByOrderByTitleAsc(Limit limit);
+
+    // Keyset page: the games strictly after the given title
+    List<Game> findByTitleGreaterThanOrderByTitleAsc(String title, Limit limit);
+
+    // The title keys among the given ones that are already in the catalog, read from the key index
+    @Query("SELECT g.titleKey FROM Game g WHERE g.titleKey IN :titleKeys")
+    List<String> findExistingTitleKeys(Collection<String> titleKeys);
 }
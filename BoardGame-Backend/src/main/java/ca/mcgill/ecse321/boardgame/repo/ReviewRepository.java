@@ -3,6 +3,14 @@ package ca.mcgill.ecse321.boardgame.repo;
 import ca.mcgill.ecse321.boardgame.model.Review;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.List;
+
 public interface ReviewRepository extends CrudRepository<Review,Review.ReviewKey> {
     public Review findReviewByReviewKey(Review.ReviewKey reviewKey);
+
+    // Backed by the reviewer index on the review table. No fetch plan: ReviewResponseDto only reads the key ids
+    public List<Review> findAllByReviewKeyReviewerUserAccountID(long reviewerId);
+
+    // Backed by the game index on the review table
+    public List<Review> findAllByReviewKeyGameToReviewTitle(String gameTitle);
 }
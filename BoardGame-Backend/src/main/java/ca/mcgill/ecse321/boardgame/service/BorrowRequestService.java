@@ -1,41 +1,64 @@
 package ca.mcgill.ecse321.boardgame.service;
 
-import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ca.mcgill.ecse321.boardgame.dto.BorrowRequestAcceptDto;
+import ca.mcgill.ecse321.boardgame.dto.BorrowRequestPageDto;
+import ca.mcgill.ecse321.boardgame.dto.BorrowRequestResponseDto;
 import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
 import ca.mcgill.ecse321.boardgame.model.BorrowRequest;
+import ca.mcgill.ecse321.boardgame.model.Game;
 import ca.mcgill.ecse321.boardgame.model.GameCopy;
 import ca.mcgill.ecse321.boardgame.model.GameStatus;
 import ca.mcgill.ecse321.boardgame.model.RequestStatus;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
 import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
 import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
-import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
 
 @Service
 public class BorrowRequestService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final Date MIN_DATE = Date.valueOf("0001-01-01");
+    private static final Date MAX_DATE = Date.valueOf("9999-12-31");
+
     @Autowired
     private BorrowRequestRepository borrowRequestRepo;
     @Autowired
-    private UserAccountRepository userAccountRepo;
+    private UserIdentityService userIdentityService;
     @Autowired
     private GameCopyRepository gameCopyRepo;
+    @Autowired
+    private BorrowWindowService borrowWindowService;
+    @Autowired
+    private GameBrowseService gameBrowseService;
 
     @Transactional
     public BorrowRequest createBorrowRequest(long borrowerId, long ownerId, String gameTitle,
             Date startDate, Date endDate) {
-        UserAccount borrower = userAccountRepo.findUserAccountByUserAccountID(borrowerId);
+        UserAccount borrower = userIdentityService.findUserAccount(borrowerId);
         if (borrower == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND, "Borrower " + borrowerId + " not found");
         }
         GameCopy copy = findGameCopy(ownerId, gameTitle);
+        // The windows are kept under the title the game is stored with
+        String title = copy.getGameCopyKey().getGame().getTitle();
+        if (borrowWindowService.isCopyBooked(ownerId, title, startDate, endDate)) {
+            throw new ResourceNotFoundException(HttpStatus.CONFLICT, "Game copy is already lent for those dates");
+        }
         BorrowRequest br = new BorrowRequest(
                 RequestStatus.PENDING,
                 new Date(System.currentTimeMillis()),
@@ -48,19 +71,57 @@ public class BorrowRequestService {
     }
 
     @Transactional
-    public BorrowRequest acceptRequest(long requestId) {
+    public BorrowRequestAcceptDto acceptRequest(long requestId) {
         BorrowRequest br = findRequestOrThrow(requestId);
-        setDecisionDate(br, new Date(System.currentTimeMillis()));
-        setRequestStatus(br, RequestStatus.ACCEPTED);
-        setGameCopyStatus(br.getGameToBorrow(), GameStatus.BORROWED);
-        return borrowRequestRepo.save(br);
+        // Checked before the copy is touched; the request itself moves last
+        transition(() -> br.checkTransition(RequestStatus.ACCEPTED));
+        // Accepts for one copy take its row lock in turn, so each one sees the dates granted before it.
+        // The copy is only lent at pick-up, so requests for other dates can still be accepted
+        GameCopy.GameCopyKey key = br.getGameToBorrow().getGameCopyKey();
+        if (gameCopyRepo.lockCopy(key.getOwner().getUserAccountID(), key.getGame().getTitle()) == 0) {
+            throw new ResourceNotFoundException(HttpStatus.NOT_FOUND, "Game copy not found");
+        }
+        if (borrowRequestRepo.existsOverlapping(br.getGameToBorrow(), br.getId(), br.getStartDate(),
+                br.getEndDate(), BorrowWindowService.HOLDING_STATUSES)) {
+            throw new ResourceNotFoundException(HttpStatus.CONFLICT, "Game copy is already lent for those dates");
+        }
+        Date today = new Date(System.currentTimeMillis());
+        // Competing requests for the same dates can no longer be granted; decline them with this one
+        int declined = borrowRequestRepo.declineOverlappingPending(br.getGameToBorrow(), br.getId(),
+                br.getStartDate(), br.getEndDate(), today, RequestStatus.PENDING, RequestStatus.DECLINED);
+        br.accept(today);
+        borrowWindowService.invalidate(br);
+        return new BorrowRequestAcceptDto(borrowRequestRepo.save(br), declined);
     }
 
     @Transactional
     public BorrowRequest declineRequest(long requestId) {
         BorrowRequest br = findRequestOrThrow(requestId);
-        setDecisionDate(br, new Date(System.currentTimeMillis()));
-        setRequestStatus(br, RequestStatus.DECLINED);
+        transition(() -> br.decline(new Date(System.currentTimeMillis())));
+        return borrowRequestRepo.save(br);
+    }
+
+    @Transactional
+    public BorrowRequest pickUpRequest(long requestId) {
+        BorrowRequest br = findRequestOrThrow(requestId);
+        transition(() -> br.checkTransition(RequestStatus.PICKEDUP));
+        // Lending is a guarded update on the copy row, so a copy still out with an earlier borrower is not handed over
+        if (updateCopyStatus(br, GameStatus.AVAILABLE, GameStatus.BORROWED) == 0) {
+            throw new ResourceNotFoundException(HttpStatus.CONFLICT, "Game copy is not available");
+        }
+        br.pickUp();
+        return borrowRequestRepo.save(br);
+    }
+
+    @Transactional
+    public BorrowRequest returnRequest(long requestId) {
+        BorrowRequest br = findRequestOrThrow(requestId);
+        transition(() -> br.checkTransition(RequestStatus.RETURNED));
+        if (updateCopyStatus(br, GameStatus.BORROWED, GameStatus.AVAILABLE) == 0) {
+            throw new ResourceNotFoundException(HttpStatus.CONFLICT, "Game copy is not borrowed");
+        }
+        br.markReturned();
+        borrowWindowService.invalidate(br);
         return borrowRequestRepo.save(br);
     }
 
@@ -76,13 +137,97 @@ public class BorrowRequestService {
 
     @Transactional
     public List<BorrowRequest> getBorrowRequestsByUserId(long userId) {
-        UserAccount user = userAccountRepo.findUserAccountByUserAccountID(userId);
-        if (user == null) {
+        if (userIdentityService.findIdentity(userId) == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND, "User " + userId + " not found");
         }
         return borrowRequestRepo.findByBorrowerUserAccountID(userId);
     }
 
+    @Transactional
+    public BorrowRequestPageDto getBorrowRequestsPage(RequestStatus status, Date from, Date to, String cursor,
+            int size) {
+        PageQuery q = new PageQuery(status, from, to, cursor, size);
+        List<BorrowRequest> rows = borrowRequestRepo.findPage(q.statuses, q.from, q.to, q.afterDate, q.afterId,
+                Limit.of(q.pageSize + 1));
+        return toPage(rows, q.pageSize);
+    }
+
+    @Transactional
+    public BorrowRequestPageDto getBorrowRequestsPageByUserId(long userId, RequestStatus status, Date from, Date to,
+            String cursor, int size) {
+        if (userIdentityService.findIdentity(userId) == null) {
+            throw new ResourceNotFoundException(HttpStatus.NOT_FOUND, "User " + userId + " not found");
+        }
+        PageQuery q = new PageQuery(status, from, to, cursor, size);
+        List<BorrowRequest> rows = borrowRequestRepo.findPageByBorrower(userId, q.statuses, q.from, q.to,
+                q.afterDate, q.afterId, Limit.of(q.pageSize + 1));
+        return toPage(rows, q.pageSize);
+    }
+
+    @Transactional
+    public BorrowRequestPageDto getIncomingRequestsPage(long ownerId, RequestStatus status, Date from, Date to,
+            String cursor, int size) {
+        if (userIdentityService.findIdentity(ownerId) == null) {
+            throw new ResourceNotFoundException(HttpStatus.NOT_FOUND, "Owner " + ownerId + " not found");
+        }
+        PageQuery q = new PageQuery(status, from, to, cursor, size);
+        List<BorrowRequest> rows = borrowRequestRepo.findPageByOwner(ownerId, q.statuses, q.from, q.to,
+                q.afterDate, q.afterId, Limit.of(q.pageSize + 1));
+        return toPage(rows, q.pageSize);
+    }
+
+    /**
+     * Filter and keyset position of a page request. A missing status matches every status,
+     * a missing date bound is open, and a missing cursor starts just before the first row.
+     */
+    private static class PageQuery {
+        final Collection<RequestStatus> statuses;
+        final Date from;
+        final Date to;
+        final Date afterDate;
+        final long afterId;
+        final int pageSize;
+
+        PageQuery(RequestStatus status, Date from, Date to, String cursor, int size) {
+            if (size <= 0) {
+                throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+            }
+            this.statuses = status == null ? EnumSet.allOf(RequestStatus.class) : EnumSet.of(status);
+            this.from = from == null ? MIN_DATE : from;
+            this.to = to == null ? MAX_DATE : to;
+            if (this.from.after(this.to)) {
+                throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
+            }
+            this.pageSize = Math.min(size, MAX_PAGE_SIZE);
+            if (cursor == null || cursor.isEmpty()) {
+                this.afterDate = this.from;
+                this.afterId = -1;
+            } else {
+                try {
+                    String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                            .split("\\|");
+                    this.afterDate = Date.valueOf(parts[0]);
+                    this.afterId = Long.parseLong(parts[1]);
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST, "Invalid page cursor");
+                }
+            }
+        }
+    }
+
+    private static BorrowRequestPageDto toPage(List<BorrowRequest> rows, int pageSize) {
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            BorrowRequest last = rows.get(pageSize - 1);
+            String key = last.getRequestDate().toString() + "|" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+        return new BorrowRequestPageDto(
+                rows.stream().map(BorrowRequestResponseDto::new).collect(Collectors.toList()),
+                nextCursor);
+    }
+
     private BorrowRequest findRequestOrThrow(long requestId) {
         Optional<BorrowRequest> opt = borrowRequestRepo.findById(requestId);
         if (opt.isEmpty()) {
@@ -92,43 +237,38 @@ public class BorrowRequestService {
     }
 
     private GameCopy findGameCopy(long ownerId, String gameTitle) {
-        UserAccount owner = userAccountRepo.findUserAccountByUserAccountID(ownerId);
-        if (owner == null) {
-            throw new ResourceNotFoundException(HttpStatus.NOT_FOUND, "Owner " + ownerId + " not found");
+        GameCopy copy = gameCopyRepo.findByOwnerIdAndGameTitleKey(ownerId, Game.toTitleKey(gameTitle));
+        if (copy == null) {
+            // Only tell a missing owner apart from a missing copy when the lookup fails
+            if (userIdentityService.findIdentity(ownerId) == null) {
+                throw new ResourceNotFoundException(HttpStatus.NOT_FOUND, "Owner " + ownerId + " not found");
+            }
+            throw new ResourceNotFoundException(HttpStatus.NOT_FOUND, "Game copy not found");
         }
-        return gameCopyRepo.findAllByGameCopyKeyOwner(owner).stream()
-                .filter(gc -> gc.getGameCopyKey().getGame().getTitle().equals(gameTitle))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException(HttpStatus.NOT_FOUND, "Game copy not found"));
+        return copy;
     }
 
-    private void setGameCopyStatus(GameCopy copy, GameStatus newStatus) {
+    /**
+     * Runs a step of the request lifecycle, which BorrowRequest enforces, and
+     * reports a move it refuses as a conflict.
+     */
+    private static void transition(Runnable step) {
         try {
-            Field f = GameCopy.class.getDeclaredField("status");
-            f.setAccessible(true);
-            f.set(copy, newStatus);
-        } catch (Exception e) {
-            throw new RuntimeException("Cannot set game copy status via reflection", e);
+            step.run();
+        } catch (IllegalStateException e) {
+            throw new ResourceNotFoundException(HttpStatus.CONFLICT, e.getMessage());
         }
     }
 
-    private void setDecisionDate(BorrowRequest br, Date date) {
-        try {
-            Field f = BorrowRequest.class.getDeclaredField("decisionDate");
-            f.setAccessible(true);
-            f.set(br, date);
-        } catch (Exception e) {
-            throw new RuntimeException("Cannot set decisionDate via reflection", e);
-        }
-    }
-
-    private void setRequestStatus(BorrowRequest br, RequestStatus rs) {
-        try {
-            Field f = BorrowRequest.class.getDeclaredField("status");
-            f.setAccessible(true);
-            f.set(br, rs);
-        } catch (Exception e) {
-            throw new RuntimeException("Cannot set requestStatus via reflection", e);
+    private int updateCopyStatus(BorrowRequest br, GameStatus expected, GameStatus next) {
+        // Reading the key of the lazy copy does not load it
+        GameCopy.GameCopyKey key = br.getGameToBorrow().getGameCopyKey();
+        int updated = gameCopyRepo.updateStatusIfCurrent(key.getOwner().getUserAccountID(),
+                key.getGame().getTitle(), expected, next);
+        if (updated == 1) {
+            gameBrowseService.availableCopiesChanged(key.getGame().getTitle(),
+                    GameBrowseService.availabilityDelta(expected, next));
         }
+        return updated;
     }
 }
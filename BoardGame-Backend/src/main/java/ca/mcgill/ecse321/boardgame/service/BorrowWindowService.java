@@ -0,0 +1,221 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import ca.mcgill.ecse321.boardgame.cache.BoundedCache;
+import ca.mcgill.ecse321.boardgame.cache.IntervalIndex;
+import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
+import ca.mcgill.ecse321.boardgame.model.BorrowRequest;
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.RequestStatus;
+import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers date-range questions about lending: is a copy free between two dates,
+ * which copies of a game are free, and does a user hold a game on a given day.
+ * The windows of the accepted and picked up requests of a copy, and of a
+ * borrower for a game, are kept as interval indexes loaded on first use, so a
+ * repeated question costs a binary search. BorrowRequestService invalidates
+ * the indexes a request belongs to whenever it starts or stops holding a copy.
+ */
+@Service
+public class BorrowWindowService {
+
+    public static final int WINDOW_CACHE_SIZE = 10_000;
+    public static final long WINDOW_CACHE_TTL_MINUTES = 10;
+
+    // Requests in these statuses keep the copy away from everyone else for their dates
+    public static final Set<RequestStatus> HOLDING_STATUSES = EnumSet.of(RequestStatus.ACCEPTED,
+            RequestStatus.PICKEDUP);
+
+    @Autowired
+    private BorrowRequestRepository borrowRequestRepo;
+
+    @Autowired
+    private GameCopyRepository gameCopyRepo;
+
+    private final BoundedCache<String, IntervalIndex> copyWindows =
+            new BoundedCache<>(WINDOW_CACHE_SIZE, WINDOW_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+
+    private final BoundedCache<String, IntervalIndex> borrowerWindows =
+            new BoundedCache<>(WINDOW_CACHE_SIZE, WINDOW_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+
+    // Bumped by every invalidation, under the same lock as the puts of loaded windows
+    private final Object invalidationLock = new Object();
+    private long generation;
+
+    /**
+     * Checks whether an accepted or picked up request holds a copy on any day
+     * between two dates, both included.
+     *
+     * @param ownerId   the id of the owner of the copy
+     * @param gameTitle the title of the game
+     * @param startDate the first day of the range
+     * @param endDate   the last day of the range
+     * @return true if the copy is lent for at least one day of the range
+     * @throws ResourceNotFoundException if the range is missing or inverted
+     */
+    public boolean isCopyBooked(long ownerId, String gameTitle, Date startDate, Date endDate) {
+        checkRange(startDate, endDate);
+        String key = copyKey(ownerId, gameTitle);
+        IntervalIndex windows = copyWindows.get(key);
+        if (windows == null) {
+            long seen = generation();
+            windows = toIndex(borrowRequestRepo.findWindowsByCopy(ownerId, gameTitle, HOLDING_STATUSES));
+            putUnlessInvalidated(copyWindows, key, windows, seen);
+        }
+        return windows.overlaps(day(startDate), day(endDate));
+    }
+
+    /**
+     * Retrieves the copies of a game that no accepted or picked up request
+     * holds on any day between two dates, both included.
+     *
+     * @param gameTitle the title of the game
+     * @param startDate the first day of the range
+     * @param endDate   the last day of the range
+     * @return the free copies, with their owner and game loaded
+     * @throws ResourceNotFoundException if the range is missing or inverted
+     */
+    @Transactional(readOnly = true)
+    public List<GameCopy> findFreeCopies(String gameTitle, Date startDate, Date endDate) {
+        checkRange(startDate, endDate);
+        // One statement: the copies come from the primary key and each exclusion probes the window index
+        return gameCopyRepo.findFreeCopies(gameTitle, startDate, endDate, HOLDING_STATUSES);
+    }
+
+    /**
+     * Checks whether a user holds a copy of a game, through an accepted or
+     * picked up request, on a given day.
+     *
+     * @param borrowerId the id of the borrower
+     * @param gameTitle  the title of the game
+     * @param date       the day to check
+     * @return true if one of the user's requests covers that day
+     */
+    public boolean holdsGameOn(long borrowerId, String gameTitle, Date date) {
+        String key = borrowerKey(borrowerId, gameTitle);
+        IntervalIndex windows = borrowerWindows.get(key);
+        if (windows == null) {
+            long seen = generation();
+            windows = toIndex(borrowRequestRepo.findWindowsByBorrowerAndGameTitle(borrowerId, gameTitle,
+                    HOLDING_STATUSES));
+            putUnlessInvalidated(borrowerWindows, key, windows, seen);
+        }
+        return windows.contains(day(date));
+    }
+
+    /**
+     * Drops the indexes of the copy and the borrower of a request. The entries
+     * are dropped again when the surrounding transaction completes so a
+     * concurrent read cannot put back the old windows before the change is
+     * committed, and a read that loaded its windows before that second drop
+     * does not cache them.
+     *
+     * @param request the request whose status changed
+     */
+    public void invalidate(BorrowRequest request) {
+        // Reading the key of the lazy copy and the id of the lazy borrower does not load them
+        GameCopy.GameCopyKey copy = request.getGameToBorrow().getGameCopyKey();
+        String title = copy.getGame().getTitle();
+        String copyKey = copyKey(copy.getOwner().getUserAccountID(), title);
+        String borrowerKey = borrowerKey(request.getBorrower().getUserAccountID(), title);
+        Runnable drop = () -> invalidating(() -> {
+            copyWindows.invalidate(copyKey);
+            borrowerWindows.invalidate(borrowerKey);
+        });
+        drop.run();
+        afterCompletion(drop);
+    }
+
+    /**
+     * Drops every index, for changes that touch the requests of many borrowers at once.
+     */
+    public void invalidateAll() {
+        Runnable drop = () -> invalidating(() -> {
+            copyWindows.invalidateAll();
+            borrowerWindows.invalidateAll();
+        });
+        drop.run();
+        afterCompletion(drop);
+    }
+
+    private long generation() {
+        synchronized (invalidationLock) {
+            return generation;
+        }
+    }
+
+    private void invalidating(Runnable drop) {
+        synchronized (invalidationLock) {
+            generation++;
+            drop.run();
+        }
+    }
+
+    // Windows read while an invalidation ran may predate the change it covers, so they are only used once
+    private void putUnlessInvalidated(BoundedCache<String, IntervalIndex> cache, String key, IntervalIndex windows,
+            long seen) {
+        synchronized (invalidationLock) {
+            if (generation == seen) {
+                cache.put(key, windows);
+            }
+        }
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private static void checkRange(Date startDate, Date endDate) {
+        if (startDate == null || endDate == null) {
+            throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST, "Start and end dates are required");
+        }
+        if (startDate.after(endDate)) {
+            throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST, "Start date must not be after end date");
+        }
+    }
+
+    private static IntervalIndex toIndex(List<Object[]> rows) {
+        IntervalIndex.Builder builder = IntervalIndex.builder();
+        for (Object[] row : rows) {
+            // Rows saved before dates were validated cannot hold anything
+            if (row[1] == null || row[2] == null || ((Date) row[1]).after((Date) row[2])) {
+                continue;
+            }
+            builder.add(day((Date) row[1]), day((Date) row[2]), (Long) row[0]);
+        }
+        return builder.build();
+    }
+
+    private static long day(Date date) {
+        return date.toLocalDate().toEpochDay();
+    }
+
+    // The owner id comes first and has no separator in it, so keys of different copies never collide
+    private static String copyKey(long ownerId, String gameTitle) {
+        return ownerId + ":" + gameTitle;
+    }
+
+    private static String borrowerKey(long borrowerId, String gameTitle) {
+        return borrowerId + ":" + gameTitle;
+    }
+}
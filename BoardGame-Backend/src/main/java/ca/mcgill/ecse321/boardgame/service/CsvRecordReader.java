@@ -0,0 +1,118 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time: fields are separated by commas, may be
+ * quoted, and a quoted field may hold commas, doubled quotes and line breaks.
+ * The input is read character by character and only the current record is
+ * held in memory; a record longer than MAX_RECORD_CHARS is reported as
+ * malformed and skipped as it is read instead of being buffered.
+ */
+class CsvRecordReader {
+
+    static final int MAX_RECORD_CHARS = 64 * 1024;
+
+    private final LineReader reader;
+    private long lineNumber;
+    private long recordLine;
+    private String malformed;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = new LineReader(reader);
+    }
+
+    /**
+     * Returns the fields of the next record, or null at the end of the input.
+     * When the record cannot be read, the fields read so far are returned and
+     * getMalformed() tells why.
+     */
+    List<String> next() throws IOException {
+        malformed = null;
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = ++lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (c == -1) {
+                if (quoted) {
+                    malformed = "Quoted field is not closed";
+                }
+                break;
+            }
+            if (c == '\n') {
+                if (!quoted) {
+                    break;
+                }
+                // The quoted field goes on to the next line
+                lineNumber++;
+                field.append('\n');
+                c = reader.read();
+                continue;
+            }
+            if (++length > MAX_RECORD_CHARS) {
+                malformed = "Row is longer than " + MAX_RECORD_CHARS + " characters";
+                skipRestOfRecord(c, quoted);
+                break;
+            }
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                } else {
+                    c = reader.read();
+                    if (c != '"') {
+                        // The closing quote; the character after it is read as unquoted
+                        quoted = false;
+                        continue;
+                    }
+                    field.append('"');
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Line on which the last record returned by next() starts, counting from 1.
+     */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Why the last record could not be read, or null if it was well formed.
+     */
+    String getMalformed() {
+        return malformed;
+    }
+
+    // Drops the rest of an oversized record, from the character c on, without keeping it
+    private void skipRestOfRecord(int c, boolean quoted) throws IOException {
+        while (c != -1 && (quoted || c != '\n')) {
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == '\n') {
+                lineNumber++;
+            }
+            c = reader.read();
+        }
+    }
+}
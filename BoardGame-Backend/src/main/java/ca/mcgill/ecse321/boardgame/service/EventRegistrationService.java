@@ -10,10 +10,13 @@ import ca.mcgill.ecse321.boardgame.model.ParticipationStatus;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
 import ca.mcgill.ecse321.boardgame.repo.EventRegistrationRepository;
 import ca.mcgill.ecse321.boardgame.repo.EventRepository;
-import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -25,6 +28,8 @@ import java.util.stream.Collectors;
 @Service
 public class EventRegistrationService {
 
+        private static final Logger logger = LoggerFactory.getLogger(EventRegistrationService.class);
+
         @Autowired
         private EventRegistrationRepository eventRegistrationRepository;
 
@@ -32,7 +37,18 @@ public class EventRegistrationService {
         private EventRepository eventRepository;
 
         @Autowired
-        private UserAccountRepository userAccountRepository;
+        private UserIdentityService userIdentityService;
+
+        /**
+         * Recomputes every event's seat counter from its registration rows at
+         * startup. Rows written around the counter, such as those created before
+         * it existed or by seed data, would otherwise leave it behind.
+         */
+        @EventListener(ApplicationReadyEvent.class)
+        public void syncRegisteredCounts() {
+                int events = eventRepository.syncRegisteredCounts();
+                logger.info("Synced the seat counters of {} events", events);
+        }
 
         /**
          * Registers a user for an event.
@@ -49,7 +65,7 @@ public class EventRegistrationService {
                 }
 
                 // Fetch the user
-                UserAccount user = userAccountRepository.findUserAccountByUserAccountID(dto.getParticipantId());
+                UserAccount user = userIdentityService.findUserAccount(dto.getParticipantId());
                 if (user == null) {
                         throw new BoardGameException(HttpStatus.NOT_FOUND, "User not found.");
                 }
@@ -60,13 +76,6 @@ public class EventRegistrationService {
                         throw new BoardGameException(HttpStatus.NOT_FOUND, "Event not found.");
                 }
 
-                // Check if the event is full
-                long currentRegistrations = eventRegistrationRepository.findAllByEventRegistrationKeyEvent(event)
-                                .size();
-                if (currentRegistrations >= event.getMaxParticipant()) {
-                        throw new BoardGameException(HttpStatus.BAD_REQUEST, "Event is already full.");
-                }
-
                 // Check if the event has already started
                 Timestamp eventStartTime = Timestamp
                                 .valueOf(LocalDateTime.of(event.getDate().toLocalDate(),
@@ -83,6 +92,12 @@ public class EventRegistrationService {
                                         "User is already registered for this event.");
                 }
 
+                // Take a seat; the conditional update fails when the event is full, even under concurrent
+                // registrations, and is rolled back with the transaction if the insert below fails
+                if (eventRepository.reserveSeat(event.getEventID()) == 0) {
+                        throw new BoardGameException(HttpStatus.BAD_REQUEST, "Event is already full.");
+                }
+
                 // Register the user
                 EventRegistration registration = new EventRegistration(registrationKey, ParticipationStatus.PENDING);
                 eventRegistrationRepository.save(registration);
@@ -99,7 +114,7 @@ public class EventRegistrationService {
          */
         @Transactional
         public EventRegistrationResponseDto getRegistration(Long participantId, Long eventId) {
-                UserAccount user = userAccountRepository.findUserAccountByUserAccountID(participantId);
+                UserAccount user = userIdentityService.findUserAccount(participantId);
                 if (user == null) {
                         throw new BoardGameException(HttpStatus.NOT_FOUND, "User not found.");
                 }
@@ -144,7 +159,7 @@ public class EventRegistrationService {
          */
         @Transactional
         public List<EventRegistrationResponseDto> getAllRegistrationsByUser(Long userId) {
-                UserAccount user = userAccountRepository.findUserAccountByUserAccountID(userId);
+                UserAccount user = userIdentityService.findUserAccount(userId);
                 if (user == null) {
                         throw new BoardGameException(HttpStatus.NOT_FOUND, "User not found.");
                 }
@@ -174,7 +189,7 @@ public class EventRegistrationService {
          */
         @Transactional
         public void cancelRegistration(Long participantId, Long eventId) {
-                UserAccount user = userAccountRepository.findUserAccountByUserAccountID(participantId);
+                UserAccount user = userIdentityService.findUserAccount(participantId);
                 if (user == null) {
                         throw new BoardGameException(HttpStatus.NOT_FOUND, "User not found.");
                 }
@@ -199,5 +214,6 @@ public class EventRegistrationService {
                 }
 
                 eventRegistrationRepository.delete(registration);
+                eventRepository.releaseSeat(event.getEventID());
         }
 }
@@ -1,6 +1,8 @@
 package ca.mcgill.ecse321.boardgame.service;
 
+import ca.mcgill.ecse321.boardgame.cache.UserIdentity;
 import ca.mcgill.ecse321.boardgame.dto.EventCreationDto;
+import ca.mcgill.ecse321.boardgame.dto.EventPurgeResultDto;
 import ca.mcgill.ecse321.boardgame.dto.EventResponseDto;
 import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
 import ca.mcgill.ecse321.boardgame.model.*;
@@ -9,14 +11,17 @@ import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
 import ca.mcgill.ecse321.boardgame.repo.EventRepository;
 import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
 import ca.mcgill.ecse321.boardgame.repo.GameRepository;
-import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
 import ca.mcgill.ecse321.boardgame.repo.EventRegistrationRepository;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Date;
 import java.sql.Time;
@@ -29,11 +34,18 @@ import java.util.stream.Collectors;
 @Service
 public class EventService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EventService.class);
+
+    public static final int PURGE_CHUNK_SIZE = 500;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Autowired
     private EventRepository eventRepository;
 
     @Autowired
-    private UserAccountRepository userAccountRepository;
+    private UserIdentityService userIdentityService;
 
     @Autowired
     private GameRepository gameRepository;
@@ -44,6 +56,9 @@ public class EventService {
     @Autowired
     private GameCopyRepository gameCopyRepository;
 
+    @Autowired
+    private BorrowWindowService borrowWindowService;
+
     @Autowired
     private EventRegistrationRepository eventRegistrationRepository;
 
@@ -61,25 +76,24 @@ public class EventService {
      */
     @Transactional
     public Event createEvent(@Valid EventCreationDto eventCreationDto, long userAccountId) {
-        UserAccount user = userAccountRepository.findUserAccountByUserAccountID(userAccountId);
-        Game game = gameRepository.findGameByTitle(eventCreationDto.getGameTitle());
+        UserIdentity identity = userIdentityService.findIdentity(userAccountId);
+        Game game = gameRepository.findGameByTitleKey(Game.toTitleKey(eventCreationDto.getGameTitle()));
 
-        if (user == null) {
+        if (identity == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
                     "User with ID " + userAccountId + " not found.");
         }
+        UserAccount user = userIdentityService.findUserAccount(userAccountId);
 
         if (game == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
                     "Game with title " + eventCreationDto.getGameTitle() + " not found.");
         }
 
-        if (user.getAccountType() != AccountType.GAMEOWNER) {
+        if (identity.getAccountType() != AccountType.GAMEOWNER) {
             // verify if the user is owner or borrower
-            List<BorrowRequest> borrowRequests = borrowRequestRepository.findByBorrowerAndGameTitle(user,
-                    game.getTitle());
-
-            if (borrowRequests.isEmpty()) {
+            if (!borrowRequestRepository.existsByBorrowerUserAccountIDAndGameToBorrowGameCopyKeyGameTitle(
+                    userAccountId, game.getTitle())) {
                 throw new ResourceNotFoundException(HttpStatus.FORBIDDEN,
                         "User is not authorized to create an event for this game.");
             }
@@ -136,19 +150,8 @@ public class EventService {
             return true;
         }
 
-        List<BorrowRequest> borrowRequests = borrowRequestRepository.findByBorrowerAndGameTitle(user, game.getTitle());
-
-        for (BorrowRequest borrowRequest : borrowRequests) {
-            Date startDate = borrowRequest.getStartDate();
-            Date endDate = borrowRequest.getEndDate();
-
-            // Check if the eventDate is within the borrowRequest time frame
-            if ((eventDate.equals(startDate) || eventDate.after(startDate))
-                    && (eventDate.equals(endDate) || eventDate.before(endDate))) {
-                return true;
-            }
-        }
-        return false;
+        // Otherwise the user must hold a borrowed copy on the day of the event
+        return borrowWindowService.holdsGameOn(user.getUserAccountID(), game.getTitle(), eventDate);
     }
 
     /**
@@ -194,7 +197,7 @@ public class EventService {
      */
     @Transactional
     public List<EventResponseDto> getAllEvents() {
-        List<Event> events = (List<Event>) eventRepository.findAll();
+        List<Event> events = eventRepository.findAllWithGameAndCreator();
         return events.stream()
                 .map(event -> new EventResponseDto(event)).collect(Collectors.toList());
     }
@@ -207,6 +210,7 @@ public class EventService {
     @Transactional
     public void deleteEvent(long eventId) {
         Event event = getEventById(eventId);
+        eventRegistrationRepository.deleteAllByEventIDs(List.of(event.getEventID()));
         eventRepository.delete(event);
     }
 
@@ -215,17 +219,50 @@ public class EventService {
      * Runs once a day at midnight.
      */
     @Scheduled(cron = "0 0 0 * * *") // At midnight every day
-    @Transactional
     public void deleteExpiredEvents() {
-        java.util.Date now = new java.util.Date();
-        java.sql.Date sqlNow = new java.sql.Date(now.getTime());
-
-        // Find events where date has passed
-        List<Event> expiredEvents = eventRepository.findByDateBefore(now);
-        if (!expiredEvents.isEmpty()) {
-            eventRepository.deleteAll(expiredEvents);
-            System.out.println(expiredEvents.size() + " expired events deleted");
+        purgeExpiredEvents();
+    }
+
+    /**
+     * Deletes every event dated before today, together with its registrations.
+     * Works in chunks of PURGE_CHUNK_SIZE events, each committed in its own
+     * transaction, so a large backlog never holds long locks or loads the events.
+     *
+     * @return the number of rows deleted and the time taken
+     */
+    public EventPurgeResultDto purgeExpiredEvents() {
+        Date today = new Date(System.currentTimeMillis());
+        long start = System.currentTimeMillis();
+        long eventsDeleted = 0;
+        long registrationsDeleted = 0;
+        int chunks = 0;
+
+        while (true) {
+            // {events found, events deleted, registrations deleted}
+            int[] chunk = transactionTemplate.execute(status -> {
+                List<Long> eventIds = eventRepository.findExpiredEventIds(today, Limit.of(PURGE_CHUNK_SIZE));
+                if (eventIds.isEmpty()) {
+                    return new int[] { 0, 0, 0 };
+                }
+                int registrations = eventRegistrationRepository.deleteAllByEventIDs(eventIds);
+                int events = eventRepository.deleteAllByEventIDs(eventIds);
+                return new int[] { eventIds.size(), events, registrations };
+            });
+            if (chunk == null || chunk[0] == 0) {
+                break;
+            }
+            chunks++;
+            eventsDeleted += chunk[1];
+            registrationsDeleted += chunk[2];
+            if (chunk[0] < PURGE_CHUNK_SIZE) {
+                break;
+            }
         }
+
+        long elapsedMillis = System.currentTimeMillis() - start;
+        logger.info("{} expired events and {} registrations deleted in {} chunks ({} ms)", eventsDeleted,
+                registrationsDeleted, chunks, elapsedMillis);
+        return new EventPurgeResultDto(eventsDeleted, registrationsDeleted, chunks, elapsedMillis);
     }
 
     /**
@@ -237,7 +274,7 @@ public class EventService {
      */
     @Transactional
     public List<EventResponseDto> getEventsByUserRegistration(long userAccountId) {
-        UserAccount user = userAccountRepository.findUserAccountByUserAccountID(userAccountId);
+        UserAccount user = userIdentityService.findUserAccount(userAccountId);
 
         if (user == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
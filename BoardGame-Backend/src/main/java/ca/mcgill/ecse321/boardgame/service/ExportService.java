@@ -0,0 +1,119 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import ca.mcgill.ecse321.boardgame.dto.BorrowRequestResponseDto;
+import ca.mcgill.ecse321.boardgame.dto.EventRegistrationResponseDto;
+import ca.mcgill.ecse321.boardgame.dto.EventResponseDto;
+import ca.mcgill.ecse321.boardgame.model.BorrowRequest;
+import ca.mcgill.ecse321.boardgame.model.Event;
+import ca.mcgill.ecse321.boardgame.model.EventRegistration;
+import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
+import ca.mcgill.ecse321.boardgame.repo.EventRegistrationRepository;
+import ca.mcgill.ecse321.boardgame.repo.EventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables as newline-delimited JSON for reporting. Rows come from
+ * a database cursor and each one is written and detached before the next is
+ * read, so an export holds one fetch of rows in memory however long the table
+ * is. Each line has the same shape as the matching GET endpoint's items.
+ */
+@Service
+public class ExportService {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    // Matches the fetch size of the export queries
+    static final int CLEAR_INTERVAL = 500;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private BorrowRequestRepository borrowRequestRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Writes every event, in id order, one JSON object per line.
+     *
+     * @param out the stream to write to; it is flushed but not closed
+     * @return the number of events written
+     * @throws IOException if the stream cannot be written
+     */
+    @Transactional(readOnly = true)
+    public long exportEvents(OutputStream out) throws IOException {
+        try (Stream<Event> events = eventRepository.streamAllForExport()) {
+            return writeRows(events, EventResponseDto::new, out);
+        }
+    }
+
+    /**
+     * Writes every event registration, one JSON object per line.
+     *
+     * @param out the stream to write to; it is flushed but not closed
+     * @return the number of registrations written
+     * @throws IOException if the stream cannot be written
+     */
+    @Transactional(readOnly = true)
+    public long exportEventRegistrations(OutputStream out) throws IOException {
+        try (Stream<EventRegistration> registrations = eventRegistrationRepository.streamAllForExport()) {
+            return writeRows(registrations, EventRegistrationResponseDto::new, out);
+        }
+    }
+
+    /**
+     * Writes every borrow request, in id order, one JSON object per line.
+     *
+     * @param out the stream to write to; it is flushed but not closed
+     * @return the number of requests written
+     * @throws IOException if the stream cannot be written
+     */
+    @Transactional(readOnly = true)
+    public long exportBorrowRequests(OutputStream out) throws IOException {
+        try (Stream<BorrowRequest> requests = borrowRequestRepository.streamAllForExport()) {
+            return writeRows(requests, BorrowRequestResponseDto::new, out);
+        }
+    }
+
+    private <T> long writeRows(Stream<T> rows, Function<T, ?> toDto, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer();
+        OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            // The DTOs only read the ids of the associations, so no row loads another
+            buffered.write(writer.writeValueAsBytes(toDto.apply(row)));
+            buffered.write('\n');
+            entityManager.detach(row);
+            if (++count % CLEAR_INTERVAL == 0) {
+                // The references the rows pointed to stay managed after a detach; drop them once per fetch
+                entityManager.clear();
+            }
+        }
+        buffered.flush();
+        return count;
+    }
+}
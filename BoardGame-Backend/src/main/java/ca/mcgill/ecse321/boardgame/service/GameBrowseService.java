@@ -0,0 +1,188 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import ca.mcgill.ecse321.boardgame.cache.FacetIndex;
+import ca.mcgill.ecse321.boardgame.dto.GameBrowseItemDto;
+import ca.mcgill.ecse321.boardgame.dto.GameBrowsePageDto;
+import ca.mcgill.ecse321.boardgame.exception.BoardGameException;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameStatus;
+import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Faceted browsing of the catalog by category and by whether a copy can be
+ * borrowed. The categories of the games and the number of available copies
+ * of each are indexed in memory once the application is up, then kept
+ * current by the services that write games and change copy statuses, so a
+ * browse never reaches the database.
+ */
+@Service
+public class GameBrowseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameBrowseService.class);
+
+    public static final int MAX_CATEGORIES = 50;
+
+    // Games read per query while the index is built
+    static final int BUILD_BATCH_SIZE = 1_000;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameCopyRepository gameCopyRepository;
+
+    private final LiveIndex<FacetIndex> index = new LiveIndex<>(new FacetIndex());
+
+    /**
+     * Indexes every game into a new index, reading the catalog in title order one
+     * batch at a time, then counts the available copies of each game with one
+     * grouped query. The current index keeps answering until the new one is
+     * swapped in, and writes committed while it runs are replayed on the new
+     * one, so none is lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        FacetIndex built = index.rebuild(() -> {
+            FacetIndex fresh = new FacetIndex();
+            List<Game> games = gameRepository.findAllByOrderByTitleAsc(Limit.of(BUILD_BATCH_SIZE));
+            while (!games.isEmpty()) {
+                for (Game game : games) {
+                    fresh.put(game.getTitle(), game.getCategory());
+                }
+                if (games.size() < BUILD_BATCH_SIZE) {
+                    break;
+                }
+                String last = games.get(games.size() - 1).getTitle();
+                games = gameRepository.findByTitleGreaterThanOrderByTitleAsc(last, Limit.of(BUILD_BATCH_SIZE));
+            }
+            for (Object[] row : gameCopyRepository.countByGameTitleInStatus(GameStatus.AVAILABLE)) {
+                fresh.setAvailableCopies((String) row[0], ((Number) row[1]).intValue());
+            }
+            return fresh;
+        });
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Indexed {} games for browsing in {} ms", built.size(), elapsedMillis);
+    }
+
+    /**
+     * Retrieves one page of the games in the given categories, ordered by title,
+     * with the count of every category and of the games with an available copy.
+     *
+     * @param categories    the categories to keep, or null or empty for all games
+     * @param availableOnly whether to keep only the games with a copy that can be borrowed
+     * @param cursor        the nextCursor of the previous page, or null for the first page
+     * @param size          the requested page size, capped at GameService.MAX_PAGE_SIZE
+     * @return the page of games, the facet counts and the cursor of the next page
+     * @throws BoardGameException if the size or the cursor is invalid, or too many categories are given
+     */
+    public GameBrowsePageDto browse(List<String> categories, boolean availableOnly, String cursor, int size) {
+        if (size <= 0) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+        }
+        if (categories != null && categories.size() > MAX_CATEGORIES) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_CATEGORIES + " categories can be chosen at once");
+        }
+        int pageSize = Math.min(size, GameService.MAX_PAGE_SIZE);
+        String afterTitle = (cursor == null || cursor.isEmpty()) ? null : decodeCursor(cursor);
+
+        FacetIndex.Result result = index.get().query(categories, availableOnly, afterTitle, pageSize);
+        List<GameBrowseItemDto> games = result.getItems().stream()
+                .map(GameBrowseItemDto::new)
+                .collect(Collectors.toList());
+        String nextCursor = result.hasMore() ? encodeCursor(games.get(games.size() - 1).getTitle()) : null;
+        return new GameBrowsePageDto(result.getTotal(), games, result.getCategoryCounts(),
+                result.getAvailableCount(), nextCursor);
+    }
+
+    /**
+     * Adds a game to the index, or moves it to its new category, once the
+     * current transaction commits; without a transaction the index is updated at once.
+     */
+    public void index(String title, String category) {
+        index.update(current -> current.put(title, category));
+    }
+
+    /**
+     * Removes a game from the index once the current transaction commits.
+     */
+    public void remove(String title) {
+        index.update(current -> current.remove(title));
+    }
+
+    /**
+     * Records copies of a game becoming available, or no longer available,
+     * once the current transaction commits. The game's available copies are
+     * counted again with one indexed query inside the transaction, after its
+     * own writes, and the index is set to that count rather than moved by the
+     * delta: a copy created while a rebuild runs may already be in its grouped
+     * count, and adding the delta as well would count it twice.
+     *
+     * @param title the title of the game
+     * @param delta the change in its number of available copies; a zero delta changes nothing
+     */
+    public void availableCopiesChanged(String title, int delta) {
+        if (delta != 0) {
+            int count = (int) gameCopyRepository.countByGameCopyKeyGameTitleAndStatus(title, GameStatus.AVAILABLE);
+            index.update(current -> current.setAvailableCopies(title, count));
+        }
+    }
+
+    /**
+     * Records available copies of many games changing once the current
+     * transaction commits, counting them inside it with one grouped query.
+     *
+     * @param titles the stored titles of the games
+     */
+    public void availableCopiesChanged(Collection<String> titles) {
+        if (titles.isEmpty()) {
+            return;
+        }
+        // Games left out of the grouped count have no available copy
+        Map<String, Integer> counts = new HashMap<>();
+        for (String title : titles) {
+            counts.put(title, 0);
+        }
+        for (Object[] row : gameCopyRepository.countByGameTitlesInStatus(titles, GameStatus.AVAILABLE)) {
+            counts.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        index.update(current -> counts.forEach(current::setAvailableCopies));
+    }
+
+    /**
+     * The change in available copies when a copy moves from one status to another.
+     */
+    public static int availabilityDelta(GameStatus from, GameStatus to) {
+        return (to == GameStatus.AVAILABLE ? 1 : 0) - (from == GameStatus.AVAILABLE ? 1 : 0);
+    }
+
+    private static String encodeCursor(String title) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(title.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST, "Invalid page cursor");
+        }
+    }
+}
@@ -1,11 +1,29 @@
 package ca.mcgill.ecse321.boardgame.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import ca.mcgill.ecse321.boardgame.cache.UserIdentity;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyBatchResultDto;
 import ca.mcgill.ecse321.boardgame.dto.GameCopyCreationDto;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyOutcomeDto;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyOutcomeDto.Outcome;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyPageDto;
 import ca.mcgill.ecse321.boardgame.dto.GameCopyResponseDto;
+import ca.mcgill.ecse321.boardgame.dto.GameCopySummaryDto;
 import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
 import ca.mcgill.ecse321.boardgame.model.AccountType;
 import ca.mcgill.ecse321.boardgame.model.Game;
@@ -14,8 +32,11 @@ import ca.mcgill.ecse321.boardgame.model.GameStatus;
 import ca.mcgill.ecse321.boardgame.model.GameCopy.GameCopyKey;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
 import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
-import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
 import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -26,6 +47,13 @@ import org.springframework.http.HttpStatus;
 @Service
 public class GameCopyService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_BATCH_SIZE = 1_000;
+
+    // Inserts sent to the database per JDBC batch when a batch of copies is flushed
+    static final int INSERT_BATCH_SIZE = 100;
+
     @Autowired
     private GameCopyRepository gameCopyRepository;
 
@@ -33,11 +61,23 @@ public class GameCopyService {
     private GameService gameService;
 
     @Autowired
-    private UserAccountRepository userAccountRepository;
+    private UserIdentityService userIdentityService;
 
     @Autowired
     private BorrowRequestRepository borrowRequestRepository;
 
+    @Autowired
+    private BorrowWindowService borrowWindowService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private GameBrowseService gameBrowseService;
+
     /**
      * Creates a new game copy.
      *
@@ -46,18 +86,11 @@ public class GameCopyService {
      */
     @Transactional
     public GameCopy createGameCopy(@Valid GameCopyCreationDto gameCopyCreationDto) {
-        UserAccount owner = userAccountRepository.findUserAccountByUserAccountID(gameCopyCreationDto.getOwner());
-
-        if (owner == null) {
-            throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
-                    "UserAccount with ID " + gameCopyCreationDto.getOwner() + " not found");
-        }
+        checkGameOwner(gameCopyCreationDto.getOwner());
 
-        if (owner.getAccountType() != AccountType.GAMEOWNER) {
-            throw new ResourceNotFoundException(HttpStatus.FORBIDDEN, "Only game owners can own game copies");
-        }
+        UserAccount owner = userIdentityService.findUserAccount(gameCopyCreationDto.getOwner());
 
-        Game game = gameService.getGameByTitle(gameCopyCreationDto.getTitle());
+        Game game = gameService.findGame(gameCopyCreationDto.getTitle());
 
         if (game == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
@@ -75,26 +108,158 @@ public class GameCopyService {
 
         GameCopy gameCopy = new GameCopy(gameCopyKey, gameCopyCreationDto.getDescription());
         GameCopy test = gameCopyRepository.save(gameCopy);
+        // New copies start out available
+        gameBrowseService.availableCopiesChanged(game.getTitle(), 1);
         return test;
     }
 
     /**
-     * Updates the status of a game copy.
+     * Creates copies of many games for one owner. The owner is checked once,
+     * the titles are resolved with one query, the copies the owner already has
+     * are found with another, and the new copies are persisted and flushed in
+     * JDBC batches.
+     * Titles are matched through their title keys, so a copy is always filed
+     * under the title the game is stored with. A title that cannot be added
+     * does not stop the others.
+     *
+     * @param ownerId the ID of the owner of the copies
+     * @param copies  the title and description of each copy
+     * @return the number of copies created and the outcome of each title, in order
+     * @throws ResourceNotFoundException if the batch is empty or too large, the
+     *                                   user does not exist or is not a game owner,
+     *                                   or another request added one of the copies
+     *                                   since they were checked
+     */
+    @Transactional
+    public GameCopyBatchResultDto createGameCopies(long ownerId, List<GameCopyCreationDto> copies) {
+        if (copies == null || copies.isEmpty()) {
+            throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST, "At least one game copy is required");
+        }
+        if (copies.size() > MAX_BATCH_SIZE) {
+            throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_SIZE + " game copies can be added at once");
+        }
+        checkGameOwner(ownerId);
+
+        Set<String> titleKeys = new HashSet<>();
+        for (GameCopyCreationDto copy : copies) {
+            if (copy != null && !isBlank(copy.getTitle())) {
+                titleKeys.add(Game.toTitleKey(copy.getTitle()));
+            }
+        }
+        // Stored title of each known game, by title key
+        Map<String, String> known = new HashMap<>();
+        if (!titleKeys.isEmpty()) {
+            for (Game game : gameRepository.findAllByTitleKeyIn(titleKeys)) {
+                known.put(game.getTitleKey(), game.getTitle());
+            }
+        }
+        Set<String> owned = known.isEmpty() ? Set.of()
+                : new HashSet<>(gameCopyRepository.findOwnedTitles(ownerId, known.values()));
+
+        GameCopyOutcomeDto[] outcomes = new GameCopyOutcomeDto[copies.size()];
+        Set<String> added = new HashSet<>();
+        List<Integer> pending = new ArrayList<>();
+        List<String> pendingTitles = new ArrayList<>();
+        for (int i = 0; i < copies.size(); i++) {
+            GameCopyCreationDto copy = copies.get(i);
+            String title = copy == null ? null : copy.getTitle();
+            String stored = isBlank(title) ? null : known.get(Game.toTitleKey(title));
+            if (isBlank(title)) {
+                outcomes[i] = new GameCopyOutcomeDto(title, Outcome.INVALID, "The game title is required");
+            } else if (isBlank(copy.getDescription())) {
+                outcomes[i] = new GameCopyOutcomeDto(title, Outcome.INVALID, "The game description is required");
+            } else if (stored == null) {
+                outcomes[i] = new GameCopyOutcomeDto(title, Outcome.GAME_NOT_FOUND,
+                        "Game with title " + title + " not found");
+            } else if (owned.contains(stored) || !added.add(stored)) {
+                // A title sent twice gets one copy, like one already on the owner's shelf
+                outcomes[i] = alreadyOwned(title);
+            } else {
+                pending.add(i);
+                pendingTitles.add(stored);
+            }
+        }
+
+        int created = 0;
+        if (!pending.isEmpty()) {
+            // Written through the entity mapping, so status and version are stored as GameCopy defines them
+            entityManager.unwrap(Session.class).setJdbcBatchSize(INSERT_BATCH_SIZE);
+            UserAccount owner = entityManager.getReference(UserAccount.class, ownerId);
+            for (int j = 0; j < pending.size(); j++) {
+                Game game = entityManager.getReference(Game.class, pendingTitles.get(j));
+                entityManager.persist(new GameCopy(new GameCopyKey(owner, game),
+                        copies.get(pending.get(j)).getDescription()));
+            }
+            try {
+                entityManager.flush();
+            } catch (PersistenceException e) {
+                throw new ResourceNotFoundException(HttpStatus.CONFLICT,
+                        "Another request added some of these game copies; try again");
+            }
+            for (int j = 0; j < pending.size(); j++) {
+                int i = pending.get(j);
+                outcomes[i] = new GameCopyOutcomeDto(copies.get(i).getTitle(), Outcome.CREATED, null);
+                created++;
+            }
+            // New copies start out available
+            gameBrowseService.availableCopiesChanged(pendingTitles);
+        }
+        return new GameCopyBatchResultDto(ownerId, created, Arrays.asList(outcomes));
+    }
+
+    private static GameCopyOutcomeDto alreadyOwned(String title) {
+        return new GameCopyOutcomeDto(title, Outcome.ALREADY_OWNED,
+                "User already owns a copy of the game " + title + ".");
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private void checkGameOwner(long ownerId) {
+        UserIdentity ownerIdentity = userIdentityService.findIdentity(ownerId);
+
+        if (ownerIdentity == null) {
+            throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
+                    "UserAccount with ID " + ownerId + " not found");
+        }
+
+        if (ownerIdentity.getAccountType() != AccountType.GAMEOWNER) {
+            throw new ResourceNotFoundException(HttpStatus.FORBIDDEN, "Only game owners can own game copies");
+        }
+    }
+
+    /**
+     * Updates the status of a game copy. While an accepted or picked up borrow
+     * request holds the copy, its status follows that request and cannot be
+     * set by hand.
      *
      * @param title         the title of the game copy
      * @param userAccountId the ID of the user who owns the game copy
      * @param status        the new status of the game copy
+     * @throws ResourceNotFoundException if the status is invalid or a borrow
+     *                                   request holds the copy
      */
     @Transactional
     public void updateStatus(String title, long userAccountId, String status) {
         GameCopy gameCopy = getGameCopyByTitle(userAccountId, title);
+        GameStatus gameStatus;
         try {
-            GameStatus gameStatus = GameStatus.valueOf(status.toUpperCase());
-            gameCopy.setStatus(gameStatus);
-            gameCopyRepository.save(gameCopy);
+            gameStatus = GameStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST, "Invalid game status: " + status);
         }
+        // BorrowRequestService lends the copy at pick-up and takes it back on return
+        if (borrowRequestRepository.existsByGameToBorrowAndStatusIn(gameCopy, BorrowWindowService.HOLDING_STATUSES)) {
+            throw new ResourceNotFoundException(HttpStatus.CONFLICT,
+                    "GameCopy with title " + title + " is held by a borrow request and its status cannot be changed");
+        }
+        GameStatus previous = gameCopy.getStatus();
+        gameCopy.setStatus(gameStatus);
+        gameCopyRepository.save(gameCopy);
+        gameBrowseService.availableCopiesChanged(gameCopy.getGameCopyKey().getGame().getTitle(),
+                GameBrowseService.availabilityDelta(previous, gameStatus));
     }
 
     /**
@@ -105,11 +270,56 @@ public class GameCopyService {
      */
     @Transactional
     public List<GameCopyResponseDto> getUserGameCopies(long userAccountId) {
-        UserAccount owner = userAccountRepository.findUserAccountByUserAccountID(userAccountId);
-        List<GameCopy> gameCopies = gameCopyRepository.findAllByGameCopyKeyOwner(owner);
+        List<GameCopy> gameCopies = gameCopyRepository.findAllWithOwnerAndGameByOwnerId(userAccountId);
         return gameCopies.stream().map(GameCopyResponseDto::new).collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves one page of the copies of a game across all owners, ordered by owner ID.
+     *
+     * @param title  the title of the game
+     * @param status the status the copies must be in, or null for every status
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param size   the requested page size, capped at MAX_PAGE_SIZE
+     * @return the page of copies and the cursor of the next page
+     * @throws ResourceNotFoundException if the size or the cursor is invalid
+     */
+    @Transactional
+    public GameCopyPageDto getGameCopiesPage(String title, GameStatus status, String cursor, int size) {
+        if (size <= 0) {
+            throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        // Answers from the title cache, and reports an unknown game instead of an empty page
+        Game game = gameService.findGame(title);
+        Collection<GameStatus> statuses = status == null ? EnumSet.allOf(GameStatus.class) : EnumSet.of(status);
+        long afterOwnerId = (cursor == null || cursor.isEmpty()) ? -1 : decodeCursor(cursor);
+
+        // Fetch one extra row to know whether another page follows
+        List<GameCopy> copies = gameCopyRepository.findPageByGameTitle(game.getTitle(), statuses, afterOwnerId,
+                Limit.of(pageSize + 1));
+        String nextCursor = null;
+        if (copies.size() > pageSize) {
+            copies = copies.subList(0, pageSize);
+            nextCursor = encodeCursor(copies.get(pageSize - 1).getGameCopyKey().getOwner().getUserAccountID());
+        }
+        return new GameCopyPageDto(game.getTitle(),
+                copies.stream().map(GameCopySummaryDto::new).collect(Collectors.toList()), nextCursor);
+    }
+
+    private static String encodeCursor(long ownerId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(ownerId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST, "Invalid page cursor");
+        }
+    }
+
     /**
      * Deletes a game copy.
      *
@@ -125,11 +335,15 @@ public class GameCopyService {
         }
 
         // Find and delete all borrow requests for this game copy
-        UserAccount owner = userAccountRepository.findUserAccountByUserAccountID(userAccountId);
-        Game game = gameService.getGameByTitle(title);
-        borrowRequestRepository.deleteBorrowRequestsByOwnerAndGameTitle(owner, title);
+        UserAccount owner = userIdentityService.findUserAccount(userAccountId);
+        Game game = gameService.findGame(title);
+        borrowRequestRepository.deleteBorrowRequestsByOwnerAndGameTitle(owner, game.getTitle());
+        // The deleted requests may belong to any number of borrowers
+        borrowWindowService.invalidateAll();
 
         gameCopyRepository.delete(gameCopy);
+        gameBrowseService.availableCopiesChanged(game.getTitle(),
+                GameBrowseService.availabilityDelta(gameCopy.getStatus(), null));
     }
 
     /**
@@ -159,13 +373,13 @@ public class GameCopyService {
      * @return the GameCopy object
      */
     private GameCopy getGameCopyByTitle(long userAccountId, String title) {
-        UserAccount owner = userAccountRepository.findUserAccountByUserAccountID(userAccountId);
+        UserAccount owner = userIdentityService.findUserAccount(userAccountId);
         if (owner == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
                     "UserAccount with ID " + userAccountId + " not found");
         }
 
-        Game game = gameService.getGameByTitle(title);
+        Game game = gameService.findGame(title);
         if (game == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
                     "Game with title " + title + " not found");
@@ -181,6 +395,6 @@ public class GameCopyService {
      */
     @Transactional
     public List<GameCopy> getAllGameCopies() {
-        return (List<GameCopy>) gameCopyRepository.findAll();
+        return gameCopyRepository.findAllWithOwnerAndGame();
     }
 }
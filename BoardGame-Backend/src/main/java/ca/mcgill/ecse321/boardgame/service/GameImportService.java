@@ -0,0 +1,385 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import ca.mcgill.ecse321.boardgame.dto.GameImportResultDto;
+import ca.mcgill.ecse321.boardgame.dto.GameRequestDto;
+import ca.mcgill.ecse321.boardgame.dto.ImportErrorDto;
+import ca.mcgill.ecse321.boardgame.exception.BoardGameException;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Imports publisher catalogs into the game table.
+ * The input is read one row at a time and stored in chunks, each in its own
+ * transaction: one query finds the title keys of the chunk that already exist,
+ * and the new games are persisted and flushed as a single JDBC batch. Rows
+ * that cannot be stored are reported with their line number instead of
+ * failing the import; a game added by someone else meanwhile fails its chunk.
+ */
+@Service
+public class GameImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameImportService.class);
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+    public static final int MAX_CHUNK_SIZE = 5_000;
+    public static final int MAX_REPORTED_ERRORS = 1_000;
+    public static final int MAX_FIELD_LENGTH = 255;
+
+    @Value("${boardgame.import.chunk-size:" + DEFAULT_CHUNK_SIZE + "}")
+    private int configuredChunkSize;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GameSearchService gameSearchService;
+
+    @Autowired
+    private GameBrowseService gameBrowseService;
+
+    /**
+     * Imports games from a CSV file or from newline-delimited JSON.
+     * A CSV file starts with a header naming its columns; title is required,
+     * description and category are read when present. Each JSON line is an
+     * object with the same fields. Titles whose title key is already in the
+     * catalog, or was seen earlier in the input, are skipped as duplicates.
+     *
+     * @param input       the file to import
+     * @param contentType text/csv or application/x-ndjson, with an optional charset
+     * @param chunkSize   the number of rows per batch, or null for the configured size
+     * @return the counts of imported, duplicate and failed rows, and the rows that were not stored
+     * @throws BoardGameException if the format, the chunk size or the CSV header is invalid
+     */
+    public GameImportResultDto importGames(InputStream input, String contentType, Integer chunkSize) {
+        int size = chunkSize == null ? configuredChunkSize : chunkSize;
+        if (size <= 0) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST, "Chunk size must be positive");
+        }
+        size = Math.min(size, MAX_CHUNK_SIZE);
+
+        MediaType type = parseType(contentType);
+        Charset charset = type.getCharset() == null ? StandardCharsets.UTF_8 : type.getCharset();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, charset));
+
+        long start = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+        List<ImportRow> chunk = new ArrayList<>(size);
+        try {
+            RowReader rows = type.isCompatibleWith(MediaType.parseMediaType(CSV))
+                    ? new CsvRows(reader)
+                    : new NdjsonRows(reader, objectMapper);
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                report.rowsRead++;
+                String error = row.error != null ? row.error : validate(row.game);
+                if (error != null) {
+                    report.fail(row, error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == size) {
+                    insertChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            insertChunk(chunk, report);
+        } catch (IOException e) {
+            // The chunks stored so far stay; the caller learns where the input stopped
+            insertChunk(chunk, report);
+            report.fail(new ImportRow(report.rowsRead + 1, null, null),
+                    "Could not read the rest of the input: " + e.getMessage());
+        }
+
+        long elapsedMillis = System.currentTimeMillis() - start;
+        logger.info("{} games imported, {} duplicates and {} failed rows skipped in {} chunks ({} ms)",
+                report.imported, report.duplicates, report.failed, report.chunks, elapsedMillis);
+        return new GameImportResultDto(report.rowsRead, report.imported, report.duplicates, report.failed,
+                report.chunks, elapsedMillis, report.errors, report.errorsTruncated);
+    }
+
+    private void insertChunk(List<ImportRow> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        report.chunks++;
+        ChunkOutcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> {
+                Set<String> titleKeys = new LinkedHashSet<>();
+                for (ImportRow row : chunk) {
+                    titleKeys.add(Game.toTitleKey(row.game.getTitle()));
+                }
+                Set<String> existing = new HashSet<>(gameRepository.findExistingTitleKeys(titleKeys));
+
+                ChunkOutcome result = new ChunkOutcome();
+                Set<String> seen = new HashSet<>();
+                List<ImportRow> fresh = new ArrayList<>();
+                for (ImportRow row : chunk) {
+                    String titleKey = Game.toTitleKey(row.game.getTitle());
+                    // Each title key is inserted once; later rows with it are duplicates, like rows already stored
+                    if (existing.contains(titleKey) || !seen.add(titleKey)) {
+                        result.duplicates.add(row);
+                    } else {
+                        fresh.add(row);
+                    }
+                }
+                if (!fresh.isEmpty()) {
+                    // Written through the entity mapping, so the columns are the ones Game defines
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(fresh.size());
+                    for (ImportRow row : fresh) {
+                        entityManager.persist(new Game(row.game.getTitle(), row.game.getDescription(),
+                                row.game.getCategory()));
+                    }
+                    entityManager.flush();
+                    // The request's persistence context outlives the chunk, so drop the stored games
+                    // before the next one, or every later flush would check them all again
+                    entityManager.clear();
+                    result.inserted.addAll(fresh);
+                }
+                return result;
+            });
+        } catch (DataAccessException | TransactionException | PersistenceException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (ImportRow row : chunk) {
+                report.fail(row, "Chunk could not be stored: " + cause);
+            }
+            return;
+        }
+        if (outcome == null) {
+            return;
+        }
+        report.imported += outcome.inserted.size();
+        // The chunk has committed, so its games can be searched and browsed right away
+        for (ImportRow row : outcome.inserted) {
+            gameSearchService.index(row.game.getTitle(), row.game.getDescription(), row.game.getCategory());
+            gameBrowseService.index(row.game.getTitle(), row.game.getCategory());
+        }
+        for (ImportRow row : outcome.duplicates) {
+            report.duplicate(row);
+        }
+    }
+
+    private static String validate(GameRequestDto game) {
+        if (game.getTitle() == null || game.getTitle().trim().isEmpty()) {
+            return "Game title is required";
+        }
+        if (game.getDescription() == null || game.getDescription().trim().isEmpty()) {
+            return "Game description is required";
+        }
+        if (GameService.isReservedTitle(game.getTitle())) {
+            return "Title '" + game.getTitle() + "' is reserved by the catalog";
+        }
+        if (game.getTitle().length() > MAX_FIELD_LENGTH) {
+            return "Title is longer than " + MAX_FIELD_LENGTH + " characters";
+        }
+        if (game.getDescription().length() > MAX_FIELD_LENGTH) {
+            return "Description is longer than " + MAX_FIELD_LENGTH + " characters";
+        }
+        if (game.getCategory() != null && game.getCategory().length() > MAX_FIELD_LENGTH) {
+            return "Category is longer than " + MAX_FIELD_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static MediaType parseType(String contentType) {
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            if (type.isCompatibleWith(MediaType.parseMediaType(CSV))
+                    || type.isCompatibleWith(MediaType.parseMediaType(NDJSON))) {
+                return type;
+            }
+        } catch (IllegalArgumentException e) {
+            // Reported below like any other unsupported type
+        }
+        throw new BoardGameException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                "Imports must be " + CSV + " or " + NDJSON);
+    }
+
+    /**
+     * One row of the input: the line it starts on, and either the game it
+     * describes or the reason it could not be read.
+     */
+    private static class ImportRow {
+        final long line;
+        final GameRequestDto game;
+        final String error;
+
+        ImportRow(long line, GameRequestDto game, String error) {
+            this.line = line;
+            this.game = game;
+            this.error = error;
+        }
+
+        String title() {
+            return game == null ? null : game.getTitle();
+        }
+    }
+
+    private interface RowReader {
+        /**
+         * Returns the next row, or null at the end of the input.
+         */
+        ImportRow next() throws IOException;
+    }
+
+    private static class CsvRows implements RowReader {
+        private final CsvRecordReader csv;
+        private final int titleColumn;
+        private final int descriptionColumn;
+        private final int categoryColumn;
+
+        CsvRows(BufferedReader reader) throws IOException {
+            csv = new CsvRecordReader(reader);
+            List<String> header = csv.next();
+            if (header == null) {
+                // An empty file imports nothing
+                titleColumn = descriptionColumn = categoryColumn = -1;
+                return;
+            }
+            List<String> names = new ArrayList<>();
+            for (String name : header) {
+                // Spreadsheet exports often start with a byte order mark
+                names.add(name.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+            }
+            titleColumn = names.indexOf("title");
+            descriptionColumn = names.indexOf("description");
+            categoryColumn = names.indexOf("category");
+            if (titleColumn < 0) {
+                throw new BoardGameException(HttpStatus.BAD_REQUEST, "The CSV header must have a title column");
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (titleColumn < 0) {
+                return null;
+            }
+            List<String> fields;
+            do {
+                fields = csv.next();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isEmpty() && csv.getMalformed() == null);
+            if (fields == null) {
+                return null;
+            }
+            GameRequestDto game = new GameRequestDto(field(fields, titleColumn), field(fields, descriptionColumn),
+                    field(fields, categoryColumn));
+            return new ImportRow(csv.getRecordLine(), game, csv.getMalformed());
+        }
+
+        private static String field(List<String> fields, int column) {
+            return column < 0 || column >= fields.size() ? null : fields.get(column);
+        }
+    }
+
+    private static class NdjsonRows implements RowReader {
+        private final LineReader reader;
+        private final ObjectMapper objectMapper;
+        private long lineNumber;
+
+        NdjsonRows(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = new LineReader(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            do {
+                // A row is held to the same bound as a CSV record
+                line = reader.readLine(CsvRecordReader.MAX_RECORD_CHARS);
+                lineNumber++;
+            } while (line != null && line.isBlank() && !reader.wasTooLong());
+            if (line == null) {
+                return null;
+            }
+            if (reader.wasTooLong()) {
+                return new ImportRow(lineNumber, null,
+                        "Row is longer than " + CsvRecordReader.MAX_RECORD_CHARS + " characters");
+            }
+            try {
+                GameRequestDto game = objectMapper.readValue(line, GameRequestDto.class);
+                if (game == null) {
+                    return new ImportRow(lineNumber, null, "Row is not a JSON object");
+                }
+                return new ImportRow(lineNumber, game, null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static class ChunkOutcome {
+        final List<ImportRow> inserted = new ArrayList<>();
+        final List<ImportRow> duplicates = new ArrayList<>();
+    }
+
+    private static class ImportReport {
+        long rowsRead;
+        long imported;
+        long duplicates;
+        long failed;
+        int chunks;
+        final List<ImportErrorDto> errors = new ArrayList<>();
+        boolean errorsTruncated;
+
+        void fail(ImportRow row, String message) {
+            failed++;
+            report(row, message);
+        }
+
+        void duplicate(ImportRow row) {
+            duplicates++;
+            report(row, "Game with title '" + row.title() + "' already exists");
+        }
+
+        private void report(ImportRow row, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportErrorDto(row.line, row.title(), message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
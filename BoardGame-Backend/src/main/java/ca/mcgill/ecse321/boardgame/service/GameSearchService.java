@@ -0,0 +1,199 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import ca.mcgill.ecse321.boardgame.cache.PrefixIndex;
+import ca.mcgill.ecse321.boardgame.cache.TextIndex;
+import ca.mcgill.ecse321.boardgame.dto.AutocompleteStatsDto;
+import ca.mcgill.ecse321.boardgame.dto.GameSearchHitDto;
+import ca.mcgill.ecse321.boardgame.exception.BoardGameException;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameRating;
+import ca.mcgill.ecse321.boardgame.repo.GameRatingRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over the titles, descriptions and categories of the games.
+ * The whole catalog is indexed in memory once the application is up, and kept
+ * current by the services that write games, so a search never reaches the
+ * database. A title word counts three times as much as a description word and
+ * a category word twice as much.
+ * Titles are also indexed on their own for type-ahead, ranked by how many
+ * reviews each game has.
+ */
+@Service
+public class GameSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameSearchService.class);
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_QUERY_LENGTH = 200;
+    public static final int DEFAULT_AUTOCOMPLETE_LIMIT = 10;
+    public static final int MAX_AUTOCOMPLETE_LIMIT = 50;
+
+    static final float TITLE_WEIGHT = 3f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+    static final float CATEGORY_WEIGHT = 2f;
+
+    // Games read per query while the index is built
+    static final int BUILD_BATCH_SIZE = 1_000;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameRatingRepository gameRatingRepository;
+
+    private final LiveIndex<Indexes> indexes = new LiveIndex<>(new Indexes());
+
+    /**
+     * Indexes every game into new indexes, reading the catalog in title order one
+     * batch at a time, then ranks the titles by their review counts. The current
+     * indexes keep answering until the new ones are swapped in, and writes
+     * committed while it runs are replayed on the new ones, so none is lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        Indexes built = indexes.rebuild(() -> {
+            Indexes fresh = new Indexes();
+            List<Game> games = gameRepository.findAllByOrderByTitleAsc(Limit.of(BUILD_BATCH_SIZE));
+            while (!games.isEmpty()) {
+                for (Game game : games) {
+                    fresh.put(game.getTitle(), game.getDescription(), game.getCategory());
+                }
+                if (games.size() < BUILD_BATCH_SIZE) {
+                    break;
+                }
+                String last = games.get(games.size() - 1).getTitle();
+                games = gameRepository.findByTitleGreaterThanOrderByTitleAsc(last, Limit.of(BUILD_BATCH_SIZE));
+            }
+            // One row per reviewed game
+            for (GameRating rating : gameRatingRepository.findAll()) {
+                fresh.titles.setPopularity(rating.getGameTitle(), rating.getReviewCount());
+            }
+            return fresh;
+        });
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Indexed {} games ({} terms, {} KiB of titles) for search in {} ms", built.text.size(),
+                built.text.termCount(), built.titles.memoryBytes() / 1024, elapsedMillis);
+    }
+
+    /**
+     * Searches the catalog. Every word of the query is matched on its own, and
+     * also as the start of longer words, so "cat" finds "Catan".
+     *
+     * @param query the words to look for
+     * @param limit the largest number of results, capped at MAX_LIMIT
+     * @return the best matching games, best first
+     * @throws BoardGameException if the query is empty or too long, or the limit is not positive
+     */
+    public List<GameSearchHitDto> search(String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST, "Search query cannot be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST,
+                    "Search query is longer than " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit <= 0) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST, "Search limit must be positive");
+        }
+        return indexes.get().text.search(query, Math.min(limit, MAX_LIMIT)).stream()
+                .map(hit -> new GameSearchHitDto(hit.getValue(), hit.getScore()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Completes a title from its first characters, ignoring case, accents and
+     * punctuation. The games with the most reviews come first.
+     *
+     * @param prefix what has been typed so far
+     * @param limit  the largest number of titles, capped at MAX_AUTOCOMPLETE_LIMIT
+     * @return the matching titles, or none when the prefix has no letters or digits
+     * @throws BoardGameException if the prefix is too long or the limit is not positive
+     */
+    public List<String> autocomplete(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST, "Autocomplete limit must be positive");
+        }
+        if (prefix == null) {
+            return new ArrayList<>();
+        }
+        if (prefix.length() > MAX_QUERY_LENGTH) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST,
+                    "Prefix is longer than " + MAX_QUERY_LENGTH + " characters");
+        }
+        return indexes.get().titles.complete(prefix, Math.min(limit, MAX_AUTOCOMPLETE_LIMIT));
+    }
+
+    /**
+     * Returns the size of the title index and an estimate of the memory it holds.
+     */
+    public AutocompleteStatsDto getAutocompleteStats() {
+        PrefixIndex titles = indexes.get().titles;
+        return new AutocompleteStatsDto(titles.size(), titles.memoryBytes());
+    }
+
+    /**
+     * Moves a game up or down the autocomplete ranking once the current
+     * transaction commits, as reviews of it are added or deleted. The ranking
+     * is set to the review count the transaction read after its own change,
+     * not moved by a delta, so a change replayed after a rebuild is not
+     * counted twice.
+     *
+     * @param title       the title of the game
+     * @param reviewCount its number of reviews once the transaction commits
+     */
+    public void reviewCountChanged(String title, long reviewCount) {
+        indexes.update(current -> current.titles.setPopularity(title, reviewCount));
+    }
+
+    /**
+     * Adds a game to the index, or refreshes it, once the current transaction
+     * commits; without a transaction the index is updated at once.
+     */
+    public void index(String title, String description, String category) {
+        indexes.update(current -> current.put(title, description, category));
+    }
+
+    /**
+     * Removes a game from the index once the current transaction commits.
+     */
+    public void remove(String title) {
+        indexes.update(current -> {
+            current.text.remove(title);
+            current.titles.remove(title);
+        });
+    }
+
+    /**
+     * Returns the number of indexed games.
+     */
+    public int size() {
+        return indexes.get().text.size();
+    }
+
+    // The full-text and title indexes, built and swapped in together
+    private static class Indexes {
+        final TextIndex<Game> text = new TextIndex<>(TITLE_WEIGHT, DESCRIPTION_WEIGHT, CATEGORY_WEIGHT);
+        final PrefixIndex titles = new PrefixIndex();
+
+        void put(String title, String description, String category) {
+            // A copy, so the index never holds on to a managed entity
+            text.put(title, new Game(title, description, category), title, description, category);
+            titles.add(title);
+        }
+    }
+}
@@ -1,23 +1,42 @@
 package ca.mcgill.ecse321.boardgame.service;
 
+import ca.mcgill.ecse321.boardgame.cache.BoundedCache;
+import ca.mcgill.ecse321.boardgame.cache.CacheStats;
 import ca.mcgill.ecse321.boardgame.dto.EventRegistrationResponseDto;
+import ca.mcgill.ecse321.boardgame.dto.GamePageDto;
+import ca.mcgill.ecse321.boardgame.dto.GameRatingDto;
 import ca.mcgill.ecse321.boardgame.dto.GameResponseDto;
 import ca.mcgill.ecse321.boardgame.model.EventRegistration;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import ca.mcgill.ecse321.boardgame.dto.GameRequestDto;
 import ca.mcgill.ecse321.boardgame.exception.BoardGameException;
 import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
 import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameRating;
+import ca.mcgill.ecse321.boardgame.repo.GameRatingRepository;
 import ca.mcgill.ecse321.boardgame.repo.GameRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -28,11 +47,41 @@ import java.util.stream.Collectors;
 @Validated
 public class GameService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_UNPAGED_GAMES = 1000;
+
+    public static final int GAME_CACHE_SIZE = 10_000;
+    public static final long GAME_CACHE_TTL_MINUTES = 10;
+
+    // Paths GameController maps ahead of /{title}; a game with one of these title keys could not be fetched
+    public static final Set<String> RESERVED_TITLE_KEYS = Set.of("page", "browse", "search", "autocomplete", "ratings");
+
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private GameRatingRepository gameRatingRepository;
+
+    @Autowired
+    private GameSearchService gameSearchService;
+
+    @Autowired
+    private GameBrowseService gameBrowseService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Title lookups are on most write paths while the catalog rarely changes; stored titles by title key.
+    // Only the immutable title is cached, so no entity is ever shared between persistence contexts
+    private final BoundedCache<String, String> titleCache =
+            new BoundedCache<>(GAME_CACHE_SIZE, GAME_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+
     /**
-     * Retrieves a game by its title.
+     * Retrieves a game by its title. The title is matched through its title
+     * key, so case, accents, whitespace and punctuation do not matter. The
+     * stored title is resolved from the cache when it can be, then the game is
+     * loaded by primary key in the caller's persistence context.
      *
      * @param title the title of the game
      * @return the Game object
@@ -44,7 +93,9 @@ public class GameService {
             throw new BoardGameException(HttpStatus.BAD_REQUEST, "Title cannot be empty");
         }
 
-        Game game = gameRepository.findGameByTitle(title);
+        String stored = findStoredTitle(title);
+        // On a cache miss the lookup by title key has already loaded the game into this context
+        Game game = stored == null ? null : gameRepository.findById(stored).orElse(null);
         if (game == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
                     "Game with title '" + title + "' not found");
@@ -53,34 +104,257 @@ public class GameService {
     }
 
     /**
-     * Retrieves all games.
+     * Returns a game to use as an association, such as in the key of a copy or
+     * a review. The title is matched through its title key and resolved from
+     * the cache when it can be; the game is an unloaded reference in the
+     * caller's persistence context, so reading anything but its title loads it.
+     *
+     * @param title the title of the game
+     * @return the game
+     * @throws ResourceNotFoundException if the game is not found
+     */
+    public Game findGame(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST, "Title cannot be empty");
+        }
+
+        String stored = findStoredTitle(title);
+        if (stored == null) {
+            throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
+                    "Game with title '" + title + "' not found");
+        }
+        return entityManager.getReference(Game.class, stored);
+    }
+
+    /**
+     * Returns the title a game is stored under, for queries on the tables that
+     * refer to games by title.
      *
-     * @return a list of all GameResponseDto objects
+     * @param title the title as given by a client
+     * @return the stored title of the game with the same title key, or the
+     *         title as given when there is no such game
+     */
+    @Transactional(readOnly = true)
+    public String resolveTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            return title;
+        }
+        String stored = findStoredTitle(title);
+        return stored == null ? title : stored;
+    }
+
+    /**
+     * Returns the stored title with the same title key, or null when there is no such game.
+     */
+    private String findStoredTitle(String title) {
+        String key = Game.toTitleKey(title);
+        String stored = titleCache.get(key);
+        if (stored == null) {
+            Game game = gameRepository.findGameByTitleKey(key);
+            if (game == null) {
+                return null;
+            }
+            stored = game.getTitle();
+            titleCache.put(key, stored);
+        }
+        return stored;
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the title lookup cache.
+     *
+     * @return a snapshot of the cache counters
+     */
+    public CacheStats getGameCacheStats() {
+        return titleCache.stats();
+    }
+
+    /**
+     * Whether a title has the key of a catalog route, and so cannot be a game title.
+     *
+     * @param title the title as given
+     * @return true if no game may be created with this title
+     */
+    public static boolean isReservedTitle(String title) {
+        return RESERVED_TITLE_KEYS.contains(Game.toTitleKey(title));
+    }
+
+    /**
+     * Drops a title from the cache now and again once the surrounding transaction
+     * ends, so a concurrent reader cannot re-cache the row as it was before the write.
+     */
+    private void evictGame(String title) {
+        String key = Game.toTitleKey(title);
+        titleCache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    titleCache.invalidate(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads a game from the database, bypassing the cache.
+     */
+    private Game findGameOrThrow(String title) {
+        Game game = gameRepository.findGameByTitleKey(Game.toTitleKey(title));
+        if (game == null) {
+            throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
+                    "Game with title '" + title + "' not found");
+        }
+        return game;
+    }
+
+    /**
+     * Retrieves all games, ordered by title.
+     * Kept for older clients; the result is capped at MAX_UNPAGED_GAMES,
+     * use getGamesPage to walk the full catalog.
+     *
+     * @return a list of at most MAX_UNPAGED_GAMES GameResponseDto objects
      */
     @Transactional
     public List<GameResponseDto> getAllGames() {
-        List<Game> games = (List<Game>) gameRepository.findAll();
+        List<Game> games = gameRepository.findAllByOrderByTitleAsc(Limit.of(MAX_UNPAGED_GAMES));
+        return toResponseDtos(games);
+    }
+
+    /**
+     * Retrieves one page of games ordered by title, starting after the cursor.
+     *
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param size the requested page size, capped at MAX_PAGE_SIZE
+     * @return the page of games and the cursor of the next page
+     * @throws BoardGameException if the size or the cursor is invalid
+     */
+    @Transactional
+    public GamePageDto getGamesPage(String cursor, int size) {
+        if (size <= 0) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+
+        // Fetch one extra row to know whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<Game> games = (cursor == null || cursor.isEmpty())
+                ? gameRepository.findAllByOrderByTitleAsc(limit)
+                : gameRepository.findByTitleGreaterThanOrderByTitleAsc(decodeCursor(cursor), limit);
+
+        String nextCursor = null;
+        if (games.size() > pageSize) {
+            games = games.subList(0, pageSize);
+            nextCursor = encodeCursor(games.get(pageSize - 1).getTitle());
+        }
+        return new GamePageDto(toResponseDtos(games), nextCursor);
+    }
+
+    /**
+     * Retrieves the rating of a game from its running totals.
+     *
+     * @param title the title the game is stored under
+     * @return the review count, rating sum, average and histogram of the game
+     */
+    @Transactional(readOnly = true)
+    public GameRatingDto getRating(String title) {
+        return gameRatingRepository.findById(title).map(GameRatingDto::new).orElseGet(() -> new GameRatingDto(title));
+    }
+
+    /**
+     * Retrieves the ratings of many games, for catalog pages. The titles are
+     * matched by title key with one query and the ratings read with another.
+     * A title without reviews, or without a game, gets an empty rating.
+     *
+     * @param titles the titles of the games, at most MAX_PAGE_SIZE distinct title keys
+     * @return one rating per distinct title key, in the order the titles were given,
+     *         under the stored title of each game found
+     * @throws BoardGameException if no title or too many titles are given
+     */
+    @Transactional(readOnly = true)
+    public List<GameRatingDto> getRatings(List<String> titles) {
+        if (titles == null || titles.isEmpty()) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST, "At least one title is required");
+        }
+        // The first spelling of each key is the one reported for a game that is not found
+        Map<String, String> byKey = new LinkedHashMap<>();
+        for (String title : titles) {
+            if (title != null) {
+                byKey.putIfAbsent(Game.toTitleKey(title), title);
+            }
+        }
+        if (byKey.size() > MAX_PAGE_SIZE) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_PAGE_SIZE + " ratings can be read at once");
+        }
+        Map<String, String> stored = new HashMap<>();
+        for (Game game : gameRepository.findAllByTitleKeyIn(byKey.keySet())) {
+            stored.put(game.getTitleKey(), game.getTitle());
+        }
+        Map<String, GameRatingDto> ratings = stored.isEmpty() ? new HashMap<>() : findRatings(stored.values());
+        return byKey.entrySet().stream()
+                .map(entry -> stored.getOrDefault(entry.getKey(), entry.getValue()))
+                .map(title -> ratings.getOrDefault(title, new GameRatingDto(title)))
+                .collect(Collectors.toList());
+    }
+
+    // Pairs each game with its rating, reading every rating of the list in one query
+    private List<GameResponseDto> toResponseDtos(List<Game> games) {
+        if (games.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> titles = games.stream().map(Game::getTitle).collect(Collectors.toList());
+        Map<String, GameRatingDto> ratings = findRatings(titles);
         return games.stream()
-                .map(GameResponseDto::new)
+                .map(game -> new GameResponseDto(game,
+                        ratings.getOrDefault(game.getTitle(), new GameRatingDto(game.getTitle()))))
                 .collect(Collectors.toList());
     }
 
+    private Map<String, GameRatingDto> findRatings(Collection<String> titles) {
+        Map<String, GameRatingDto> ratings = new HashMap<>();
+        for (GameRating rating : gameRatingRepository.findAllByGameTitleIn(titles)) {
+            ratings.put(rating.getGameTitle(), new GameRatingDto(rating));
+        }
+        return ratings;
+    }
+
+    private static String encodeCursor(String title) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(title.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST, "Invalid page cursor");
+        }
+    }
+
     /**
      * Creates a new game.
      *
      * @param gameRequestDto the details of the game to be created
      * @return the created Game object
-     * @throws BoardGameException if a game with the same title already exists
+     * @throws BoardGameException if the title is reserved or a game with the same
+     *                            title key already exists
      */
     @Transactional
     public Game createGame(@Valid GameRequestDto gameRequestDto) {
         if (gameRequestDto.getTitle() == null || gameRequestDto.getTitle().trim().isEmpty()) {
             throw new BoardGameException(HttpStatus.BAD_REQUEST, "Title cannot be empty");
         }
+        if (isReservedTitle(gameRequestDto.getTitle())) {
+            throw new BoardGameException(HttpStatus.BAD_REQUEST,
+                    "Title '" + gameRequestDto.getTitle() + "' is reserved by the catalog");
+        }
 
-        if (gameRepository.findGameByTitle(gameRequestDto.getTitle()) != null) {
+        Game existing = gameRepository.findGameByTitleKey(Game.toTitleKey(gameRequestDto.getTitle()));
+        if (existing != null) {
+            String as = existing.getTitle().equals(gameRequestDto.getTitle()) ? ""
+                    : " as '" + existing.getTitle() + "'";
             throw new BoardGameException(HttpStatus.CONFLICT,
-                    "Game with title '" + gameRequestDto.getTitle() + "' already exists");
+                    "Game with title '" + gameRequestDto.getTitle() + "' already exists" + as);
         }
 
         Game game = new Game(
@@ -89,7 +363,11 @@ public class GameService {
                 gameRequestDto.getCategory()
         );
 
-        return gameRepository.save(game);
+        Game savedGame = gameRepository.save(game);
+        evictGame(savedGame.getTitle());
+        gameSearchService.index(savedGame.getTitle(), savedGame.getDescription(), savedGame.getCategory());
+        gameBrowseService.index(savedGame.getTitle(), savedGame.getCategory());
+        return savedGame;
     }
 
 
@@ -107,7 +385,7 @@ public class GameService {
             throw new BoardGameException(HttpStatus.BAD_REQUEST, "Title cannot be empty");
         }
 
-        Game game = getGameByTitle(title);
+        Game game = findGameOrThrow(title);
 
         game.setDescription(gameRequestDto.getDescription());
 
@@ -120,7 +398,11 @@ public class GameService {
                     "Failed to update game category: " + e.getMessage());
         }
 
-        return gameRepository.save(game);
+        Game savedGame = gameRepository.save(game);
+        evictGame(title);
+        gameSearchService.index(savedGame.getTitle(), savedGame.getDescription(), savedGame.getCategory());
+        gameBrowseService.index(savedGame.getTitle(), savedGame.getCategory());
+        return savedGame;
     }
 
 
@@ -136,7 +418,10 @@ public class GameService {
             throw new BoardGameException(HttpStatus.BAD_REQUEST, "Title cannot be empty");
         }
 
-        Game game = getGameByTitle(title);
+        Game game = findGameOrThrow(title);
         gameRepository.delete(game);
+        evictGame(game.getTitle());
+        gameSearchService.remove(game.getTitle());
+        gameBrowseService.remove(game.getTitle());
     }
 }
@@ -0,0 +1,86 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads text one character at a time, with "\r\n" and a lone '\r' read as
+ * '\n', and lines of bounded length. A line longer than the bound is skipped
+ * as it is read, so no more than the bound is ever held in memory, whatever
+ * the input holds.
+ */
+class LineReader {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+    private boolean tooLong;
+
+    LineReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the next character, or -1 at the end of the input.
+     */
+    int read() throws IOException {
+        int c = next();
+        if (skipLineFeed) {
+            skipLineFeed = false;
+            if (c == '\n') {
+                c = next();
+            }
+        }
+        if (c == '\r') {
+            skipLineFeed = true;
+            return '\n';
+        }
+        return c;
+    }
+
+    /**
+     * Returns the next line without its line break, or null at the end of the
+     * input. A line longer than maxChars is skipped to its end and returned
+     * empty; wasTooLong() then tells it apart from an empty line.
+     */
+    String readLine(int maxChars) throws IOException {
+        tooLong = false;
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (c != -1 && c != '\n') {
+            if (line.length() == maxChars) {
+                tooLong = true;
+                line.setLength(0);
+            }
+            if (!tooLong) {
+                line.append((char) c);
+            }
+            c = read();
+        }
+        return line.toString();
+    }
+
+    /**
+     * Whether the last line returned by readLine() was longer than allowed.
+     */
+    boolean wasTooLong() {
+        return tooLong;
+    }
+
+    private int next() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
@@ -0,0 +1,102 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * An in-memory index kept current by the services that write what it holds,
+ * and rebuilt from the database without stopping those writes.
+ * Every change is applied once the transaction that made it commits, so a
+ * rolled back write never shows. A rebuild fills a new index while the
+ * current one keeps answering; changes committed meanwhile go to the current
+ * index and are replayed on the new one before it is swapped in.
+ * A change must therefore set a state rather than adjust one, so that
+ * replaying it on an index that already read its effect changes nothing.
+ *
+ * @param <I> the type of the index
+ */
+final class LiveIndex<I> {
+
+    private volatile I current;
+    // Changes applied since the running rebuild started, or null when none runs
+    private List<Consumer<I>> sinceRebuild;
+
+    LiveIndex(I index) {
+        this.current = index;
+    }
+
+    /**
+     * Returns the index to read from.
+     */
+    I get() {
+        return current;
+    }
+
+    /**
+     * Applies a change once the current transaction commits; without a
+     * transaction it is applied at once. Changes are applied one at a time.
+     */
+    void update(Consumer<I> change) {
+        afterCommit(() -> apply(change));
+    }
+
+    private synchronized void apply(Consumer<I> change) {
+        change.accept(current);
+        if (sinceRebuild != null) {
+            sinceRebuild.add(change);
+        }
+    }
+
+    /**
+     * Builds a new index, replays on it the changes applied while it was built,
+     * then swaps it in. If the build fails the current index is kept.
+     *
+     * @param build reads everything the index holds into a new index
+     * @return the new index
+     */
+    I rebuild(Supplier<I> build) {
+        synchronized (this) {
+            if (sinceRebuild != null) {
+                throw new IllegalStateException("The index is already being rebuilt");
+            }
+            sinceRebuild = new ArrayList<>();
+        }
+        I fresh = null;
+        try {
+            fresh = build.get();
+        } finally {
+            synchronized (this) {
+                if (fresh != null) {
+                    for (Consumer<I> change : sinceRebuild) {
+                        change.accept(fresh);
+                    }
+                    current = fresh;
+                }
+                sinceRebuild = null;
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Runs an action once the current transaction commits, or at once when
+     * there is no transaction.
+     */
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
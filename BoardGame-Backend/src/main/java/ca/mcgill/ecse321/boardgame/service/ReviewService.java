@@ -3,9 +3,14 @@ package ca.mcgill.ecse321.boardgame.service;
 import java.sql.Date;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -13,11 +18,12 @@ import ca.mcgill.ecse321.boardgame.dto.ReviewCreationDto;
 import ca.mcgill.ecse321.boardgame.dto.ReviewResponseDto;
 import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
 import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameRating;
 import ca.mcgill.ecse321.boardgame.model.Review;
 import ca.mcgill.ecse321.boardgame.model.Review.ReviewKey;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import ca.mcgill.ecse321.boardgame.repo.GameRatingRepository;
 import ca.mcgill.ecse321.boardgame.repo.ReviewRepository;
-import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
 
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -28,6 +34,8 @@ import jakarta.validation.Valid;
 @Service
 public class ReviewService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReviewService.class);
+
     @Autowired
     private ReviewRepository reviewRepository;
 
@@ -35,10 +43,32 @@ public class ReviewService {
     private GameService gameService;
 
     @Autowired
-    private UserAccountRepository userAccountRepository;
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private GameRatingRepository gameRatingRepository;
+
+    @Autowired
+    private GameSearchService gameSearchService;
+
+    /**
+     * Rebuilds every game's rating totals from the review rows at startup, so
+     * reviews written around the totals, such as those saved before they
+     * existed or by seed data, are counted. It runs before the search index is
+     * built, since that ranks titles by these totals.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void syncRatings() {
+        int dropped = gameRatingRepository.deleteUnreviewed();
+        int synced = gameRatingRepository.syncAll();
+        logger.info("Synced the rating totals of {} games, dropped {} without reviews", synced, dropped);
+    }
 
     /**
-     * Creates a new review.
+     * Creates a new review, or replaces the reviewer's earlier review of the game.
+     * The game's rating totals are updated in the same transaction.
      *
      * @param reviewCreationDto the details of the review to be created
      * @return the created Review
@@ -46,16 +76,25 @@ public class ReviewService {
     @Transactional
     public Review createReview(@Valid ReviewCreationDto reviewCreationDto) {
 
+        Integer rating = reviewCreationDto.getRating();
+        if (rating == null) {
+            throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST, "Rating is required");
+        }
+        if (rating < GameRating.MIN_RATING || rating > GameRating.MAX_RATING) {
+            throw new ResourceNotFoundException(HttpStatus.BAD_REQUEST,
+                    "Rating must be between " + GameRating.MIN_RATING + " and " + GameRating.MAX_RATING);
+        }
+
         String gameTitle = reviewCreationDto.getReviewKey().getGameTitle();
         Long reviewerId = reviewCreationDto.getReviewKey().getReviewerId();
 
-        UserAccount reviewer = userAccountRepository.findUserAccountByUserAccountID(reviewerId);
+        UserAccount reviewer = userIdentityService.findUserAccount(reviewerId);
         if (reviewer == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
                     "UserAccount with ID " + reviewerId + " not found");
         }
 
-        Game game = gameService.getGameByTitle(gameTitle);
+        Game game = gameService.findGame(gameTitle);
         if (game == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
                     "Game with title " + gameTitle + " not found");
@@ -63,10 +102,20 @@ public class ReviewService {
 
         ReviewKey reviewKey = new ReviewKey(reviewer, game);
 
+        // Saving over an earlier review replaces it, so its rating leaves the totals first
+        Review previous = reviewRepository.findReviewByReviewKey(reviewKey);
+        if (previous != null) {
+            gameRatingRepository.removeRating(game.getTitle(), previous.getRating());
+        }
+
         Date currentDate = new Date(System.currentTimeMillis());
-        Review review = new Review(reviewKey, reviewCreationDto.getRating(), reviewCreationDto.getComment(),
-                currentDate);
-        return reviewRepository.save(review);
+        Review review = new Review(reviewKey, rating, reviewCreationDto.getComment(), currentDate);
+        Review savedReview = reviewRepository.save(review);
+        gameRatingRepository.addRating(game.getTitle(), rating);
+        if (previous == null) {
+            gameSearchService.reviewCountChanged(game.getTitle(), reviewCount(game.getTitle()));
+        }
+        return savedReview;
     }
 
     /**
@@ -78,10 +127,7 @@ public class ReviewService {
     @Transactional
     public List<ReviewResponseDto> getReviewsByUserId(long reviewerId) {
 
-        List<Review> reviews = StreamSupport
-                .stream(reviewRepository.findAll().spliterator(), false)
-                .filter(review -> review.getReviewKey().getReviewer().getUserAccountID() == reviewerId)
-                .collect(Collectors.toList());
+        List<Review> reviews = reviewRepository.findAllByReviewKeyReviewerUserAccountID(reviewerId);
         if (reviews.isEmpty()) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
                     "No reviews found for user with ID " + reviewerId);
@@ -98,10 +144,8 @@ public class ReviewService {
     @Transactional
     public List<ReviewResponseDto> getReviewsByGameTitle(String gameTitle) {
 
-        List<Review> reviews = StreamSupport
-                .stream(reviewRepository.findAll().spliterator(), false)
-                .filter(review -> review.getReviewKey().getGameToReview().getTitle().equals(gameTitle))
-                .collect(Collectors.toList());
+        List<Review> reviews = reviewRepository.findAllByReviewKeyGameToReviewTitle(
+                gameService.resolveTitle(gameTitle));
         if (reviews.isEmpty()) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
                     "No reviews found for game with title " + gameTitle);
@@ -110,7 +154,8 @@ public class ReviewService {
     }
 
     /**
-     * Deletes a review given the reviewer ID and game title.
+     * Deletes a review given the reviewer ID and game title, and takes its
+     * rating out of the game's totals in the same transaction.
      *
      * @param gameTitle  the title of the game being reviewed
      * @param reviewerId the ID of the reviewer
@@ -119,6 +164,15 @@ public class ReviewService {
     public void deleteReview(String gameTitle, long reviewerId) {
         Review review = getReviewByKey(reviewerId, gameTitle);
         reviewRepository.delete(review);
+        String title = review.getReviewKey().getGameToReview().getTitle();
+        gameRatingRepository.removeRating(title, review.getRating());
+        gameRatingRepository.deleteIfEmpty(title);
+        gameSearchService.reviewCountChanged(title, reviewCount(title));
+    }
+
+    // Read after this transaction's own update, which holds the game's totals row until it commits
+    private long reviewCount(String gameTitle) {
+        return gameRatingRepository.findReviewCount(gameTitle).orElse(0L);
     }
 
     /**
@@ -143,13 +197,13 @@ public class ReviewService {
      */
     private Review getReviewByKey(long reviewerId, String gameTitle) {
 
-        UserAccount reviewer = userAccountRepository.findUserAccountByUserAccountID(reviewerId);
+        UserAccount reviewer = userIdentityService.findUserAccount(reviewerId);
         if (reviewer == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
                     "UserAccount with ID " + reviewerId + " not found");
         }
 
-        Game game = gameService.getGameByTitle(gameTitle);
+        Game game = gameService.findGame(gameTitle);
         if (game == null) {
             throw new ResourceNotFoundException(HttpStatus.NOT_FOUND,
                     "Game with title " + gameTitle + " not found");
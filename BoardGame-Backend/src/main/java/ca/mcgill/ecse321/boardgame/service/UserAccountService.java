@@ -3,7 +3,6 @@ package ca.mcgill.ecse321.boardgame.service;
 import ca.mcgill.ecse321.boardgame.dto.UserAccountRequestDto;
 import ca.mcgill.ecse321.boardgame.exception.BoardGameException;
 import ca.mcgill.ecse321.boardgame.model.AccountType;
-import ca.mcgill.ecse321.boardgame.model.GameCopy;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
 import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
 import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
@@ -35,6 +34,9 @@ public class UserAccountService {
     @Autowired
     private GameCopyRepository gameCopyRepo;
 
+    @Autowired
+    private UserIdentityService userIdentityService;
+
     /**
      * Return all the user accounts in the database
      *
@@ -106,6 +108,7 @@ public class UserAccountService {
             field.setAccessible(true);
             ReflectionUtils.setField(field,userAccount,value);
         });
+        userIdentityService.invalidate(userAccountID);
         return userAccountRepo.save(userAccount);
     }
 
@@ -132,14 +135,13 @@ public class UserAccountService {
         }
         // When a game owner tries to become a player, he must already deleted all the game copies he owned
         if (u.getAccountType().equals(AccountType.GAMEOWNER) && userAccount.getAccountType().equals(AccountType.PLAYER)){
-            Iterable<GameCopy> gameCopies = gameCopyRepo.findAll();
-            for (GameCopy gameCopy : gameCopies){
-                if (gameCopy.getGameCopyKey().getOwner().getUserAccountID() == userAccountID){
-                    throw new BoardGameException(HttpStatus.FORBIDDEN,"game owner need to delete all his game copies before become player");
-                }
+            if (gameCopyRepo.existsByGameCopyKeyOwnerUserAccountID(userAccountID)){
+                throw new BoardGameException(HttpStatus.FORBIDDEN,"game owner need to delete all his game copies before become player");
             }
         }
         u.setAccountType(userAccount.getAccountType());
+        // Name, email and account type are cached for authorization checks
+        userIdentityService.invalidate(userAccountID);
         return userAccountRepo.save(u);
     }
 
@@ -156,6 +158,7 @@ public class UserAccountService {
             throw new BoardGameException(HttpStatus.NOT_FOUND,"no userAccount has userAccountID " + userAccountID + ".");
         }
         userAccountRepo.delete(userAccount);
+        userIdentityService.invalidate(userAccountID);
     }
 
     /**
@@ -0,0 +1,98 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import ca.mcgill.ecse321.boardgame.cache.BoundedCache;
+import ca.mcgill.ecse321.boardgame.cache.CacheStats;
+import ca.mcgill.ecse321.boardgame.cache.UserIdentity;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers "does this user exist, and what kind of account is it" without a
+ * query per call. Services use it for existence and authorization checks and
+ * get an unloaded reference when they only need the account as an association.
+ * UserAccountService invalidates entries whenever an account changes.
+ */
+@Service
+public class UserIdentityService {
+
+    public static final int IDENTITY_CACHE_SIZE = 10_000;
+    public static final long IDENTITY_CACHE_TTL_MINUTES = 10;
+
+    @Autowired
+    private UserAccountRepository userAccountRepo;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final BoundedCache<Long, UserIdentity> identityCache =
+            new BoundedCache<>(IDENTITY_CACHE_SIZE, IDENTITY_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+
+    /**
+     * Returns the identity of a user account, loading it on a cache miss.
+     *
+     * @param userAccountID the id of the user account
+     * @return the identity, or null if no such account exists
+     */
+    public UserIdentity findIdentity(long userAccountID) {
+        UserIdentity identity = identityCache.get(userAccountID);
+        if (identity == null) {
+            UserAccount userAccount = userAccountRepo.findUserAccountByUserAccountID(userAccountID);
+            if (userAccount == null) {
+                return null;
+            }
+            identity = new UserIdentity(userAccount);
+            identityCache.put(userAccountID, identity);
+        }
+        return identity;
+    }
+
+    /**
+     * Returns a user account to use as an association once its existence is known.
+     * The account is an unloaded reference; reading anything but its id loads it.
+     *
+     * @param userAccountID the id of the user account
+     * @return the user account, or null if no such account exists
+     */
+    public UserAccount findUserAccount(long userAccountID) {
+        if (findIdentity(userAccountID) == null) {
+            return null;
+        }
+        return entityManager.getReference(UserAccount.class, userAccountID);
+    }
+
+    /**
+     * Drops the cached identity of a user account. The entry is dropped again when
+     * the surrounding transaction completes so a concurrent read cannot put back
+     * the old values before the change is committed.
+     *
+     * @param userAccountID the id of the changed user account
+     */
+    public void invalidate(long userAccountID) {
+        identityCache.invalidate(userAccountID);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    identityCache.invalidate(userAccountID);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the identity cache.
+     *
+     * @return a snapshot of the cache counters
+     */
+    public CacheStats getStats() {
+        return identityCache.stats();
+    }
+}
@@ -0,0 +1,69 @@
+package ca.mcgill.ecse321.boardgame.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class BoundedCacheTests {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void testHitAndMiss() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 1, TimeUnit.MINUTES, now::get);
+
+        assertNull(cache.get("Chess"));
+        cache.put("Chess", "A strategic board game.");
+        assertEquals("A strategic board game.", cache.get("Chess"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0, stats.getEvictions());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvictedWhenFull() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2, 1, TimeUnit.MINUTES, now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(2, cache.stats().getSize());
+    }
+
+    @Test
+    public void testExpiredEntryIsEvicted() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 1, TimeUnit.MINUTES, now::get);
+        cache.put("a", 1);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    public void testInvalidate() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 1, TimeUnit.MINUTES, now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.get("b"));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.stats().getSize());
+    }
+}
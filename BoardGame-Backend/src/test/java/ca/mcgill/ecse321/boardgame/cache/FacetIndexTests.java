@@ -0,0 +1,104 @@
+package ca.mcgill.ecse321.boardgame.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class FacetIndexTests {
+
+    @Test
+    public void testFilterAndFacetCounts() {
+        FacetIndex index = catalog();
+
+        FacetIndex.Result all = index.query(List.of(), false, null, 10);
+        assertEquals(5, all.getTotal());
+        assertEquals(Map.of("Family", 2, "Strategy", 2), all.getCategoryCounts());
+        assertEquals(2, all.getAvailableCount());
+        assertEquals(List.of("Azul", "Catan", "Chess", "Ticket to Ride", "Uno"), titles(all));
+
+        FacetIndex.Result strategy = index.query(List.of("Strategy"), false, null, 10);
+        assertEquals(List.of("Catan", "Chess"), titles(strategy));
+        assertEquals(1, strategy.getAvailableCount());
+        // Category counts ignore the chosen categories, so the other choices stay visible
+        assertEquals(Map.of("Family", 2, "Strategy", 2), strategy.getCategoryCounts());
+
+        FacetIndex.Result available = index.query(List.of("Strategy", "Family", "Unknown"), true, null, 10);
+        assertEquals(List.of("Catan", "Ticket to Ride"), titles(available));
+        assertEquals(Map.of("Family", 1, "Strategy", 1), available.getCategoryCounts());
+        assertEquals(3, available.getItems().get(0).getAvailableCopies());
+    }
+
+    @Test
+    public void testUpdatesMoveBits() {
+        FacetIndex index = catalog();
+        index.put("Chess", "Classic");
+        index.addAvailableCopies("Catan", -3);
+        index.addAvailableCopies("Uno", 1);
+        index.addAvailableCopies("Missing", 1);
+        index.remove("Ticket to Ride");
+        index.put("Azul", "Family");
+
+        FacetIndex.Result result = index.query(null, false, null, 10);
+        assertEquals(4, result.getTotal());
+        assertEquals(Map.of("Classic", 1, "Family", 2, "Strategy", 1), result.getCategoryCounts());
+        assertEquals(List.of("Uno"), titles(index.query(null, true, null, 10)));
+
+        // The freed ordinal is reused without the old bits
+        index.put("Carcassonne", "Family");
+        assertEquals(List.of("Azul", "Carcassonne", "Uno"), titles(index.query(List.of("Family"), false, null, 10)));
+        assertEquals(List.of("Uno"), titles(index.query(List.of("Family"), true, null, 10)));
+    }
+
+    @Test
+    public void testSetAvailableCopies() {
+        FacetIndex index = catalog();
+        index.setAvailableCopies("Uno", 2);
+        index.setAvailableCopies("Catan", 0);
+        index.setAvailableCopies("Missing", 1);
+
+        FacetIndex.Result available = index.query(null, true, null, 10);
+        assertEquals(List.of("Ticket to Ride", "Uno"), titles(available));
+        assertEquals(2, available.getItems().get(1).getAvailableCopies());
+    }
+
+    @Test
+    public void testPagesFollowTitleOrder() {
+        FacetIndex index = new FacetIndex();
+        // Added out of order, so ordinals do not follow titles
+        for (int i = 99; i >= 0; i--) {
+            index.put(String.format("Game %02d", i), i % 10 == 0 ? "Rare" : "Common");
+        }
+
+        for (List<String> categories : List.of(List.of("Rare"), List.of("Common"), List.<String>of())) {
+            FacetIndex.Result first = index.query(categories, false, null, 3);
+            assertTrue(first.hasMore());
+            String last = first.getItems().get(2).getTitle();
+            FacetIndex.Result second = index.query(categories, false, last, 3);
+            List<String> expected = index.query(categories, false, null, 6).getItems().stream()
+                    .map(FacetIndex.Item::getTitle).collect(Collectors.toList());
+            assertEquals(expected.subList(3, 6), titles(second));
+        }
+        assertEquals(List.of("Game 00", "Game 10"), titles(index.query(List.of("Rare"), false, null, 2)));
+        assertFalse(index.query(List.of("Rare"), false, "Game 80", 5).hasMore());
+    }
+
+    private static FacetIndex catalog() {
+        FacetIndex index = new FacetIndex();
+        index.put("Chess", "Strategy");
+        index.put("Catan", " Strategy ");
+        index.put("Ticket to Ride", "Family");
+        index.put("Uno", "Family");
+        index.put("Azul", null);
+        index.addAvailableCopies("Catan", 3);
+        index.addAvailableCopies("Ticket to Ride", 1);
+        return index;
+    }
+
+    private static List<String> titles(FacetIndex.Result result) {
+        return result.getItems().stream().map(FacetIndex.Item::getTitle).collect(Collectors.toList());
+    }
+}
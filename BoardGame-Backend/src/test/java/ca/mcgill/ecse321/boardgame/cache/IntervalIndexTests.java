@@ -0,0 +1,82 @@
+package ca.mcgill.ecse321.boardgame.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class IntervalIndexTests {
+
+    @Test
+    public void testEmptyIndexOverlapsNothing() {
+        IntervalIndex index = IntervalIndex.builder().build();
+
+        assertEquals(0, index.size());
+        assertFalse(index.overlaps(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(IntervalIndex.NONE, index.findOverlapping(0, 10));
+    }
+
+    @Test
+    public void testBoundsAreInclusive() {
+        IntervalIndex index = IntervalIndex.builder().add(10, 20, 1).build();
+
+        assertTrue(index.contains(10));
+        assertTrue(index.contains(20));
+        assertFalse(index.contains(9));
+        assertFalse(index.contains(21));
+        assertTrue(index.overlaps(0, 10));
+        assertTrue(index.overlaps(20, 30));
+        assertTrue(index.overlaps(12, 15));
+        assertTrue(index.overlaps(0, 30));
+        assertFalse(index.overlaps(21, 30));
+    }
+
+    @Test
+    public void testLongIntervalIsFoundPastShorterOnes() {
+        // The first interval spans the later ones, so only the running max end can find it
+        IntervalIndex index = IntervalIndex.builder()
+                .add(50, 52, 3)
+                .add(0, 100, 1)
+                .add(10, 12, 2)
+                .build();
+
+        assertEquals(1, index.findOverlapping(60, 70));
+        assertEquals(IntervalIndex.NONE, index.findOverlapping(101, 200));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random random = new Random(42);
+        long[][] intervals = new long[500][];
+        IntervalIndex.Builder builder = IntervalIndex.builder();
+        for (int i = 0; i < intervals.length; i++) {
+            long start = random.nextInt(10_000);
+            long end = start + random.nextInt(30);
+            intervals[i] = new long[] { start, end };
+            builder.add(start, end, i);
+        }
+        IntervalIndex index = builder.build();
+
+        for (int q = 0; q < 2_000; q++) {
+            long from = random.nextInt(10_100);
+            long to = from + random.nextInt(20);
+            boolean expected = false;
+            for (long[] interval : intervals) {
+                expected |= interval[0] <= to && interval[1] >= from;
+            }
+            long found = index.findOverlapping(from, to);
+            assertEquals(expected, found != IntervalIndex.NONE);
+            if (expected) {
+                long[] interval = intervals[(int) found];
+                assertTrue(interval[0] <= to && interval[1] >= from);
+            }
+        }
+    }
+
+    @Test
+    public void testInvertedIntervalIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> IntervalIndex.builder().add(5, 4, 1));
+    }
+}
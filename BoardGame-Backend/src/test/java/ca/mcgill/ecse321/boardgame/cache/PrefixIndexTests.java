@@ -0,0 +1,92 @@
+package ca.mcgill.ecse321.boardgame.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class PrefixIndexTests {
+
+    @Test
+    public void testPrefixIgnoresCaseAccentsAndPunctuation() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("Ticket to Ride");
+        index.add("Ticket to Ride: Europe");
+        index.add("Pokémon TCG");
+        index.add("Azul");
+
+        assertEquals(List.of("Ticket to Ride", "Ticket to Ride: Europe"), index.complete("ticket-to", 10));
+        assertEquals(List.of("Ticket to Ride: Europe"), index.complete("TICKET TO RIDE EU", 10));
+        assertEquals(List.of("Pokémon TCG"), index.complete("poke", 10));
+        assertTrue(index.complete("!!", 10).isEmpty());
+        assertTrue(index.complete("zz", 10).isEmpty());
+    }
+
+    @Test
+    public void testMostPopularFirst() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("Catan");
+        index.add("Carcassonne");
+        index.add("Cascadia");
+        index.add("Camel Up");
+        index.setPopularity("Cascadia", 5);
+        index.setPopularity("Catan", 9);
+        index.setPopularity("Camel Up", 5);
+
+        // Equal popularity falls back to title order
+        assertEquals(List.of("Catan", "Camel Up", "Cascadia"), index.complete("ca", 3));
+        index.setPopularity("Catan", 0);
+        assertEquals(List.of("Camel Up", "Cascadia", "Carcassonne", "Catan"), index.complete("ca", 10));
+    }
+
+    @Test
+    public void testAddKeepsPopularityAndRemoveDrops() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("Chess");
+        index.setPopularity("Chess", 4);
+        index.add("Chess");
+        index.add("CHESS");
+
+        assertEquals(2, index.size());
+        assertEquals(List.of("Chess", "CHESS"), index.complete("ch", 10));
+
+        long before = index.memoryBytes();
+        index.remove("Chess");
+        index.remove("Missing");
+        assertEquals(List.of("CHESS"), index.complete("ch", 10));
+        assertTrue(index.memoryBytes() < before);
+    }
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random random = new Random(7);
+        PrefixIndex index = new PrefixIndex();
+        List<String> titles = new ArrayList<>();
+        List<Long> popularity = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String title = (char) ('a' + random.nextInt(4)) + "" + (char) ('a' + random.nextInt(4)) + " game " + i;
+            long score = random.nextInt(50);
+            index.add(title);
+            index.setPopularity(title, score);
+            titles.add(title);
+            popularity.add(score);
+        }
+
+        for (String prefix : List.of("a", "ab", "dd game 1", "c")) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < titles.size(); i++) {
+                if (titles.get(i).startsWith(prefix)) {
+                    expected.add(i);
+                }
+            }
+            expected.sort(Comparator.<Integer>comparingLong(i -> -popularity.get(i)).thenComparing(titles::get));
+            List<String> top = expected.stream().limit(15).map(titles::get).collect(Collectors.toList());
+            assertEquals(top, index.complete(prefix, 15), prefix);
+        }
+    }
+}
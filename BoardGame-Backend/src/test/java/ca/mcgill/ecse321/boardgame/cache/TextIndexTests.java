@@ -0,0 +1,100 @@
+package ca.mcgill.ecse321.boardgame.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class TextIndexTests {
+
+    @Test
+    public void testTokenizeFoldsCaseAndAccents() {
+        assertEquals(List.of("les", "aventuriers", "du", "rail", "2"),
+                TextIndex.tokenize("Les Aventuriers du Rail: 2"));
+        assertEquals(List.of("pokemon", "tcg"), TextIndex.tokenize("  Pokémon-TCG!"));
+        assertTrue(TextIndex.tokenize(null).isEmpty());
+        assertTrue(TextIndex.tokenize("--").isEmpty());
+    }
+
+    @Test
+    public void testTitleWeighsMoreThanDescription() {
+        TextIndex<String> index = new TextIndex<>(3f, 1f);
+        index.put("Chess", "Chess", "Chess", "A classic");
+        index.put("Checkers", "Checkers", "Checkers", "Simpler than chess");
+        index.put("Catan", "Catan", "Catan", "Trading");
+
+        assertEquals(List.of("Chess", "Checkers"), values(index.search("chess", 10)));
+        assertEquals(List.of("Chess"), values(index.search("CHESS", 1)));
+    }
+
+    @Test
+    public void testPrefixMatchesLongerWords() {
+        TextIndex<String> index = new TextIndex<>(1f);
+        index.put("Catan", "Catan", "Catan");
+        index.put("Cat", "Cat", "Cat");
+        index.put("Azul", "Azul", "Azul");
+
+        // The whole word ranks above the words it starts
+        assertEquals(List.of("Cat", "Catan"), values(index.search("cat", 10)));
+        assertEquals(List.of("Catan"), values(index.search("cata", 10)));
+        // A single letter only matches itself
+        assertTrue(index.search("c", 10).isEmpty());
+    }
+
+    @Test
+    public void testPutReplacesAndRemoveDrops() {
+        TextIndex<String> index = new TextIndex<>(1f);
+        index.put("Chess", "v1", "Chess");
+        index.put("Chess", "v2", "Chess", "ignored without a weight");
+
+        assertEquals(1, index.size());
+        assertEquals(List.of("v2"), values(index.search("chess", 10)));
+
+        index.remove("Chess");
+        index.remove("Missing");
+        assertEquals(0, index.size());
+        assertEquals(0, index.termCount());
+        assertTrue(index.search("chess", 10).isEmpty());
+    }
+
+    @Test
+    public void testCompactionKeepsResults() {
+        TextIndex<Integer> index = new TextIndex<>(1f);
+        for (int i = 0; i < 1_000; i++) {
+            index.put("game" + i, i, "Game " + i + (i % 2 == 0 ? " even" : " odd"));
+        }
+        // Enough removals to compact the postings several times over
+        for (int i = 0; i < 1_000; i += 2) {
+            index.remove("game" + i);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            index.put("game" + i, i, "Game " + i + " even");
+        }
+
+        assertEquals(550, index.size());
+        assertEquals(50, index.search("even", 100).size());
+        assertEquals(500, index.search("odd", 1_000).size());
+        assertEquals(List.of(42), values(index.search("42", 1)));
+    }
+
+    @Test
+    public void testLimitKeepsBestResults() {
+        TextIndex<String> index = new TextIndex<>(1f);
+        index.put("a", "a", "dice");
+        index.put("b", "b", "dice dice dice");
+        index.put("c", "c", "dice dice");
+
+        List<TextIndex.Hit<String>> hits = index.search("dice", 2);
+
+        assertEquals(List.of("b", "c"), values(hits));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+        assertTrue(index.search("dice", 0).isEmpty());
+        assertTrue(index.search("   ", 5).isEmpty());
+    }
+
+    private static <V> List<V> values(List<TextIndex.Hit<V>> hits) {
+        return hits.stream().map(TextIndex.Hit::getValue).collect(Collectors.toList());
+    }
+}
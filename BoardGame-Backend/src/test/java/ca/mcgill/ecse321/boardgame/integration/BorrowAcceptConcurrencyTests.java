@@ -0,0 +1,144 @@
+package ca.mcgill.ecse321.boardgame.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
+import ca.mcgill.ecse321.boardgame.model.*;
+import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
+import ca.mcgill.ecse321.boardgame.service.BorrowRequestService;
+
+/**
+ * Accepts many pending requests for the same copy in parallel and checks
+ * that its dates are granted exactly once, and that requests for other dates
+ * are still granted.
+ */
+@SpringBootTest
+public class BorrowAcceptConcurrencyTests {
+
+    private static final int REQUESTS = 32;
+
+    @Autowired
+    private BorrowRequestService borrowRequestService;
+
+    @Autowired
+    private BorrowRequestRepository borrowRequestRepo;
+
+    @Autowired
+    private GameCopyRepository gameCopyRepo;
+
+    @Autowired
+    private GameRepository gameRepo;
+
+    @Autowired
+    private UserAccountRepository userAccountRepo;
+
+    private long ownerId;
+    private GameCopy copy;
+    private List<Long> requestIds;
+
+    @BeforeEach
+    public void setup() {
+        UserAccount owner = userAccountRepo.save(
+                new UserAccount("owner", "password", "owner@mail.com", AccountType.GAMEOWNER));
+        ownerId = owner.getUserAccountID();
+        Game game = gameRepo.save(new Game("Chess", "Strategy board game", "Classic"));
+        copy = gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(owner, game), "Only copy"));
+
+        requestIds = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            UserAccount borrower = userAccountRepo.save(
+                    new UserAccount("borrower" + i, "password", "borrower" + i + "@mail.com", AccountType.PLAYER));
+            BorrowRequest request = borrowRequestRepo.save(new BorrowRequest(RequestStatus.PENDING,
+                    Date.valueOf("2025-04-01"), null, Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"),
+                    borrower, copy));
+            requestIds.add(request.getId());
+        }
+    }
+
+    @AfterEach
+    public void clean() {
+        borrowRequestRepo.deleteAll();
+        gameCopyRepo.deleteAll();
+        gameRepo.deleteAll();
+        userAccountRepo.deleteAll();
+    }
+
+    @Test
+    public void testParallelAcceptsGrantTheDatesOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(REQUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long requestId : requestIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    borrowRequestService.acceptRequest(requestId);
+                    accepted.incrementAndGet();
+                } catch (ResourceNotFoundException e) {
+                    assertEquals(HttpStatus.CONFLICT, e.getStatus());
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(1, accepted.get());
+        assertEquals(REQUESTS - 1, rejected.get());
+        long acceptedRows = 0;
+        long declinedRows = 0;
+        for (BorrowRequest request : borrowRequestRepo.findAll()) {
+            if (request.getRequestStatus() == RequestStatus.ACCEPTED) {
+                acceptedRows++;
+            } else if (request.getRequestStatus() == RequestStatus.DECLINED) {
+                declinedRows++;
+            }
+        }
+        assertEquals(1, acceptedRows);
+        // The winner declines every other request, since they all ask for the same dates
+        assertEquals(REQUESTS - 1, declinedRows);
+        // The copy is only lent when it is picked up
+        assertEquals(GameStatus.AVAILABLE, gameCopyRepo.findByOwnerIdAndGameTitleKey(ownerId, "chess").getStatus());
+    }
+
+    @Test
+    public void testAcceptsForOtherDatesSucceed() {
+        UserAccount borrower = userAccountRepo.save(
+                new UserAccount("june", "password", "june@mail.com", AccountType.PLAYER));
+        long juneId = borrowRequestRepo.save(new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"),
+                null, Date.valueOf("2025-06-01"), Date.valueOf("2025-06-10"), borrower, copy)).getId();
+
+        borrowRequestService.acceptRequest(requestIds.get(0));
+        borrowRequestService.acceptRequest(juneId);
+
+        assertEquals(RequestStatus.ACCEPTED, borrowRequestRepo.findById(requestIds.get(0)).get().getRequestStatus());
+        assertEquals(RequestStatus.ACCEPTED, borrowRequestRepo.findById(juneId).get().getRequestStatus());
+    }
+}
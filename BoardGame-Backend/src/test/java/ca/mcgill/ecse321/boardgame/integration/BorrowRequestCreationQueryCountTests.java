@@ -0,0 +1,130 @@
+package ca.mcgill.ecse321.boardgame.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ca.mcgill.ecse321.boardgame.model.AccountType;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
+import ca.mcgill.ecse321.boardgame.service.BorrowRequestService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that creating a borrow request issues the same statements and loads
+ * the same entities whether the owner has 1 copy or 50. The copy is resolved
+ * by key, so nothing may depend on the size of the owner's library. Timings
+ * are in BorrowRequestCreationBenchmark.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(Lifecycle.PER_CLASS)
+public class BorrowRequestCreationQueryCountTests {
+
+    private static final int[] LIBRARY_SIZES = { 1, 50 };
+    private static final int WARMUP = 2;
+    private static final int REQUESTS = 5;
+
+    @Autowired
+    private BorrowRequestService borrowRequestService;
+
+    @Autowired
+    private BorrowRequestRepository borrowRequestRepo;
+
+    @Autowired
+    private GameCopyRepository gameCopyRepo;
+
+    @Autowired
+    private GameRepository gameRepo;
+
+    @Autowired
+    private UserAccountRepository userAccountRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long borrowerId;
+    private final long[] ownerIds = new long[LIBRARY_SIZES.length];
+
+    @BeforeAll
+    public void setup() {
+        clean();
+        int largest = Arrays.stream(LIBRARY_SIZES).max().getAsInt();
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < largest; i++) {
+            games.add(new Game(String.format("Game %04d", i), "Description " + i, "Category"));
+        }
+        gameRepo.saveAll(games);
+
+        borrowerId = userAccountRepo.save(
+                new UserAccount("borrower", "password", "borrower@mail.com", AccountType.PLAYER)).getUserAccountID();
+        for (int s = 0; s < LIBRARY_SIZES.length; s++) {
+            UserAccount owner = userAccountRepo.save(
+                    new UserAccount("owner" + s, "password", "owner" + s + "@mail.com", AccountType.GAMEOWNER));
+            List<GameCopy> copies = new ArrayList<>();
+            for (int i = 0; i < LIBRARY_SIZES[s]; i++) {
+                copies.add(new GameCopy(new GameCopy.GameCopyKey(owner, games.get(i)), "Copy " + i));
+            }
+            gameCopyRepo.saveAll(copies);
+            ownerIds[s] = owner.getUserAccountID();
+        }
+    }
+
+    @AfterAll
+    public void clean() {
+        borrowRequestRepo.deleteAll();
+        gameCopyRepo.deleteAll();
+        gameRepo.deleteAll();
+        userAccountRepo.deleteAll();
+    }
+
+    @Test
+    public void testCreationCostDoesNotGrowWithLibrarySize() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long[] statements = new long[LIBRARY_SIZES.length];
+        long[] entitiesLoaded = new long[LIBRARY_SIZES.length];
+
+        for (int s = 0; s < LIBRARY_SIZES.length; s++) {
+            // The owner's last copy is the worst case for a scan of the library
+            String title = String.format("Game %04d", LIBRARY_SIZES[s] - 1);
+            // Fills the caches, so both sizes are counted in the same state
+            for (int i = 0; i < WARMUP; i++) {
+                create(ownerIds[s], title);
+            }
+
+            statistics.clear();
+            for (int i = 0; i < REQUESTS; i++) {
+                create(ownerIds[s], title);
+            }
+            statements[s] = statistics.getPrepareStatementCount();
+            entitiesLoaded[s] = statistics.getEntityLoadCount();
+        }
+
+        for (int s = 1; s < LIBRARY_SIZES.length; s++) {
+            assertEquals(statements[0], statements[s]);
+            assertEquals(entitiesLoaded[0], entitiesLoaded[s]);
+        }
+    }
+
+    private void create(long ownerId, String title) {
+        borrowRequestService.createBorrowRequest(borrowerId, ownerId, title,
+                Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"));
+    }
+}
@@ -0,0 +1,117 @@
+package ca.mcgill.ecse321.boardgame.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ca.mcgill.ecse321.boardgame.dto.EventRegistrationRequestDto;
+import ca.mcgill.ecse321.boardgame.exception.BoardGameException;
+import ca.mcgill.ecse321.boardgame.model.*;
+import ca.mcgill.ecse321.boardgame.repo.EventRegistrationRepository;
+import ca.mcgill.ecse321.boardgame.repo.EventRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
+import ca.mcgill.ecse321.boardgame.service.EventRegistrationService;
+
+/**
+ * Registers many clients for the same event in parallel and checks that the
+ * event is never overbooked.
+ */
+@SpringBootTest
+public class EventCapacityConcurrencyTests {
+
+    private static final int CLIENTS = 64;
+    private static final int MAX_PARTICIPANTS = 10;
+
+    @Autowired
+    private EventRegistrationService eventRegistrationService;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepo;
+
+    @Autowired
+    private EventRepository eventRepo;
+
+    @Autowired
+    private GameRepository gameRepo;
+
+    @Autowired
+    private UserAccountRepository userAccountRepo;
+
+    private Event event;
+    private List<Long> clientIds;
+
+    @BeforeEach
+    public void setup() {
+        UserAccount creator = userAccountRepo.save(
+                new UserAccount("creator", "password", "creator@mail.com", AccountType.GAMEOWNER));
+        Game game = gameRepo.save(new Game("Monopoly", "Classical", "Board Game"));
+        event = eventRepo.save(new Event(Date.valueOf(LocalDateTime.now().plusDays(1).toLocalDate()),
+                Time.valueOf(LocalDateTime.now().toLocalTime()), "Test Location", "A crowded event",
+                MAX_PARTICIPANTS, game, creator, "Crowded Event"));
+
+        clientIds = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            UserAccount client = userAccountRepo.save(
+                    new UserAccount("client" + i, "password", "client" + i + "@mail.com", AccountType.PLAYER));
+            clientIds.add(client.getUserAccountID());
+        }
+    }
+
+    @AfterEach
+    public void clean() {
+        eventRegistrationRepo.deleteAll();
+        eventRepo.deleteAll();
+        gameRepo.deleteAll();
+        userAccountRepo.deleteAll();
+    }
+
+    @Test
+    public void testParallelRegistrationsNeverOverbook() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long clientId : clientIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    eventRegistrationService.register(new EventRegistrationRequestDto(clientId, event.getEventID()));
+                    accepted.incrementAndGet();
+                } catch (BoardGameException e) {
+                    assertEquals("Event is already full.", e.getMessage());
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(MAX_PARTICIPANTS, accepted.get());
+        assertEquals(CLIENTS - MAX_PARTICIPANTS, rejected.get());
+        assertEquals(MAX_PARTICIPANTS, eventRegistrationRepo.countByEventRegistrationKeyEvent(event));
+        assertEquals(MAX_PARTICIPANTS, eventRepo.findEventByEventID(event.getEventID()).getRegisteredCount());
+    }
+}
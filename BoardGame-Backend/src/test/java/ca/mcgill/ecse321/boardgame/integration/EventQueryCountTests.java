@@ -0,0 +1,105 @@
+package ca.mcgill.ecse321.boardgame.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ca.mcgill.ecse321.boardgame.dto.EventResponseDto;
+import ca.mcgill.ecse321.boardgame.model.*;
+import ca.mcgill.ecse321.boardgame.repo.EventRegistrationRepository;
+import ca.mcgill.ecse321.boardgame.repo.EventRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
+import ca.mcgill.ecse321.boardgame.service.EventService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that listing events issues a constant number of SQL statements,
+ * whatever the number of events, games and creators involved.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class EventQueryCountTests {
+
+    private static final int EVENTS = 8;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepo;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepo;
+
+    @Autowired
+    private GameRepository gameRepo;
+
+    @Autowired
+    private UserAccountRepository userAccountRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UserAccount registrant;
+
+    @BeforeEach
+    public void setup() {
+        registrant = userAccountRepo.save(new UserAccount("player", "password", "player@mail.com", AccountType.PLAYER));
+        Date date = Date.valueOf(LocalDate.now().plusDays(7));
+        for (int i = 0; i < EVENTS; i++) {
+            UserAccount creator = userAccountRepo.save(
+                    new UserAccount("owner" + i, "password", "owner" + i + "@mail.com", AccountType.GAMEOWNER));
+            Game game = gameRepo.save(new Game("Game " + i, "Description " + i, "Category"));
+            Event event = eventRepo.save(new Event(date, Time.valueOf("18:00:00"), "Montreal", "Event " + i, 10,
+                    game, creator, "Event " + i));
+            eventRegistrationRepo.save(new EventRegistration(
+                    new EventRegistration.EventRegistrationKey(registrant, event), ParticipationStatus.PENDING));
+        }
+    }
+
+    @AfterEach
+    public void clean() {
+        eventRegistrationRepo.deleteAll();
+        eventRepo.deleteAll();
+        gameRepo.deleteAll();
+        userAccountRepo.deleteAll();
+    }
+
+    @Test
+    public void testGetAllEventsUsesOneStatement() {
+        Statistics statistics = resetStatistics();
+
+        List<EventResponseDto> events = eventService.getAllEvents();
+
+        assertEquals(EVENTS, events.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetEventsByUserRegistrationUsesTwoStatements() {
+        Statistics statistics = resetStatistics();
+
+        List<EventResponseDto> events = eventService.getEventsByUserRegistration(registrant.getUserAccountID());
+
+        // One statement for the user lookup, one for the events with their games and creators
+        assertEquals(EVENTS, events.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,166 @@
+package ca.mcgill.ecse321.boardgame.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ca.mcgill.ecse321.boardgame.dto.BorrowRequestPageDto;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyPageDto;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyResponseDto;
+import ca.mcgill.ecse321.boardgame.dto.ReviewResponseDto;
+import ca.mcgill.ecse321.boardgame.model.*;
+import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import ca.mcgill.ecse321.boardgame.repo.ReviewRepository;
+import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
+import ca.mcgill.ecse321.boardgame.service.BorrowRequestService;
+import ca.mcgill.ecse321.boardgame.service.GameCopyService;
+import ca.mcgill.ecse321.boardgame.service.GameService;
+import ca.mcgill.ecse321.boardgame.service.ReviewService;
+import ca.mcgill.ecse321.boardgame.service.UserIdentityService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that each listing use case loads its rows with the fetch plan its
+ * DTO needs: one statement whatever the number of rows, owners and games.
+ * The game copy listings fetch the owner and the game with the copies;
+ * the review and borrow request listings only read key ids, which the
+ * lazy associations answer without a query.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class FetchPlanQueryCountTests {
+
+    private static final int ROWS = 8;
+    private static final String SHARED_TITLE = "Shared Game";
+
+    @Autowired
+    private GameCopyService gameCopyService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private BorrowRequestService borrowRequestService;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private BorrowRequestRepository borrowRequestRepo;
+
+    @Autowired
+    private ReviewRepository reviewRepo;
+
+    @Autowired
+    private GameCopyRepository gameCopyRepo;
+
+    @Autowired
+    private GameRepository gameRepo;
+
+    @Autowired
+    private UserAccountRepository userAccountRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UserAccount collector;
+    private UserAccount player;
+
+    @BeforeEach
+    public void setup() {
+        collector = userAccountRepo.save(
+                new UserAccount("collector", "password", "collector@mail.com", AccountType.GAMEOWNER));
+        player = userAccountRepo.save(new UserAccount("player", "password", "player@mail.com", AccountType.PLAYER));
+        Game shared = gameRepo.save(new Game(SHARED_TITLE, "Description", "Category"));
+        Date start = Date.valueOf(LocalDate.now().plusDays(7));
+        Date end = Date.valueOf(LocalDate.now().plusDays(9));
+        for (int i = 0; i < ROWS; i++) {
+            Game game = gameRepo.save(new Game("Game " + i, "Description " + i, "Category"));
+            gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(collector, game), "Copy " + i));
+            reviewRepo.save(new Review(new Review.ReviewKey(player, game), 4, "Review " + i,
+                    Date.valueOf(LocalDate.now())));
+
+            UserAccount owner = userAccountRepo.save(
+                    new UserAccount("owner" + i, "password", "owner" + i + "@mail.com", AccountType.GAMEOWNER));
+            GameCopy copy = gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(owner, shared), "Shared " + i));
+            borrowRequestRepo.save(new BorrowRequest(RequestStatus.PENDING, Date.valueOf(LocalDate.now()), null,
+                    start, end, player, copy));
+        }
+    }
+
+    @AfterEach
+    public void clean() {
+        borrowRequestRepo.deleteAll();
+        reviewRepo.deleteAll();
+        gameCopyRepo.deleteAll();
+        gameRepo.deleteAll();
+        userAccountRepo.deleteAll();
+    }
+
+    @Test
+    public void testGetUserGameCopiesUsesOneStatement() {
+        Statistics statistics = resetStatistics();
+
+        List<GameCopyResponseDto> copies = gameCopyService.getUserGameCopies(collector.getUserAccountID());
+
+        // The owner's name and each game's description come with the copies
+        assertEquals(ROWS, copies.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetGameCopiesPageUsesOneStatement() {
+        // Warm the title cache, so only the page itself is counted
+        gameService.getGameByTitle(SHARED_TITLE);
+        Statistics statistics = resetStatistics();
+
+        GameCopyPageDto page = gameCopyService.getGameCopiesPage(SHARED_TITLE, null, null, ROWS);
+
+        // Each owner's name comes with the copies
+        assertEquals(ROWS, page.getCopies().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetReviewsByUserIdUsesOneStatement() {
+        Statistics statistics = resetStatistics();
+
+        List<ReviewResponseDto> reviews = reviewService.getReviewsByUserId(player.getUserAccountID());
+
+        assertEquals(ROWS, reviews.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetBorrowRequestsPageByUserIdUsesOneStatement() {
+        // Warm the identity cache, so only the page itself is counted
+        userIdentityService.findIdentity(player.getUserAccountID());
+        Statistics statistics = resetStatistics();
+
+        BorrowRequestPageDto page = borrowRequestService.getBorrowRequestsPageByUserId(player.getUserAccountID(),
+                null, null, null, null, ROWS);
+
+        assertEquals(ROWS, page.getBorrowRequests().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
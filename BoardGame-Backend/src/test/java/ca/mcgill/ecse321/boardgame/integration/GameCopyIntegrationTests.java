@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
@@ -20,10 +22,13 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import ca.mcgill.ecse321.boardgame.dto.GameCopyBatchResultDto;
 import ca.mcgill.ecse321.boardgame.dto.GameCopyCreationDto;
 import ca.mcgill.ecse321.boardgame.dto.GameCopyResponseDto;
 import ca.mcgill.ecse321.boardgame.model.AccountType;
 import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.GameStatus;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
 import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
 import ca.mcgill.ecse321.boardgame.repo.GameRepository;
@@ -227,4 +232,26 @@ public class GameCopyIntegrationTests {
         // ASSERT
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
+
+    @Test
+    @Order(9)
+    public void testCreateGameCopiesBatch() {
+        // ARRANGE
+        gameRepository.save(new Game("Azul", "Tile laying", "Abstract"));
+        List<GameCopyCreationDto> request = List.of(new GameCopyCreationDto("azul", "Sealed", userAccountId));
+
+        // ACT
+        ResponseEntity<GameCopyBatchResultDto> response = client.postForEntity(
+                BASE_URL + "/" + userAccountId + "/batch", request, GameCopyBatchResultDto.class);
+
+        // ASSERT
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getCreated());
+        // Read back through the entity mapping, so the stored status and version are checked as JPA sees them
+        GameCopy created = gameCopyRepository.findAll().stream()
+                .filter(copy -> "Sealed".equals(copy.getDescription()))
+                .findFirst().orElseThrow();
+        assertEquals(GameStatus.AVAILABLE, created.getStatus());
+        assertEquals(0, created.getVersion());
+    }
 }
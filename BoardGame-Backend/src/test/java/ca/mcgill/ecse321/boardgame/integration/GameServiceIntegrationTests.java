@@ -6,12 +6,15 @@ import static org.springframework.http.HttpStatus.*;
 import ca.mcgill.ecse321.boardgame.dto.*;
 import ca.mcgill.ecse321.boardgame.model.Game;
 import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import ca.mcgill.ecse321.boardgame.service.GameImportService;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.ResponseEntity;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,6 +30,9 @@ public class GameServiceIntegrationTests {
     @Autowired
     private GameRepository gameRepo;
 
+    @Autowired
+    private GameImportService gameImportService;
+
     private static final String BASE_URL = "/api/games";
     private final String gameTitle = "Catan";
 
@@ -152,4 +158,20 @@ public class GameServiceIntegrationTests {
         assertEquals(NOT_FOUND, response.getStatusCode());
         assertTrue(response.getBody().getErrors().stream().anyMatch(error -> error.contains("not found")));
     }
+
+    @Test
+    @Order(10)
+    public void testImportedGamesReadBack() {
+        String csv = "title,description,category\nTicket to Ride,Trains,Family\nCATAN!,Duplicate,Strategy\n";
+        GameImportResultDto result = gameImportService.importGames(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), GameImportService.CSV, null);
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getDuplicates());
+        // Read back through the entity mapping, so every column is checked as JPA sees it
+        Game imported = gameRepo.findById("Ticket to Ride").orElseThrow();
+        assertEquals("ticket to ride", imported.getTitleKey());
+        assertEquals("Trains", imported.getDescription());
+        assertEquals("Family", imported.getCategory());
+    }
 }
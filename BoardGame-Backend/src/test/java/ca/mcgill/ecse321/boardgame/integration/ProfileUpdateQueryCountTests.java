@@ -0,0 +1,139 @@
+package ca.mcgill.ecse321.boardgame.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ca.mcgill.ecse321.boardgame.dto.UserAccountRequestDto;
+import ca.mcgill.ecse321.boardgame.model.AccountType;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
+import ca.mcgill.ecse321.boardgame.service.UserAccountService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that a GAMEOWNER to PLAYER profile update issues the same statements
+ * and loads the same entities while the number of copies owned by other users
+ * grows. The ownership check is an indexed existence query, so nothing may
+ * depend on that number. Timings are in ProfileUpdateBenchmark.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(Lifecycle.PER_CLASS)
+public class ProfileUpdateQueryCountTests {
+
+    private static final int[] GLOBAL_COPY_COUNTS = { 10, 100 };
+    private static final int GAMES = 10;
+    private static final int WARMUP = 2;
+    private static final int UPDATES = 5;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private GameCopyRepository gameCopyRepo;
+
+    @Autowired
+    private GameRepository gameRepo;
+
+    @Autowired
+    private UserAccountRepository userAccountRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Game> games;
+    private int ownersCreated;
+
+    @BeforeAll
+    public void setup() {
+        clean();
+        games = new ArrayList<>();
+        for (int i = 0; i < GAMES; i++) {
+            games.add(new Game("Game " + i, "Description " + i, "Category"));
+        }
+        games = (List<Game>) gameRepo.saveAll(games);
+    }
+
+    @AfterAll
+    public void clean() {
+        gameCopyRepo.deleteAll();
+        gameRepo.deleteAll();
+        userAccountRepo.deleteAll();
+    }
+
+    @Test
+    public void testOwnerToPlayerUpdateCostDoesNotGrowWithCopies() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long[] statements = new long[GLOBAL_COPY_COUNTS.length];
+        long[] entitiesLoaded = new long[GLOBAL_COPY_COUNTS.length];
+
+        for (int s = 0; s < GLOBAL_COPY_COUNTS.length; s++) {
+            growCopiesTo(GLOBAL_COPY_COUNTS[s]);
+            UserAccount user = userAccountRepo.save(
+                    new UserAccount("profile" + s, "password", "profile" + s + "@mail.com", AccountType.GAMEOWNER));
+            long id = user.getUserAccountID();
+
+            // Fills the caches, so every copy count is counted in the same state
+            for (int i = 0; i < WARMUP; i++) {
+                switchToPlayer(id);
+            }
+
+            for (int i = 0; i < UPDATES; i++) {
+                // Switching back is not counted: only the owner to player direction checks ownership
+                update(id, AccountType.GAMEOWNER);
+                statistics.clear();
+                update(id, AccountType.PLAYER);
+                statements[s] += statistics.getPrepareStatementCount();
+                entitiesLoaded[s] += statistics.getEntityLoadCount();
+            }
+        }
+
+        for (int s = 1; s < GLOBAL_COPY_COUNTS.length; s++) {
+            assertEquals(statements[0], statements[s]);
+            assertEquals(entitiesLoaded[0], entitiesLoaded[s]);
+        }
+    }
+
+    /**
+     * Adds owners, each holding a copy of every game, until the table has the given number of copies.
+     */
+    private void growCopiesTo(int target) {
+        long count = gameCopyRepo.count();
+        while (count < target) {
+            UserAccount owner = userAccountRepo.save(new UserAccount("owner" + ownersCreated, "password",
+                    "owner" + ownersCreated + "@mail.com", AccountType.GAMEOWNER));
+            ownersCreated++;
+            List<GameCopy> copies = new ArrayList<>();
+            for (Game game : games) {
+                copies.add(new GameCopy(new GameCopy.GameCopyKey(owner, game), "Copy"));
+            }
+            gameCopyRepo.saveAll(copies);
+            count += copies.size();
+        }
+    }
+
+    private void switchToPlayer(long id) {
+        update(id, AccountType.GAMEOWNER);
+        update(id, AccountType.PLAYER);
+    }
+
+    private void update(long id, AccountType accountType) {
+        userAccountService.updateUserAccountByUserAccountID(id,
+                new UserAccountRequestDto("profile", "password", "profile@mail.com", accountType));
+    }
+}
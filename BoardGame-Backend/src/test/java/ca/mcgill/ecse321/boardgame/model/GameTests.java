@@ -79,4 +79,21 @@ public class GameTests {
         Game game2 = new Game("Chess", "Different description", "Strategy");
         assertEquals(game1.hashCode(), game2.hashCode());
     }
+
+    @Test
+    public void testTitleKey() {
+        Game game = new Game("Ticket to Ride: Europe", "Build train routes", "Family");
+        assertEquals("ticket to ride europe", game.getTitleKey());
+
+        // Case, accents, whitespace and punctuation do not change the key
+        assertEquals(game.getTitleKey(), Game.toTitleKey("  TICKET to   ride - EUROPE!"));
+        assertEquals("pokemon", Game.toTitleKey("Pokémon"));
+        assertNotEquals(Game.toTitleKey("Catan"), Game.toTitleKey("Catan 2"));
+    }
+
+    @Test
+    public void testTitleKeyWithoutLettersOrDigits() {
+        assertEquals("?!", Game.toTitleKey(" ?! "));
+        assertNull(Game.toTitleKey(null));
+    }
 }
\ No newline at end of file
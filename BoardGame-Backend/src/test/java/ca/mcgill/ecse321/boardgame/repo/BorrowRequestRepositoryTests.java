@@ -1,13 +1,17 @@
 package ca.mcgill.ecse321.boardgame.repo;
 
 import ca.mcgill.ecse321.boardgame.model.*;
+import ca.mcgill.ecse321.boardgame.service.BorrowWindowService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 
 import java.sql.Date;
+import java.util.EnumSet;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -96,4 +100,92 @@ public class BorrowRequestRepositoryTests {
 
     }
 
+    @Test
+    public void testBorrowWindowQueries() {
+        UserAccount owner = ownerRepo.save(new UserAccount("owner", "password", "owner@mail.com",
+                AccountType.GAMEOWNER));
+        UserAccount borrower = borrowerRepo.save(new UserAccount("borrower", "password", "borrower@mail.com",
+                AccountType.PLAYER));
+        UserAccount otherOwner = ownerRepo.save(new UserAccount("other", "password", "other@mail.com",
+                AccountType.GAMEOWNER));
+        Game chess = gameRepo.save(new Game("Chess", "Strategy board game", "Classic"));
+        GameCopy lent = gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(owner, chess), "Lent"));
+        GameCopy free = gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(otherOwner, chess), "Free"));
+
+        BorrowRequest accepted = borrowRequestRepo.save(new BorrowRequest(RequestStatus.ACCEPTED,
+                Date.valueOf("2025-04-01"), Date.valueOf("2025-04-02"), Date.valueOf("2025-05-01"),
+                Date.valueOf("2025-05-10"), borrower, lent));
+        // Pending and declined requests do not hold the copy
+        borrowRequestRepo.save(new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
+                Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, free));
+        borrowRequestRepo.save(new BorrowRequest(RequestStatus.DECLINED, Date.valueOf("2025-04-01"),
+                Date.valueOf("2025-04-02"), Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, free));
+
+        List<Object[]> windows = borrowRequestRepo.findWindowsByCopy(owner.getUserAccountID(), "Chess",
+                BorrowWindowService.HOLDING_STATUSES);
+        assertEquals(1, windows.size());
+        assertEquals(accepted.getId(), windows.get(0)[0]);
+        assertEquals(Date.valueOf("2025-05-01"), windows.get(0)[1]);
+        assertEquals(Date.valueOf("2025-05-10"), windows.get(0)[2]);
+        assertTrue(borrowRequestRepo.findWindowsByCopy(otherOwner.getUserAccountID(), "Chess",
+                BorrowWindowService.HOLDING_STATUSES).isEmpty());
+        assertEquals(1, borrowRequestRepo.findWindowsByBorrowerAndGameTitle(borrower.getUserAccountID(), "Chess",
+                BorrowWindowService.HOLDING_STATUSES).size());
+
+        assertTrue(borrowRequestRepo.existsOverlapping(lent, -1, Date.valueOf("2025-05-10"),
+                Date.valueOf("2025-05-12"), BorrowWindowService.HOLDING_STATUSES));
+        assertFalse(borrowRequestRepo.existsOverlapping(lent, accepted.getId(), Date.valueOf("2025-05-10"),
+                Date.valueOf("2025-05-12"), BorrowWindowService.HOLDING_STATUSES));
+        assertFalse(borrowRequestRepo.existsOverlapping(lent, -1, Date.valueOf("2025-05-11"),
+                Date.valueOf("2025-05-12"), BorrowWindowService.HOLDING_STATUSES));
+
+        List<GameCopy> freeCopies = gameCopyRepo.findFreeCopies("Chess", Date.valueOf("2025-05-05"),
+                Date.valueOf("2025-05-06"), BorrowWindowService.HOLDING_STATUSES);
+        assertEquals(1, freeCopies.size());
+        assertEquals(otherOwner.getUserAccountID(),
+                freeCopies.get(0).getGameCopyKey().getOwner().getUserAccountID());
+        assertEquals(2, gameCopyRepo.findFreeCopies("Chess", Date.valueOf("2025-05-11"),
+                Date.valueOf("2025-05-20"), BorrowWindowService.HOLDING_STATUSES).size());
+    }
+
+    @Test
+    public void testFindPageByOwner() {
+        UserAccount owner = ownerRepo.save(new UserAccount("owner", "password", "owner@mail.com",
+                AccountType.GAMEOWNER));
+        UserAccount otherOwner = ownerRepo.save(new UserAccount("other", "password", "other@mail.com",
+                AccountType.GAMEOWNER));
+        UserAccount borrower = borrowerRepo.save(new UserAccount("borrower", "password", "borrower@mail.com",
+                AccountType.PLAYER));
+        Game chess = gameRepo.save(new Game("Chess", "Strategy board game", "Classic"));
+        Game go = gameRepo.save(new Game("Go", "Territory game", "Classic"));
+        GameCopy ownerChess = gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(owner, chess), "Chess"));
+        GameCopy ownerGo = gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(owner, go), "Go"));
+        GameCopy otherChess = gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(otherOwner, chess), "Chess"));
+
+        BorrowRequest first = borrowRequestRepo.save(new BorrowRequest(RequestStatus.PENDING,
+                Date.valueOf("2025-04-01"), null, Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower,
+                ownerChess));
+        BorrowRequest second = borrowRequestRepo.save(new BorrowRequest(RequestStatus.PENDING,
+                Date.valueOf("2025-04-02"), null, Date.valueOf("2025-06-01"), Date.valueOf("2025-06-10"), borrower,
+                ownerGo));
+        borrowRequestRepo.save(new BorrowRequest(RequestStatus.DECLINED, Date.valueOf("2025-04-01"),
+                Date.valueOf("2025-04-03"), Date.valueOf("2025-07-01"), Date.valueOf("2025-07-10"), borrower,
+                ownerChess));
+        borrowRequestRepo.save(new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
+                Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, otherChess));
+
+        List<BorrowRequest> page = borrowRequestRepo.findPageByOwner(owner.getUserAccountID(),
+                EnumSet.of(RequestStatus.PENDING), Date.valueOf("0001-01-01"), Date.valueOf("9999-12-31"),
+                Date.valueOf("0001-01-01"), -1, Limit.of(10));
+        assertEquals(2, page.size());
+        assertEquals(first.getId(), page.get(0).getId());
+        assertEquals(second.getId(), page.get(1).getId());
+
+        List<BorrowRequest> next = borrowRequestRepo.findPageByOwner(owner.getUserAccountID(),
+                EnumSet.of(RequestStatus.PENDING), Date.valueOf("0001-01-01"), Date.valueOf("9999-12-31"),
+                first.getRequestDate(), first.getId(), Limit.of(10));
+        assertEquals(1, next.size());
+        assertEquals(second.getId(), next.get(0).getId());
+    }
+
 }
@@ -3,15 +3,24 @@ package ca.mcgill.ecse321.boardgame.repo;
 import ca.mcgill.ecse321.boardgame.model.AccountType;
 import ca.mcgill.ecse321.boardgame.model.Game;
 import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.GameStatus;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 public class GameCopyRepositoryTests {
@@ -65,4 +74,68 @@ public class GameCopyRepositoryTests {
         assertEquals(monopoly.getTitle(), mudgamepadMonopolyFromDb.getGameCopyKey().getGame().getTitle());
     }
 
+    @Test
+    public void testExistsByOwnerAndFindByOwnerIdAndGameTitle() {
+        UserAccount owner = userAccountRepo.save(new UserAccount("owner", "12345678", "owner@mail.com", AccountType.GAMEOWNER));
+        UserAccount other = userAccountRepo.save(new UserAccount("other", "12345678", "other@mail.com", AccountType.GAMEOWNER));
+        Game monopoly = gameRepo.save(new Game("Monopoly", "Be richer", "Roll and Move"));
+        gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(owner, monopoly), "owner's monopoly"));
+
+        assertTrue(gameCopyRepo.existsByGameCopyKeyOwnerUserAccountID(owner.getUserAccountID()));
+        assertFalse(gameCopyRepo.existsByGameCopyKeyOwnerUserAccountID(other.getUserAccountID()));
+
+        GameCopy copy = gameCopyRepo.findByOwnerIdAndGameTitleKey(owner.getUserAccountID(), "monopoly");
+        assertNotNull(copy);
+        assertEquals("owner's monopoly", copy.getDescription());
+        assertNull(gameCopyRepo.findByOwnerIdAndGameTitleKey(other.getUserAccountID(), "monopoly"));
+    }
+
+    @Test
+    public void testFindPageByGameTitle() {
+        Game chess = gameRepo.save(new Game("Chess", "Strategy board game", "Classic"));
+        Game monopoly = gameRepo.save(new Game("Monopoly", "Be richer", "Roll and Move"));
+        List<UserAccount> owners = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            UserAccount owner = userAccountRepo.save(
+                    new UserAccount("owner" + i, "12345678", "owner" + i + "@mail.com", AccountType.GAMEOWNER));
+            owners.add(owner);
+            GameCopy copy = new GameCopy(new GameCopy.GameCopyKey(owner, chess), "Chess " + i);
+            if (i == 1) {
+                copy.setStatus(GameStatus.BORROWED);
+            }
+            gameCopyRepo.save(copy);
+        }
+        gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(owners.get(0), monopoly), "Monopoly"));
+
+        List<GameCopy> available = gameCopyRepo.findPageByGameTitle("Chess", EnumSet.of(GameStatus.AVAILABLE), -1,
+                Limit.of(10));
+        assertEquals(3, available.size());
+        assertEquals(owners.get(0).getUserAccountID(), available.get(0).getGameCopyKey().getOwner().getUserAccountID());
+        assertEquals(owners.get(2).getUserAccountID(), available.get(1).getGameCopyKey().getOwner().getUserAccountID());
+        assertEquals("owner3", available.get(2).getGameCopyKey().getOwner().getName());
+
+        List<GameCopy> next = gameCopyRepo.findPageByGameTitle("Chess", EnumSet.of(GameStatus.AVAILABLE),
+                owners.get(2).getUserAccountID(), Limit.of(10));
+        assertEquals(1, next.size());
+        assertEquals("Chess 3", next.get(0).getDescription());
+
+        assertEquals(4, gameCopyRepo.findPageByGameTitle("Chess", EnumSet.allOf(GameStatus.class), -1,
+                Limit.of(10)).size());
+    }
+
+    @Test
+    public void testFindOwnedTitles() {
+        UserAccount owner = userAccountRepo.save(new UserAccount("owner", "12345678", "owner@mail.com", AccountType.GAMEOWNER));
+        UserAccount other = userAccountRepo.save(new UserAccount("other", "12345678", "other@mail.com", AccountType.GAMEOWNER));
+        Game chess = gameRepo.save(new Game("Chess", "Strategy board game", "Classic"));
+        Game monopoly = gameRepo.save(new Game("Monopoly", "Be richer", "Roll and Move"));
+        gameRepo.save(new Game("Catan", "Trade and build", "Strategy"));
+        gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(owner, chess), "owner's chess"));
+        gameCopyRepo.save(new GameCopy(new GameCopy.GameCopyKey(other, monopoly), "other's monopoly"));
+
+        List<String> owned = gameCopyRepo.findOwnedTitles(owner.getUserAccountID(),
+                List.of("Chess", "Monopoly", "Catan"));
+        assertEquals(List.of("Chess"), owned);
+        assertTrue(gameCopyRepo.findOwnedTitles(other.getUserAccountID(), List.of("Chess", "Catan")).isEmpty());
+    }
 }
@@ -6,9 +6,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 public class GameRepositoryTests {
@@ -39,4 +42,23 @@ public class GameRepositoryTests {
         assertEquals(monopoly.getDescription(), monopolyFromDb.getDescription());
         assertEquals(monopoly.getCategory(), monopolyFromDb.getCategory());
     }
+
+    @Test
+    public void testFindGameByTitleKey() {
+        repo.save(new Game("Ticket to Ride", "Build train routes", "Family"));
+
+        Game fromDb = repo.findGameByTitleKey(Game.toTitleKey("TICKET TO RIDE!"));
+
+        assertNotNull(fromDb);
+        assertEquals("Ticket to Ride", fromDb.getTitle());
+        assertNull(repo.findGameByTitleKey(Game.toTitleKey("Ticket to Ride Europe")));
+    }
+
+    @Test
+    public void testTitleKeyIsUnique() {
+        repo.save(new Game("Catan", "Build settlements", "Strategy"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repo.save(new Game("CATAN", "Build settlements again", "Strategy")));
+    }
 }
\ No newline at end of file
@@ -6,8 +6,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Date;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -23,9 +26,16 @@ public class ReviewRepositoryTests {
     @Autowired
     private GameRepository gameRepo;
 
+    @Autowired
+    private GameRatingRepository gameRatingRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @BeforeEach
     @AfterEach
     public void clearDatabase() {
+        gameRatingRepo.deleteAll();
         reviewRepo.deleteAll();
         userAccountRepo.deleteAll();
         ;
@@ -64,4 +74,89 @@ public class ReviewRepositoryTests {
         assertEquals(monopoly.getTitle(), reviewFromDb.getReviewKey().getGameToReview().getTitle());
 
     }
+
+    @Test
+    public void testFindReviewsByReviewerAndByGame() {
+        UserAccount abc = userAccountRepo.save(new UserAccount("abc", "abcde", "abc@mail.mcgill.ca", AccountType.PLAYER));
+        UserAccount def = userAccountRepo.save(new UserAccount("def", "defgh", "def@mail.mcgill.ca", AccountType.PLAYER));
+        Game monopoly = gameRepo.save(new Game("Monopoly", "Be richer", "Roll and Move"));
+        Game catan = gameRepo.save(new Game("Catan", "Trade and build", "Strategy"));
+
+        Date date = Date.valueOf("2025-01-17");
+        reviewRepo.save(new Review(new Review.ReviewKey(abc, monopoly), 4, "Good", date));
+        reviewRepo.save(new Review(new Review.ReviewKey(abc, catan), 5, "Great", date));
+        reviewRepo.save(new Review(new Review.ReviewKey(def, catan), 3, "Okay", date));
+
+        List<Review> byAbc = reviewRepo.findAllByReviewKeyReviewerUserAccountID(abc.getUserAccountID());
+        assertEquals(2, byAbc.size());
+        for (Review review : byAbc) {
+            assertEquals(abc.getUserAccountID(), review.getReviewKey().getReviewer().getUserAccountID());
+        }
+
+        List<Review> forCatan = reviewRepo.findAllByReviewKeyGameToReviewTitle("Catan");
+        assertEquals(2, forCatan.size());
+        for (Review review : forCatan) {
+            assertEquals("Catan", review.getReviewKey().getGameToReview().getTitle());
+        }
+
+        assertTrue(reviewRepo.findAllByReviewKeyGameToReviewTitle("Risk").isEmpty());
+    }
+
+    @Test
+    public void testRatingTotals() {
+        transactionTemplate.executeWithoutResult(status -> {
+            gameRatingRepo.addRating("Catan", 5);
+            gameRatingRepo.addRating("Catan", 3);
+            gameRatingRepo.addRating("Catan", 5);
+        });
+
+        GameRating catan = gameRatingRepo.findById("Catan").orElseThrow();
+        assertEquals(3, catan.getReviewCount());
+        assertEquals(13, catan.getRatingSum());
+        assertArrayEquals(new long[] { 0, 0, 1, 0, 2 }, catan.getHistogram());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(1, gameRatingRepo.removeRating("Catan", 5));
+            assertEquals(0, gameRatingRepo.deleteIfEmpty("Catan"));
+        });
+        catan = gameRatingRepo.findById("Catan").orElseThrow();
+        assertEquals(2, catan.getReviewCount());
+        assertArrayEquals(new long[] { 0, 0, 1, 0, 1 }, catan.getHistogram());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            gameRatingRepo.removeRating("Catan", 5);
+            gameRatingRepo.removeRating("Catan", 3);
+            assertEquals(1, gameRatingRepo.deleteIfEmpty("Catan"));
+            assertEquals(0, gameRatingRepo.removeRating("Catan", 3));
+        });
+        assertEquals(Optional.empty(), gameRatingRepo.findById("Catan"));
+    }
+
+    @Test
+    public void testSyncRatingTotals() {
+        UserAccount abc = userAccountRepo.save(new UserAccount("abc", "abcde", "abc@mail.mcgill.ca", AccountType.PLAYER));
+        UserAccount def = userAccountRepo.save(new UserAccount("def", "defgh", "def@mail.mcgill.ca", AccountType.PLAYER));
+        Game monopoly = gameRepo.save(new Game("Monopoly", "Be richer", "Roll and Move"));
+        Game catan = gameRepo.save(new Game("Catan", "Trade and build", "Strategy"));
+        Date date = Date.valueOf("2025-01-17");
+        reviewRepo.save(new Review(new Review.ReviewKey(abc, monopoly), 2, "Long", date));
+        reviewRepo.save(new Review(new Review.ReviewKey(abc, catan), 5, "Great", date));
+        reviewRepo.save(new Review(new Review.ReviewKey(def, catan), 4, "Good", date));
+        // Totals of a game whose reviews are all gone, and stale totals that the sync must replace
+        transactionTemplate.executeWithoutResult(status -> {
+            gameRatingRepo.addRating("Risk", 1);
+            gameRatingRepo.addRating("Catan", 1);
+        });
+
+        gameRatingRepo.deleteUnreviewed();
+        gameRatingRepo.syncAll();
+
+        List<GameRating> ratings = gameRatingRepo.findAllByGameTitleIn(List.of("Monopoly", "Catan", "Risk"));
+        assertEquals(2, ratings.size());
+        GameRating catanRating = gameRatingRepo.findById("Catan").orElseThrow();
+        assertEquals(2, catanRating.getReviewCount());
+        assertEquals(9, catanRating.getRatingSum());
+        assertArrayEquals(new long[] { 0, 0, 0, 1, 1 }, catanRating.getHistogram());
+        assertEquals(1, gameRatingRepo.findById("Monopoly").orElseThrow().getHistogram()[1]);
+    }
 }
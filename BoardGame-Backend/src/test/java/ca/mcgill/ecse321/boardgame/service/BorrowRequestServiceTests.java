@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.sql.Date;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,8 +13,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 
+import ca.mcgill.ecse321.boardgame.cache.UserIdentity;
+import ca.mcgill.ecse321.boardgame.dto.BorrowRequestAcceptDto;
+import ca.mcgill.ecse321.boardgame.dto.BorrowRequestPageDto;
 import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
 import ca.mcgill.ecse321.boardgame.model.BorrowRequest;
 import ca.mcgill.ecse321.boardgame.model.Game;
@@ -23,7 +28,6 @@ import ca.mcgill.ecse321.boardgame.model.RequestStatus;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
 import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
 import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
-import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
 
 @SpringBootTest
 public class BorrowRequestServiceTests {
@@ -32,11 +36,17 @@ public class BorrowRequestServiceTests {
     private BorrowRequestRepository borrowRequestRepository;
 
     @Mock
-    private UserAccountRepository userAccountRepository;
+    private UserIdentityService userIdentityService;
 
     @Mock
     private GameCopyRepository gameCopyRepository;
 
+    @Mock
+    private BorrowWindowService borrowWindowService;
+
+    @Mock
+    private GameBrowseService gameBrowseService;
+
     @InjectMocks
     private BorrowRequestService borrowRequestService;
 
@@ -54,9 +64,8 @@ public class BorrowRequestServiceTests {
 
     @Test
     public void testCreateBorrowRequest_Success() {
-        when(userAccountRepository.findUserAccountByUserAccountID(1L)).thenReturn(borrower);
-        when(userAccountRepository.findUserAccountByUserAccountID(2L)).thenReturn(owner);
-        when(gameCopyRepository.findAllByGameCopyKeyOwner(owner)).thenReturn(List.of(gameCopy));
+        when(userIdentityService.findUserAccount(1L)).thenReturn(borrower);
+        when(gameCopyRepository.findByOwnerIdAndGameTitleKey(2L, "chess")).thenReturn(gameCopy);
         when(borrowRequestRepository.save(any(BorrowRequest.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         BorrowRequest created = borrowRequestService.createBorrowRequest(
@@ -68,9 +77,30 @@ public class BorrowRequestServiceTests {
         assertEquals(RequestStatus.PENDING, created.getRequestStatus());
     }
 
+    @Test
+    public void testCreateBorrowRequest_CopyAlreadyLent() {
+        when(userIdentityService.findUserAccount(1L)).thenReturn(borrower);
+        when(gameCopyRepository.findByOwnerIdAndGameTitleKey(2L, "chess")).thenReturn(gameCopy);
+        // The windows are looked up under the stored title, whatever the spelling of the request
+        when(borrowWindowService.isCopyBooked(2L, "Chess", Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10")))
+                .thenReturn(true);
+
+        ResourceNotFoundException ex = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.createBorrowRequest(
+                        1L, 2L, "CHESS",
+                        Date.valueOf("2025-05-01"),
+                        Date.valueOf("2025-05-10")
+                )
+        );
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        assertEquals("Game copy is already lent for those dates", ex.getMessage());
+        verify(borrowRequestRepository, never()).save(any(BorrowRequest.class));
+    }
+
     @Test
     public void testCreateBorrowRequest_BorrowerNotFound() {
-        when(userAccountRepository.findUserAccountByUserAccountID(1L)).thenReturn(null);
+        when(userIdentityService.findUserAccount(1L)).thenReturn(null);
         ResourceNotFoundException ex = assertThrows(
                 ResourceNotFoundException.class,
                 () -> borrowRequestService.createBorrowRequest(
@@ -83,16 +113,139 @@ public class BorrowRequestServiceTests {
         assertTrue(ex.getMessage().contains("Borrower 1 not found"));
     }
 
+    @Test
+    public void testCreateBorrowRequest_OwnerNotFound() {
+        when(userIdentityService.findUserAccount(1L)).thenReturn(borrower);
+        when(gameCopyRepository.findByOwnerIdAndGameTitleKey(2L, "chess")).thenReturn(null);
+        when(userIdentityService.findIdentity(2L)).thenReturn(null);
+        ResourceNotFoundException ex = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.createBorrowRequest(
+                        1L, 2L, "Chess",
+                        Date.valueOf("2025-05-01"),
+                        Date.valueOf("2025-05-10")
+                )
+        );
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+        assertTrue(ex.getMessage().contains("Owner 2 not found"));
+    }
+
+    @Test
+    public void testCreateBorrowRequest_GameCopyNotFound() {
+        when(userIdentityService.findUserAccount(1L)).thenReturn(borrower);
+        when(gameCopyRepository.findByOwnerIdAndGameTitleKey(2L, "go")).thenReturn(null);
+        when(userIdentityService.findIdentity(2L)).thenReturn(new UserIdentity(owner));
+        ResourceNotFoundException ex = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.createBorrowRequest(
+                        1L, 2L, "Go",
+                        Date.valueOf("2025-05-01"),
+                        Date.valueOf("2025-05-10")
+                )
+        );
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+        assertEquals("Game copy not found", ex.getMessage());
+    }
+
     @Test
     public void testAcceptRequest_Success() {
         BorrowRequest existing = new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
                 Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, gameCopy);
         when(borrowRequestRepository.findById(100L)).thenReturn(Optional.of(existing));
+        when(gameCopyRepository.lockCopy(0L, "Chess")).thenReturn(1);
+        when(borrowRequestRepository.declineOverlappingPending(eq(gameCopy), eq(existing.getId()),
+                eq(Date.valueOf("2025-05-01")), eq(Date.valueOf("2025-05-10")), any(Date.class),
+                eq(RequestStatus.PENDING), eq(RequestStatus.DECLINED))).thenReturn(3);
         when(borrowRequestRepository.save(any(BorrowRequest.class))).thenAnswer(i -> i.getArgument(0));
 
-        BorrowRequest updated = borrowRequestService.acceptRequest(100L);
+        BorrowRequestAcceptDto updated = borrowRequestService.acceptRequest(100L);
         assertNotNull(updated);
-        assertEquals(RequestStatus.ACCEPTED, updated.getRequestStatus());
+        assertEquals(RequestStatus.ACCEPTED, updated.getStatus());
+        assertNotNull(updated.getDecisionDate());
+        assertEquals(3, updated.getDeclinedRequests());
+        assertEquals(RequestStatus.ACCEPTED, existing.getRequestStatus());
+        verify(borrowWindowService).invalidate(existing);
+        // The copy stays available until it is picked up
+        verify(gameCopyRepository, never()).updateStatusIfCurrent(anyLong(), any(), any(), any());
+        verifyNoInteractions(gameBrowseService);
+    }
+
+    @Test
+    public void testAcceptRequest_NonOverlappingWindows() {
+        BorrowRequest may = new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
+                Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, gameCopy);
+        BorrowRequest june = new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
+                Date.valueOf("2025-06-01"), Date.valueOf("2025-06-10"), borrower, gameCopy);
+        when(borrowRequestRepository.findById(100L)).thenReturn(Optional.of(may));
+        when(borrowRequestRepository.findById(101L)).thenReturn(Optional.of(june));
+        when(gameCopyRepository.lockCopy(0L, "Chess")).thenReturn(1);
+        when(borrowRequestRepository.existsOverlapping(eq(gameCopy), anyLong(), any(Date.class), any(Date.class),
+                eq(BorrowWindowService.HOLDING_STATUSES))).thenReturn(false);
+        when(borrowRequestRepository.save(any(BorrowRequest.class))).thenAnswer(i -> i.getArgument(0));
+
+        borrowRequestService.acceptRequest(100L);
+        borrowRequestService.acceptRequest(101L);
+
+        // One copy, granted for two windows
+        assertEquals(RequestStatus.ACCEPTED, may.getRequestStatus());
+        assertEquals(RequestStatus.ACCEPTED, june.getRequestStatus());
+        verify(gameCopyRepository, times(2)).lockCopy(0L, "Chess");
+        verify(borrowRequestRepository).existsOverlapping(gameCopy, june.getId(), Date.valueOf("2025-06-01"),
+                Date.valueOf("2025-06-10"), BorrowWindowService.HOLDING_STATUSES);
+    }
+
+    @Test
+    public void testAcceptRequest_DatesAlreadyLent() {
+        BorrowRequest existing = new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
+                Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, gameCopy);
+        when(borrowRequestRepository.findById(100L)).thenReturn(Optional.of(existing));
+        when(gameCopyRepository.lockCopy(0L, "Chess")).thenReturn(1);
+        when(borrowRequestRepository.existsOverlapping(gameCopy, existing.getId(), Date.valueOf("2025-05-01"),
+                Date.valueOf("2025-05-10"), BorrowWindowService.HOLDING_STATUSES)).thenReturn(true);
+
+        ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.acceptRequest(100L)
+        );
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals("Game copy is already lent for those dates", e.getMessage());
+        assertEquals(RequestStatus.PENDING, existing.getRequestStatus());
+        verify(borrowRequestRepository, never()).declineOverlappingPending(any(), anyLong(), any(), any(), any(),
+                any(), any());
+        verify(borrowRequestRepository, never()).save(any(BorrowRequest.class));
+    }
+
+    @Test
+    public void testAcceptRequest_CopyDeleted() {
+        BorrowRequest existing = new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
+                Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, gameCopy);
+        when(borrowRequestRepository.findById(100L)).thenReturn(Optional.of(existing));
+        when(gameCopyRepository.lockCopy(0L, "Chess")).thenReturn(0);
+
+        ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.acceptRequest(100L)
+        );
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+        assertEquals(RequestStatus.PENDING, existing.getRequestStatus());
+        verify(borrowRequestRepository, never()).declineOverlappingPending(any(), anyLong(), any(), any(), any(),
+                any(), any());
+        verify(borrowRequestRepository, never()).save(any(BorrowRequest.class));
+    }
+
+    @Test
+    public void testAcceptRequest_NotPending() {
+        BorrowRequest existing = new BorrowRequest(RequestStatus.DECLINED, Date.valueOf("2025-04-01"),
+                Date.valueOf("2025-04-02"), Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower,
+                gameCopy);
+        when(borrowRequestRepository.findById(100L)).thenReturn(Optional.of(existing));
+
+        ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.acceptRequest(100L)
+        );
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        verify(gameCopyRepository, never()).lockCopy(anyLong(), any());
     }
 
     @Test
@@ -117,6 +270,24 @@ public class BorrowRequestServiceTests {
         assertEquals(RequestStatus.DECLINED, updated.getRequestStatus());
     }
 
+    @Test
+    public void testDeclineRequest_AlreadyAccepted() {
+        BorrowRequest existing = new BorrowRequest(RequestStatus.ACCEPTED, Date.valueOf("2025-04-01"),
+                Date.valueOf("2025-04-02"), Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower,
+                gameCopy);
+        when(borrowRequestRepository.findById(11L)).thenReturn(Optional.of(existing));
+
+        ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.declineRequest(11L)
+        );
+        // The message is the one BorrowRequest gives for a move its lifecycle refuses
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertTrue(e.getMessage().endsWith("cannot go from ACCEPTED to DECLINED"));
+        assertEquals(RequestStatus.ACCEPTED, existing.getRequestStatus());
+        verify(borrowRequestRepository, never()).save(any(BorrowRequest.class));
+    }
+
     @Test
     public void testDeclineRequest_NotFound() {
         when(borrowRequestRepository.findById(111L)).thenReturn(Optional.empty());
@@ -127,6 +298,86 @@ public class BorrowRequestServiceTests {
         assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
     }
 
+    @Test
+    public void testPickUpRequest_Success() {
+        BorrowRequest existing = new BorrowRequest(RequestStatus.ACCEPTED, Date.valueOf("2025-04-01"),
+                Date.valueOf("2025-04-02"), Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower,
+                gameCopy);
+        when(borrowRequestRepository.findById(12L)).thenReturn(Optional.of(existing));
+        when(gameCopyRepository.updateStatusIfCurrent(0L, "Chess", GameStatus.AVAILABLE, GameStatus.BORROWED))
+                .thenReturn(1);
+        when(borrowRequestRepository.save(any(BorrowRequest.class))).thenAnswer(i -> i.getArgument(0));
+
+        BorrowRequest updated = borrowRequestService.pickUpRequest(12L);
+        assertEquals(RequestStatus.PICKEDUP, updated.getRequestStatus());
+        verify(gameBrowseService).availableCopiesChanged("Chess", -1);
+    }
+
+    @Test
+    public void testPickUpRequest_CopyStillOut() {
+        BorrowRequest existing = new BorrowRequest(RequestStatus.ACCEPTED, Date.valueOf("2025-04-01"),
+                Date.valueOf("2025-04-02"), Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower,
+                gameCopy);
+        when(borrowRequestRepository.findById(12L)).thenReturn(Optional.of(existing));
+        // An earlier borrower has not brought the copy back yet
+        when(gameCopyRepository.updateStatusIfCurrent(0L, "Chess", GameStatus.AVAILABLE, GameStatus.BORROWED))
+                .thenReturn(0);
+
+        ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.pickUpRequest(12L)
+        );
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals(RequestStatus.ACCEPTED, existing.getRequestStatus());
+        verify(borrowRequestRepository, never()).save(any(BorrowRequest.class));
+    }
+
+    @Test
+    public void testPickUpRequest_NotAccepted() {
+        BorrowRequest existing = new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
+                Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, gameCopy);
+        when(borrowRequestRepository.findById(12L)).thenReturn(Optional.of(existing));
+
+        ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.pickUpRequest(12L)
+        );
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+    }
+
+    @Test
+    public void testReturnRequest_ResetsCopy() {
+        BorrowRequest existing = new BorrowRequest(RequestStatus.PICKEDUP, Date.valueOf("2025-04-01"),
+                Date.valueOf("2025-04-02"), Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower,
+                gameCopy);
+        when(borrowRequestRepository.findById(13L)).thenReturn(Optional.of(existing));
+        when(gameCopyRepository.updateStatusIfCurrent(0L, "Chess", GameStatus.BORROWED, GameStatus.AVAILABLE))
+                .thenReturn(1);
+        when(borrowRequestRepository.save(any(BorrowRequest.class))).thenAnswer(i -> i.getArgument(0));
+
+        BorrowRequest updated = borrowRequestService.returnRequest(13L);
+        assertEquals(RequestStatus.RETURNED, updated.getRequestStatus());
+        verify(gameCopyRepository, times(1))
+                .updateStatusIfCurrent(0L, "Chess", GameStatus.BORROWED, GameStatus.AVAILABLE);
+        verify(borrowWindowService).invalidate(existing);
+        verify(gameBrowseService).availableCopiesChanged("Chess", 1);
+    }
+
+    @Test
+    public void testReturnRequest_NotPickedUp() {
+        BorrowRequest existing = new BorrowRequest(RequestStatus.ACCEPTED, Date.valueOf("2025-04-01"),
+                Date.valueOf("2025-04-02"), Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower,
+                gameCopy);
+        when(borrowRequestRepository.findById(13L)).thenReturn(Optional.of(existing));
+
+        ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.returnRequest(13L)
+        );
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        verify(gameCopyRepository, never()).updateStatusIfCurrent(anyLong(), any(), any(), any());
+    }
+
     @Test
     public void testGetAllBorrowRequests() {
         BorrowRequest br1 = new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
@@ -138,4 +389,79 @@ public class BorrowRequestServiceTests {
         List<BorrowRequest> all = borrowRequestService.getAllBorrowRequests();
         assertEquals(2, all.size());
     }
+
+    @Test
+    public void testGetBorrowRequestsPage_FiltersAndCursor() {
+        BorrowRequest br1 = new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
+                Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, gameCopy);
+        BorrowRequest br2 = new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-02"), null,
+                Date.valueOf("2025-05-02"), Date.valueOf("2025-05-11"), borrower, gameCopy);
+        when(borrowRequestRepository.findPage(eq(EnumSet.of(RequestStatus.PENDING)), eq(Date.valueOf("2025-04-01")),
+                eq(Date.valueOf("2025-04-30")), eq(Date.valueOf("2025-04-01")), eq(-1L), eq(Limit.of(2))))
+                .thenReturn(List.of(br1, br2));
+
+        BorrowRequestPageDto page = borrowRequestService.getBorrowRequestsPage(RequestStatus.PENDING,
+                Date.valueOf("2025-04-01"), Date.valueOf("2025-04-30"), null, 1);
+
+        assertEquals(1, page.getBorrowRequests().size());
+        assertEquals(Date.valueOf("2025-04-01"), page.getBorrowRequests().get(0).getRequestDate());
+        assertNotNull(page.getNextCursor());
+
+        when(borrowRequestRepository.findPage(any(), any(), any(), eq(Date.valueOf("2025-04-01")), eq(0L),
+                eq(Limit.of(2)))).thenReturn(List.of(br2));
+
+        BorrowRequestPageDto nextPage = borrowRequestService.getBorrowRequestsPage(RequestStatus.PENDING,
+                Date.valueOf("2025-04-01"), Date.valueOf("2025-04-30"), page.getNextCursor(), 1);
+
+        assertEquals(1, nextPage.getBorrowRequests().size());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    public void testGetBorrowRequestsPage_InvalidRange() {
+        ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.getBorrowRequestsPage(null, Date.valueOf("2025-05-01"),
+                        Date.valueOf("2025-04-01"), null, 10)
+        );
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    public void testGetBorrowRequestsPageByUserId_UserNotFound() {
+        when(userIdentityService.findIdentity(5L)).thenReturn(null);
+        ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.getBorrowRequestsPageByUserId(5L, null, null, null, null, 10)
+        );
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+    }
+
+    @Test
+    public void testGetIncomingRequestsPage() {
+        BorrowRequest br = new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
+                Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, gameCopy);
+        when(userIdentityService.findIdentity(2L)).thenReturn(new UserIdentity(owner));
+        when(borrowRequestRepository.findPageByOwner(eq(2L), eq(EnumSet.of(RequestStatus.PENDING)), any(), any(),
+                any(), eq(-1L), eq(Limit.of(11)))).thenReturn(List.of(br));
+
+        BorrowRequestPageDto page = borrowRequestService.getIncomingRequestsPage(2L, RequestStatus.PENDING, null,
+                null, null, 10);
+
+        assertEquals(1, page.getBorrowRequests().size());
+        assertEquals("Chess", page.getBorrowRequests().get(0).getGameTitle());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testGetIncomingRequestsPage_OwnerNotFound() {
+        when(userIdentityService.findIdentity(2L)).thenReturn(null);
+        ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> borrowRequestService.getIncomingRequestsPage(2L, RequestStatus.PENDING, null, null, null, 10)
+        );
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+        verify(borrowRequestRepository, never()).findPageByOwner(anyLong(), any(), any(), any(), any(), anyLong(),
+                any());
+    }
 }
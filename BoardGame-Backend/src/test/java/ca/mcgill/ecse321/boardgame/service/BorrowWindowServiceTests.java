@@ -0,0 +1,120 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
+import ca.mcgill.ecse321.boardgame.model.AccountType;
+import ca.mcgill.ecse321.boardgame.model.BorrowRequest;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.RequestStatus;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class BorrowWindowServiceTests {
+
+    @Mock
+    private BorrowRequestRepository borrowRequestRepo;
+
+    @Mock
+    private GameCopyRepository gameCopyRepo;
+
+    @InjectMocks
+    private BorrowWindowService borrowWindowService;
+
+    @Test
+    public void testIsCopyBookedLoadsWindowsOnce() {
+        when(borrowRequestRepo.findWindowsByCopy(2, "Chess", BorrowWindowService.HOLDING_STATUSES))
+                .thenReturn(List.of(window(1, "2025-05-01", "2025-05-10"), window(2, "2025-06-01", "2025-06-05")));
+
+        assertTrue(borrowWindowService.isCopyBooked(2, "Chess", Date.valueOf("2025-05-10"),
+                Date.valueOf("2025-05-20")));
+        assertFalse(borrowWindowService.isCopyBooked(2, "Chess", Date.valueOf("2025-05-11"),
+                Date.valueOf("2025-05-31")));
+        assertTrue(borrowWindowService.isCopyBooked(2, "Chess", Date.valueOf("2025-04-01"),
+                Date.valueOf("2025-07-01")));
+        verify(borrowRequestRepo, times(1)).findWindowsByCopy(2, "Chess", BorrowWindowService.HOLDING_STATUSES);
+    }
+
+    @Test
+    public void testInvertedRangeIsRejected() {
+        ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class,
+                () -> borrowWindowService.isCopyBooked(2, "Chess", Date.valueOf("2025-05-10"),
+                        Date.valueOf("2025-05-01")));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+        verifyNoInteractions(borrowRequestRepo);
+    }
+
+    @Test
+    public void testHoldsGameOn() {
+        when(borrowRequestRepo.findWindowsByBorrowerAndGameTitle(4, "UNO", BorrowWindowService.HOLDING_STATUSES))
+                .thenReturn(List.<Object[]>of(window(7, "2023-11-10", "2023-11-18")));
+
+        assertTrue(borrowWindowService.holdsGameOn(4, "UNO", Date.valueOf("2023-11-10")));
+        assertTrue(borrowWindowService.holdsGameOn(4, "UNO", Date.valueOf("2023-11-18")));
+        assertFalse(borrowWindowService.holdsGameOn(4, "UNO", Date.valueOf("2023-11-20")));
+        verify(borrowRequestRepo, times(1)).findWindowsByBorrowerAndGameTitle(4, "UNO",
+                BorrowWindowService.HOLDING_STATUSES);
+    }
+
+    @Test
+    public void testInvalidateReloadsWindows() {
+        UserAccount owner = new UserAccount("Owner", "password", "owner@mail.com", AccountType.GAMEOWNER);
+        owner.setUserAccountID(2);
+        UserAccount borrower = new UserAccount("Borrower", "password", "borrower@mail.com", AccountType.PLAYER);
+        borrower.setUserAccountID(4);
+        GameCopy copy = new GameCopy(new GameCopy.GameCopyKey(owner, new Game("Chess", "A game", "Classic")), "");
+        BorrowRequest request = new BorrowRequest(RequestStatus.ACCEPTED, Date.valueOf("2025-04-01"),
+                Date.valueOf("2025-04-02"), Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, copy);
+        when(borrowRequestRepo.findWindowsByCopy(2, "Chess", BorrowWindowService.HOLDING_STATUSES))
+                .thenReturn(List.of(), List.<Object[]>of(window(1, "2025-05-01", "2025-05-10")));
+
+        assertFalse(borrowWindowService.isCopyBooked(2, "Chess", Date.valueOf("2025-05-05"),
+                Date.valueOf("2025-05-06")));
+        borrowWindowService.invalidate(request);
+        assertTrue(borrowWindowService.isCopyBooked(2, "Chess", Date.valueOf("2025-05-05"),
+                Date.valueOf("2025-05-06")));
+        verify(borrowRequestRepo, times(2)).findWindowsByCopy(2, "Chess", BorrowWindowService.HOLDING_STATUSES);
+    }
+
+    @Test
+    public void testWindowsReadDuringInvalidationAreNotCached() {
+        UserAccount owner = new UserAccount("Owner", "password", "owner@mail.com", AccountType.GAMEOWNER);
+        owner.setUserAccountID(2);
+        UserAccount borrower = new UserAccount("Borrower", "password", "borrower@mail.com", AccountType.PLAYER);
+        borrower.setUserAccountID(4);
+        GameCopy copy = new GameCopy(new GameCopy.GameCopyKey(owner, new Game("Chess", "A game", "Classic")), "");
+        BorrowRequest request = new BorrowRequest(RequestStatus.ACCEPTED, Date.valueOf("2025-04-01"),
+                Date.valueOf("2025-04-02"), Date.valueOf("2025-05-01"), Date.valueOf("2025-05-10"), borrower, copy);
+        // The accept commits and drops the entries while the first read is still loading the old windows
+        when(borrowRequestRepo.findWindowsByCopy(2, "Chess", BorrowWindowService.HOLDING_STATUSES))
+                .thenAnswer(invocation -> {
+                    borrowWindowService.invalidate(request);
+                    return List.of();
+                })
+                .thenReturn(List.<Object[]>of(window(1, "2025-05-01", "2025-05-10")));
+
+        assertFalse(borrowWindowService.isCopyBooked(2, "Chess", Date.valueOf("2025-05-05"),
+                Date.valueOf("2025-05-06")));
+        assertTrue(borrowWindowService.isCopyBooked(2, "Chess", Date.valueOf("2025-05-05"),
+                Date.valueOf("2025-05-06")));
+        verify(borrowRequestRepo, times(2)).findWindowsByCopy(2, "Chess", BorrowWindowService.HOLDING_STATUSES);
+    }
+
+    private static Object[] window(long id, String startDate, String endDate) {
+        return new Object[] { id, Date.valueOf(startDate), Date.valueOf(endDate) };
+    }
+}
@@ -0,0 +1,71 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvRecordReaderTests {
+
+    @Test
+    public void testQuotedFields() throws IOException {
+        CsvRecordReader csv = reader("a,\"b,c\",\"say \"\"hi\"\"\",\n\"\",x\n");
+
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""), csv.next());
+        assertNull(csv.getMalformed());
+        assertEquals(List.of("", "x"), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    public void testRecordSpanningLines() throws IOException {
+        CsvRecordReader csv = reader("title,description\nAzul,\"Tiles\non two\nlines\"\nChess,Classic\n");
+
+        csv.next();
+        assertEquals(List.of("Azul", "Tiles\non two\nlines"), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertEquals(List.of("Chess", "Classic"), csv.next());
+        assertEquals(5, csv.getRecordLine());
+    }
+
+    @Test
+    public void testUnclosedQuote() throws IOException {
+        CsvRecordReader csv = reader("Chess,\"never closed\nstill open\n");
+
+        csv.next();
+        assertEquals("Quoted field is not closed", csv.getMalformed());
+        assertNull(csv.next());
+    }
+
+    @Test
+    public void testOversizedRecordIsSkipped() throws IOException {
+        String huge = "x".repeat(CsvRecordReader.MAX_RECORD_CHARS + 1);
+        CsvRecordReader csv = reader("\"" + huge + "\n" + huge + "\",y\nChess,Classic\n");
+
+        csv.next();
+        assertNotNull(csv.getMalformed());
+        assertEquals(List.of("Chess", "Classic"), csv.next());
+        assertNull(csv.getMalformed());
+        assertEquals(3, csv.getRecordLine());
+    }
+
+    @Test
+    public void testWindowsLineBreaks() throws IOException {
+        CsvRecordReader csv = reader("title,description\r\nAzul,\"Tiles\r\non two lines\"\r\nChess,Classic");
+
+        csv.next();
+        assertEquals(List.of("Azul", "Tiles\non two lines"), csv.next());
+        assertEquals(List.of("Chess", "Classic"), csv.next());
+        assertEquals(4, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    private static CsvRecordReader reader(String content) {
+        return new CsvRecordReader(new BufferedReader(new StringReader(content)));
+    }
+}
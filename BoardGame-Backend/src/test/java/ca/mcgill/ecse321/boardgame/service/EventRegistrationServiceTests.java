@@ -9,7 +9,6 @@ import ca.mcgill.ecse321.boardgame.model.ParticipationStatus;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
 import ca.mcgill.ecse321.boardgame.repo.EventRegistrationRepository;
 import ca.mcgill.ecse321.boardgame.repo.EventRepository;
-import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,7 +34,7 @@ public class EventRegistrationServiceTests {
     private EventRepository eventRepository;
 
     @Mock
-    private UserAccountRepository userAccountRepository;
+    private UserIdentityService userIdentityService;
 
     @InjectMocks
     private EventRegistrationService eventRegistrationService;
@@ -60,9 +59,9 @@ public class EventRegistrationServiceTests {
 
     @Test
     public void testRegisterUserSuccessfully() {
-        when(userAccountRepository.findUserAccountByUserAccountID(1L)).thenReturn(user);
+        when(userIdentityService.findUserAccount(1L)).thenReturn(user);
         when(eventRepository.findEventByEventID(1L)).thenReturn(event);
-        when(eventRegistrationRepository.findAllByEventRegistrationKeyEvent(event)).thenReturn(List.of());
+        when(eventRepository.reserveSeat(1L)).thenReturn(1);
 
         EventRegistrationRequestDto request = new EventRegistrationRequestDto(1L, 1L);
         EventRegistrationResponseDto response = eventRegistrationService.register(request);
@@ -88,7 +87,7 @@ public class EventRegistrationServiceTests {
 
     @Test
     public void testRegisterUser_UserNotFound() {
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(null);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(null);
 
         EventRegistrationRequestDto request = new EventRegistrationRequestDto(1L, 1L);
         BoardGameException exception = assertThrows(BoardGameException.class,
@@ -100,7 +99,7 @@ public class EventRegistrationServiceTests {
 
     @Test
     public void testRegisterUser_EventNotFound() {
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRepository.findEventByEventID(anyLong())).thenReturn(null);
 
         EventRegistrationRequestDto request = new EventRegistrationRequestDto(1L, 1L);
@@ -113,12 +112,9 @@ public class EventRegistrationServiceTests {
 
     @Test
     public void testRegisterUser_EventFull() {
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRepository.findEventByEventID(anyLong())).thenReturn(event);
-        EventRegistration registration = mock(EventRegistration.class);
-        when(eventRegistrationRepository.findAllByEventRegistrationKeyEvent(event))
-                .thenReturn(List.of(registration, registration, registration, registration, registration,
-                        registration, registration, registration, registration, registration));
+        when(eventRepository.reserveSeat(1L)).thenReturn(0);
 
         EventRegistrationRequestDto request = new EventRegistrationRequestDto(1L, 1L);
         BoardGameException exception = assertThrows(BoardGameException.class,
@@ -126,6 +122,7 @@ public class EventRegistrationServiceTests {
 
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
         assertEquals("Event is already full.", exception.getMessage());
+        verify(eventRegistrationRepository, never()).save(any(EventRegistration.class));
     }
 
     @Test
@@ -133,7 +130,7 @@ public class EventRegistrationServiceTests {
         when(event.getDate()).thenReturn(new java.sql.Date(System.currentTimeMillis() - 86400000L)); // 1 day ago
         when(event.getTime()).thenReturn(new java.sql.Time(System.currentTimeMillis() - 86400000L)); // 1 day ago
 
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRepository.findEventByEventID(anyLong())).thenReturn(event);
 
         EventRegistrationRequestDto request = new EventRegistrationRequestDto(1L, 1L);
@@ -146,7 +143,7 @@ public class EventRegistrationServiceTests {
 
     @Test
     public void testRegisterUser_AlreadyRegistered() {
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRepository.findEventByEventID(anyLong())).thenReturn(event);
         EventRegistration registration = new EventRegistration(
                 new EventRegistration.EventRegistrationKey(user, event),
@@ -159,13 +156,14 @@ public class EventRegistrationServiceTests {
 
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
         assertEquals("User is already registered for this event.", exception.getMessage());
+        verify(eventRepository, never()).reserveSeat(anyLong());
     }
 
     @Test
     public void testGetRegistrationSuccessfully() {
         EventRegistration registration = new EventRegistration(new EventRegistration.EventRegistrationKey(user, event), ParticipationStatus.PENDING);
 
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRepository.findEventByEventID(anyLong())).thenReturn(event);
         when(eventRegistrationRepository.findByEventRegistrationKey(any())).thenReturn(registration);
 
@@ -181,7 +179,7 @@ public class EventRegistrationServiceTests {
 
     @Test
     public void testGetRegistration_UserNotFound() {
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(null);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(null);
 
         BoardGameException exception = assertThrows(BoardGameException.class,
                 () -> eventRegistrationService.getRegistration(1L, 1L));
@@ -191,7 +189,7 @@ public class EventRegistrationServiceTests {
 
     @Test
     public void testGetRegistration_EventNotFound() {
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRepository.findEventByEventID(anyLong())).thenReturn(null);
 
         BoardGameException exception = assertThrows(BoardGameException.class,
@@ -202,7 +200,7 @@ public class EventRegistrationServiceTests {
 
     @Test
     public void testGetRegistration_RegistrationNotFound() {
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRepository.findEventByEventID(anyLong())).thenReturn(event);
         when(eventRegistrationRepository.findByEventRegistrationKey(any())).thenReturn(null);
 
@@ -218,7 +216,7 @@ public class EventRegistrationServiceTests {
                 new EventRegistration.EventRegistrationKey(user, event),
                 ParticipationStatus.PENDING);
 
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRegistrationRepository.findAllByEventRegistrationKeyRegistrant(user))
                 .thenReturn(List.of(registration));
 
@@ -236,7 +234,7 @@ public class EventRegistrationServiceTests {
 
     @Test
     public void testGetAllRegistrationsByUser_UserNotFound() {
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(null);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(null);
 
         BoardGameException exception = assertThrows(BoardGameException.class,
                 () -> eventRegistrationService.getAllRegistrationsByUser(1L));
@@ -298,17 +296,18 @@ public class EventRegistrationServiceTests {
     public void testCancelRegistrationSuccessfully() {
         EventRegistration registration = new EventRegistration(new EventRegistration.EventRegistrationKey(user, event),
                 ParticipationStatus.PENDING);
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRepository.findEventByEventID(anyLong())).thenReturn(event);
         when(eventRegistrationRepository.findByEventRegistrationKey(any())).thenReturn(registration);
 
         assertDoesNotThrow(() -> eventRegistrationService.cancelRegistration(1L, 1L));
         verify(eventRegistrationRepository, times(1)).delete(registration);
+        verify(eventRepository, times(1)).releaseSeat(1L);
     }
 
     @Test
     public void testCancelRegistration_UserNotFound() {
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(null);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(null);
 
         BoardGameException exception = assertThrows(BoardGameException.class,
                 () -> eventRegistrationService.cancelRegistration(1L, 1L));
@@ -318,7 +317,7 @@ public class EventRegistrationServiceTests {
 
     @Test
     public void testCancelRegistration_EventNotFound() {
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRepository.findEventByEventID(anyLong())).thenReturn(null);
 
         BoardGameException exception = assertThrows(BoardGameException.class,
@@ -329,7 +328,7 @@ public class EventRegistrationServiceTests {
 
     @Test
     public void testCancelRegistration_RegistrationNotFound() {
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRepository.findEventByEventID(anyLong())).thenReturn(event);
         when(eventRegistrationRepository.findByEventRegistrationKey(any())).thenReturn(null);
 
@@ -346,7 +345,7 @@ public class EventRegistrationServiceTests {
         EventRegistration registration = new EventRegistration(new EventRegistration.EventRegistrationKey(user, event),
                 ParticipationStatus.PENDING);
 
-        when(userAccountRepository.findUserAccountByUserAccountID(anyLong())).thenReturn(user);
+        when(userIdentityService.findUserAccount(anyLong())).thenReturn(user);
         when(eventRepository.findEventByEventID(anyLong())).thenReturn(event);
         when(eventRegistrationRepository.findByEventRegistrationKey(any())).thenReturn(registration);
 
@@ -360,4 +359,13 @@ public class EventRegistrationServiceTests {
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
         assertEquals("Cannot cancel registration for an event that has already started.", exception.getMessage());
     }
+
+    @Test
+    public void testSyncRegisteredCounts() {
+        when(eventRepository.syncRegisteredCounts()).thenReturn(3);
+
+        eventRegistrationService.syncRegisteredCounts();
+
+        verify(eventRepository).syncRegisteredCounts();
+    }
 }
@@ -1,5 +1,6 @@
 package ca.mcgill.ecse321.boardgame.service;
 
+import ca.mcgill.ecse321.boardgame.cache.UserIdentity;
 import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
 import ca.mcgill.ecse321.boardgame.model.*;
 import ca.mcgill.ecse321.boardgame.repo.*;
@@ -10,7 +11,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Date;
 import java.sql.Time;
@@ -29,7 +33,7 @@ public class EventServiceTests {
     private EventRepository eventRepository;
 
     @Mock
-    private UserAccountRepository userAccountRepository;
+    private UserIdentityService userIdentityService;
 
     @Mock
     private GameRepository gameRepository;
@@ -43,6 +47,15 @@ public class EventServiceTests {
     @Mock
     private BorrowRequestRepository borrowRequestRepository;
 
+    @Mock
+    private BorrowWindowService borrowWindowService;
+
+    @Mock
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -59,9 +72,10 @@ public class EventServiceTests {
         UserAccount user = new UserAccount("Bob", "1234", "Bob@gmail.com", AccountType.GAMEOWNER);
         GameCopy gameCopy = new GameCopy(new GameCopy.GameCopyKey(user, game), "In good shape");
 
-        when(userAccountRepository.findUserAccountByUserAccountID(user.getUserAccountID())).thenReturn(user);
+        when(userIdentityService.findIdentity(user.getUserAccountID())).thenReturn(new UserIdentity(user));
+        when(userIdentityService.findUserAccount(user.getUserAccountID())).thenReturn(user);
         when(eventRepository.save(any(Event.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(gameRepository.findGameByTitle("UNO")).thenReturn(game);
+        when(gameRepository.findGameByTitleKey("uno")).thenReturn(game);
         when(gameCopyRepository.findGameCopyByGameCopyKey(gameCopy.getGameCopyKey())).thenReturn(gameCopy);
         // Act
         Event result = eventService.createEvent(dto, user.getUserAccountID());
@@ -84,9 +98,10 @@ public class EventServiceTests {
         GameCopy gameCopy = new GameCopy(new GameCopy.GameCopyKey(user, game), "In good shape");
         System.out.println(user.getUserAccountID());
 
-        when(userAccountRepository.findUserAccountByUserAccountID(user.getUserAccountID())).thenReturn(user);
+        when(userIdentityService.findIdentity(user.getUserAccountID())).thenReturn(new UserIdentity(user));
+        when(userIdentityService.findUserAccount(user.getUserAccountID())).thenReturn(user);
         when(eventRepository.save(any(Event.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(gameRepository.findGameByTitle("MONOPOLY")).thenReturn(null);
+        when(gameRepository.findGameByTitleKey("monopoly")).thenReturn(null);
         when(gameCopyRepository.findGameCopyByGameCopyKey(gameCopy.getGameCopyKey())).thenReturn(gameCopy);
 
         // Act & Assert
@@ -193,7 +208,7 @@ public class EventServiceTests {
 
         List<Event> eventList = Arrays.asList(event1, event2);
 
-        when(eventRepository.findAll()).thenReturn(eventList);
+        when(eventRepository.findAllWithGameAndCreator()).thenReturn(eventList);
 
         // Act
         List<EventResponseDto> result = eventService.getAllEvents();
@@ -222,18 +237,14 @@ public class EventServiceTests {
         user2.setUserAccountID(4);
         GameCopy gameCopy = new GameCopy(new GameCopy.GameCopyKey(user1, game), "In good shape");
 
-        BorrowRequest borrowRequest = new BorrowRequest(RequestStatus.ACCEPTED, Date.valueOf("2022-11-15"),
-                Date.valueOf("2023-06-15"), Date.valueOf("2023-11-10"), Date.valueOf("2023-11-18"),
-                user2, gameCopy);
-
-        List<BorrowRequest> borrowRequests = new ArrayList<>();
-        borrowRequests.add(borrowRequest);
-
-        when(borrowRequestRepository.findByBorrowerAndGameTitle(user2, game.getTitle())).thenReturn(borrowRequests);
-        when(userAccountRepository.findUserAccountByUserAccountID(user1.getUserAccountID())).thenReturn(user1);
-        when(userAccountRepository.findUserAccountByUserAccountID(user2.getUserAccountID())).thenReturn(user2);
+        // Ann borrowed Bob's copy from 2023-11-10 to 2023-11-18
+        when(borrowWindowService.holdsGameOn(4, "UNO", Date.valueOf("2023-11-15"))).thenReturn(true);
+        when(userIdentityService.findIdentity(user1.getUserAccountID())).thenReturn(new UserIdentity(user1));
+        when(userIdentityService.findUserAccount(user1.getUserAccountID())).thenReturn(user1);
+        when(userIdentityService.findIdentity(user2.getUserAccountID())).thenReturn(new UserIdentity(user2));
+        when(userIdentityService.findUserAccount(user2.getUserAccountID())).thenReturn(user2);
         when(eventRepository.save(any(Event.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(gameRepository.findGameByTitle("UNO")).thenReturn(game);
+        when(gameRepository.findGameByTitleKey("uno")).thenReturn(game);
         when(gameCopyRepository.findGameCopyByGameCopyKey(gameCopy.getGameCopyKey())).thenReturn(gameCopy);
         // Act
         Event result = eventService.createEvent(dto, user2.getUserAccountID());
@@ -257,17 +268,13 @@ public class EventServiceTests {
         user2.setUserAccountID(4);
         GameCopy gameCopy = new GameCopy(new GameCopy.GameCopyKey(user1, game), "In good shape");
 
-        BorrowRequest borrowRequest = new BorrowRequest(RequestStatus.ACCEPTED, Date.valueOf("2022-11-15"),
-                Date.valueOf("2023-06-15"), Date.valueOf("2023-11-10"), Date.valueOf("2023-11-18"),
-                user2, gameCopy);
-
-        List<BorrowRequest> borrowRequests = new ArrayList<>();
-        borrowRequests.add(borrowRequest);
-
-        when(borrowRequestRepository.findByBorrowerAndGameTitle(user2, game.getTitle())).thenReturn(borrowRequests);
-        when(userAccountRepository.findUserAccountByUserAccountID(user1.getUserAccountID())).thenReturn(user1);
-        when(userAccountRepository.findUserAccountByUserAccountID(user2.getUserAccountID())).thenReturn(user2);
-        when(gameRepository.findGameByTitle("UNO")).thenReturn(game);
+        // Ann borrowed Bob's copy from 2023-11-10 to 2023-11-18
+        when(borrowWindowService.holdsGameOn(4, "UNO", Date.valueOf("2023-11-20"))).thenReturn(false);
+        when(userIdentityService.findIdentity(user1.getUserAccountID())).thenReturn(new UserIdentity(user1));
+        when(userIdentityService.findUserAccount(user1.getUserAccountID())).thenReturn(user1);
+        when(userIdentityService.findIdentity(user2.getUserAccountID())).thenReturn(new UserIdentity(user2));
+        when(userIdentityService.findUserAccount(user2.getUserAccountID())).thenReturn(user2);
+        when(gameRepository.findGameByTitleKey("uno")).thenReturn(game);
         when(gameCopyRepository.findGameCopyByGameCopyKey(gameCopy.getGameCopyKey())).thenReturn(gameCopy);
 
         // Ensure eventRepository.save() is not called when game is not available
@@ -308,23 +315,40 @@ public class EventServiceTests {
 
     @Test
     public void testDeleteExpiredEvents_Success() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        List<Long> firstChunk = new ArrayList<>();
+        for (long id = 1; id <= EventService.PURGE_CHUNK_SIZE; id++) {
+            firstChunk.add(id);
+        }
+        List<Long> secondChunk = List.of(1001L, 1002L);
+        when(eventRepository.findExpiredEventIds(any(), eq(Limit.of(EventService.PURGE_CHUNK_SIZE))))
+                .thenReturn(firstChunk, secondChunk);
+        when(eventRepository.deleteAllByEventIDs(firstChunk)).thenReturn(firstChunk.size());
+        when(eventRepository.deleteAllByEventIDs(secondChunk)).thenReturn(secondChunk.size());
+        when(eventRegistrationRepository.deleteAllByEventIDs(firstChunk)).thenReturn(7);
+        when(eventRegistrationRepository.deleteAllByEventIDs(secondChunk)).thenReturn(3);
+
+        EventPurgeResultDto result = eventService.purgeExpiredEvents();
+
+        assertEquals(EventService.PURGE_CHUNK_SIZE + 2, result.getEventsDeleted());
+        assertEquals(10, result.getRegistrationsDeleted());
+        assertEquals(2, result.getChunks());
+        verify(eventRegistrationRepository, times(1)).deleteAllByEventIDs(firstChunk);
+        verify(eventRepository, times(1)).deleteAllByEventIDs(secondChunk);
+        verify(eventRepository, times(2)).findExpiredEventIds(any(), any());
+    }
 
-        UserAccount user1 = new UserAccount("Bob", "1234", "Bob@gmail.com", AccountType.GAMEOWNER);
-        Game game1 = new Game("UNO", "A card game", "Card Game");
-        UserAccount user2 = new UserAccount("Ann", "4321", "Ann@gmail.com", AccountType.GAMEOWNER);
-        Game game2 = new Game("MONOPOLY", "A board game", "Board Game");
-
-        Event event1 = new Event(Date.valueOf("2023-11-15"), Time.valueOf("10:00:00"),
-                "London", "Bob's event", 10, game1, user1, "Hokey Pokey");
-        Event event2 = new Event(Date.valueOf("2023-11-13"), Time.valueOf("9:00:00"),
-                "Montreal", "Ann's event", 6, game1, user1, "Disney Lovers");
-
-        List<Event> expiredEvents = Arrays.asList(event1, event2);
-        when(eventRepository.findByDateBefore(any())).thenReturn(expiredEvents);
+    @Test
+    public void testDeleteExpiredEvents_NothingExpired() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        when(eventRepository.findExpiredEventIds(any(), any())).thenReturn(List.of());
 
-        eventService.deleteExpiredEvents();
+        EventPurgeResultDto result = eventService.purgeExpiredEvents();
 
-        verify(eventRepository, times(1)).deleteAll(expiredEvents);
+        assertEquals(0, result.getEventsDeleted());
+        assertEquals(0, result.getChunks());
+        verify(eventRepository, never()).deleteAllByEventIDs(any());
     }
-
-}
\ No newline at end of file
+}
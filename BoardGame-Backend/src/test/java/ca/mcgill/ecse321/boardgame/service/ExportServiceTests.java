@@ -0,0 +1,153 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ca.mcgill.ecse321.boardgame.model.AccountType;
+import ca.mcgill.ecse321.boardgame.model.BorrowRequest;
+import ca.mcgill.ecse321.boardgame.model.Event;
+import ca.mcgill.ecse321.boardgame.model.EventRegistration;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameCopy;
+import ca.mcgill.ecse321.boardgame.model.ParticipationStatus;
+import ca.mcgill.ecse321.boardgame.model.RequestStatus;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
+import ca.mcgill.ecse321.boardgame.repo.EventRegistrationRepository;
+import ca.mcgill.ecse321.boardgame.repo.EventRepository;
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceTests {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Mock
+    private BorrowRequestRepository borrowRequestRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ExportService exportService;
+
+    private final UserAccount owner = account(1, "Owner", AccountType.GAMEOWNER);
+    private final UserAccount player = account(2, "Player", AccountType.PLAYER);
+    private final Game chess = new Game("Chess", "A classic", "Strategy");
+
+    @Test
+    public void testExportEventsWritesOneLinePerRow() throws IOException {
+        Event first = new Event(Date.valueOf("2025-05-01"), Time.valueOf("18:00:00"), "Library", "Weekly game", 8,
+                chess, owner, "Chess night");
+        Event second = new Event(Date.valueOf("2025-05-08"), Time.valueOf("18:00:00"), "Library", "Weekly game",
+                8, chess, owner, "Chess night 2");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(eventRepository.streamAllForExport())
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportEvents(out);
+
+        assertEquals(2, count);
+        List<JsonNode> lines = lines(out);
+        assertEquals(2, lines.size());
+        assertEquals("Chess night", lines.get(0).get("eventName").asText());
+        assertEquals("Chess", lines.get(1).get("gameTitle").asText());
+        assertEquals(1, lines.get(1).get("creatorId").asLong());
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        verify(entityManager, never()).clear();
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testExportEventRegistrations() throws IOException {
+        Event event = new Event(Date.valueOf("2025-05-01"), Time.valueOf("18:00:00"), "Library", "Weekly game", 8,
+                chess, owner, "Chess night");
+        EventRegistration registration = new EventRegistration(
+                new EventRegistration.EventRegistrationKey(player, event), ParticipationStatus.ATTEND);
+        when(eventRegistrationRepository.streamAllForExport()).thenReturn(Stream.of(registration));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1, exportService.exportEventRegistrations(out));
+
+        JsonNode line = lines(out).get(0);
+        assertEquals(2, line.get("participantId").asLong());
+        assertEquals("ATTEND", line.get("status").asText());
+        verify(entityManager).detach(registration);
+    }
+
+    @Test
+    public void testExportBorrowRequestsClearsOncePerFetch() throws IOException {
+        GameCopy copy = new GameCopy(new GameCopy.GameCopyKey(owner, chess), "Wooden set");
+        List<BorrowRequest> requests = new ArrayList<>();
+        for (int i = 0; i < ExportService.CLEAR_INTERVAL * 2 + 1; i++) {
+            requests.add(new BorrowRequest(RequestStatus.PENDING, Date.valueOf("2025-04-01"), null,
+                    Date.valueOf("2025-05-01"), Date.valueOf("2025-05-03"), player, copy));
+        }
+        when(borrowRequestRepository.streamAllForExport()).thenReturn(requests.stream());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(requests.size(), exportService.exportBorrowRequests(out));
+
+        List<JsonNode> lines = lines(out);
+        assertEquals(requests.size(), lines.size());
+        assertEquals("Chess", lines.get(0).get("gameTitle").asText());
+        assertEquals(1, lines.get(0).get("ownerId").asLong());
+        assertEquals("PENDING", lines.get(0).get("status").asText());
+        verify(entityManager, times(requests.size())).detach(any());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    public void testExportEmptyTable() throws IOException {
+        when(eventRepository.streamAllForExport()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exportEvents(out));
+        assertEquals(0, out.size());
+    }
+
+    private List<JsonNode> lines(ByteArrayOutputStream out) throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        String content = out.toString(StandardCharsets.UTF_8);
+        assertTrue(content.endsWith("\n"));
+        for (String line : content.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static UserAccount account(long id, String name, AccountType type) {
+        UserAccount account = new UserAccount(name, "password", name.toLowerCase() + "@mail.com", type);
+        account.setUserAccountID(id);
+        return account;
+    }
+}
@@ -0,0 +1,157 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+
+import ca.mcgill.ecse321.boardgame.dto.GameBrowsePageDto;
+import ca.mcgill.ecse321.boardgame.exception.BoardGameException;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameStatus;
+import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class GameBrowseServiceTests {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private GameCopyRepository gameCopyRepository;
+
+    @InjectMocks
+    private GameBrowseService gameBrowseService;
+
+    @Test
+    public void testRebuildCountsAvailableCopies() {
+        when(gameRepository.findAllByOrderByTitleAsc(any(Limit.class))).thenReturn(List.of(
+                new Game("Catan", "Trading", "Strategy"),
+                new Game("Chess", "A classic", "Strategy"),
+                new Game("Uno", "Cards", "Family")));
+        List<Object[]> counts = new ArrayList<>();
+        counts.add(new Object[] { "Chess", 2L });
+        when(gameCopyRepository.countByGameTitleInStatus(GameStatus.AVAILABLE)).thenReturn(counts);
+
+        gameBrowseService.rebuild();
+
+        GameBrowsePageDto page = gameBrowseService.browse(List.of("Strategy"), true, null, 10);
+        assertEquals(1, page.getTotal());
+        assertEquals("Chess", page.getGames().get(0).getTitle());
+        assertEquals(2, page.getGames().get(0).getAvailableCopies());
+        assertEquals(1, page.getCategoryCounts().get("Strategy"));
+        assertNull(page.getNextCursor());
+        // Under a full batch, so the catalog is read with one query
+        verify(gameRepository, never()).findByTitleGreaterThanOrderByTitleAsc(anyString(), any(Limit.class));
+    }
+
+    @Test
+    public void testRebuildDoesNotCountACopyTwice() {
+        when(gameRepository.findAllByOrderByTitleAsc(any(Limit.class))).thenReturn(List.of(
+                new Game("Catan", "Trading", "Strategy"),
+                new Game("Chess", "A classic", "Strategy")));
+        // A copy of Chess commits after its game is read, so the grouped count already has it
+        when(gameCopyRepository.countByGameCopyKeyGameTitleAndStatus("Chess", GameStatus.AVAILABLE)).thenReturn(2L);
+        when(gameCopyRepository.countByGameTitleInStatus(GameStatus.AVAILABLE)).thenAnswer(invocation -> {
+            gameBrowseService.availableCopiesChanged("Chess", 1);
+            List<Object[]> counts = new ArrayList<>();
+            counts.add(new Object[] { "Chess", 2L });
+            return counts;
+        });
+
+        gameBrowseService.rebuild();
+
+        GameBrowsePageDto page = gameBrowseService.browse(null, true, null, 10);
+        assertEquals(1, page.getTotal());
+        assertEquals(2, page.getGames().get(0).getAvailableCopies());
+        // The replayed change carries its count, so the rebuild does not query it again
+        verify(gameCopyRepository, times(1)).countByGameCopyKeyGameTitleAndStatus("Chess", GameStatus.AVAILABLE);
+    }
+
+    @Test
+    public void testAvailableCopiesChangedCountsManyGamesAtOnce() {
+        for (String title : List.of("Catan", "Chess", "Uno")) {
+            gameBrowseService.index(title, "Family");
+        }
+        when(gameCopyRepository.countByGameCopyKeyGameTitleAndStatus("Uno", GameStatus.AVAILABLE)).thenReturn(1L);
+        gameBrowseService.availableCopiesChanged("Uno", 1);
+        List<Object[]> counts = new ArrayList<>();
+        counts.add(new Object[] { "Chess", 2L });
+        when(gameCopyRepository.countByGameTitlesInStatus(List.of("Chess", "Uno"), GameStatus.AVAILABLE))
+                .thenReturn(counts);
+
+        gameBrowseService.availableCopiesChanged(List.of("Chess", "Uno"));
+
+        GameBrowsePageDto page = gameBrowseService.browse(null, true, null, 10);
+        assertEquals(1, page.getTotal());
+        assertEquals("Chess", page.getGames().get(0).getTitle());
+        assertEquals(2, page.getGames().get(0).getAvailableCopies());
+        verify(gameCopyRepository, never()).countByGameCopyKeyGameTitleAndStatus("Chess", GameStatus.AVAILABLE);
+    }
+
+    @Test
+    public void testRebuildDropsGamesRemovedWhileItRuns() {
+        when(gameRepository.findAllByOrderByTitleAsc(any(Limit.class))).thenAnswer(invocation -> {
+            gameBrowseService.remove("Catan");
+            return List.of(new Game("Catan", "Trading", "Strategy"), new Game("Chess", "A classic", "Strategy"));
+        });
+        when(gameCopyRepository.countByGameTitleInStatus(GameStatus.AVAILABLE)).thenReturn(new ArrayList<>());
+
+        gameBrowseService.rebuild();
+
+        GameBrowsePageDto page = gameBrowseService.browse(null, false, null, 10);
+        assertEquals(1, page.getTotal());
+        assertEquals("Chess", page.getGames().get(0).getTitle());
+    }
+
+    @Test
+    public void testBrowsePagesWithCursor() {
+        for (String title : List.of("Azul", "Catan", "Chess", "Uno")) {
+            gameBrowseService.index(title, "Family");
+        }
+        when(gameCopyRepository.countByGameCopyKeyGameTitleAndStatus("Uno", GameStatus.AVAILABLE)).thenReturn(1L);
+        gameBrowseService.availableCopiesChanged("Uno", GameBrowseService.availabilityDelta(null,
+                GameStatus.AVAILABLE));
+
+        GameBrowsePageDto first = gameBrowseService.browse(null, false, null, 3);
+        assertEquals(4, first.getTotal());
+        assertEquals(1, first.getAvailableCount());
+        assertNotNull(first.getNextCursor());
+        GameBrowsePageDto second = gameBrowseService.browse(null, false, first.getNextCursor(), 3);
+        assertEquals("Uno", second.getGames().get(0).getTitle());
+        assertNull(second.getNextCursor());
+
+        gameBrowseService.remove("Uno");
+        assertEquals(0, gameBrowseService.browse(null, true, null, 3).getTotal());
+    }
+
+    @Test
+    public void testAvailabilityDelta() {
+        assertEquals(-1, GameBrowseService.availabilityDelta(GameStatus.AVAILABLE, GameStatus.BORROWED));
+        assertEquals(1, GameBrowseService.availabilityDelta(GameStatus.DAMAGED, GameStatus.AVAILABLE));
+        assertEquals(0, GameBrowseService.availabilityDelta(GameStatus.BORROWED, GameStatus.DAMAGED));
+        assertEquals(-1, GameBrowseService.availabilityDelta(GameStatus.AVAILABLE, null));
+    }
+
+    @Test
+    public void testBrowseRejectsInvalidInput() {
+        BoardGameException size = assertThrows(BoardGameException.class,
+                () -> gameBrowseService.browse(null, false, null, 0));
+        assertEquals(HttpStatus.BAD_REQUEST, size.getStatus());
+
+        BoardGameException cursor = assertThrows(BoardGameException.class,
+                () -> gameBrowseService.browse(null, false, "not base64!", 10));
+        assertEquals("Invalid page cursor", cursor.getMessage());
+    }
+}
@@ -2,33 +2,54 @@ package ca.mcgill.ecse321.boardgame.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 
+import ca.mcgill.ecse321.boardgame.cache.UserIdentity;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyBatchResultDto;
 import ca.mcgill.ecse321.boardgame.dto.GameCopyCreationDto;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyOutcomeDto;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyOutcomeDto.Outcome;
+import ca.mcgill.ecse321.boardgame.dto.GameCopyPageDto;
 import ca.mcgill.ecse321.boardgame.dto.GameCopyResponseDto;
 import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
 import ca.mcgill.ecse321.boardgame.model.AccountType;
 import ca.mcgill.ecse321.boardgame.model.Game;
 import ca.mcgill.ecse321.boardgame.model.GameCopy;
 import ca.mcgill.ecse321.boardgame.model.GameCopy.GameCopyKey;
+import ca.mcgill.ecse321.boardgame.model.GameStatus;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import ca.mcgill.ecse321.boardgame.repo.BorrowRequestRepository;
 import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
 import ca.mcgill.ecse321.boardgame.repo.GameRepository;
-import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
 
 @SpringBootTest
 public class GameCopyServiceTests {
@@ -39,11 +60,26 @@ public class GameCopyServiceTests {
     private GameService gameService;
 
     @Mock
-    private UserAccountRepository userAccountRepository;
+    private UserIdentityService userIdentityService;
 
     @Mock
     private GameRepository gameRepository;
 
+    @Mock
+    private BorrowRequestRepository borrowRequestRepository;
+
+    @Mock
+    private BorrowWindowService borrowWindowService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private GameBrowseService gameBrowseService;
+
     @InjectMocks
     private GameCopyService gameCopyService;
 
@@ -53,8 +89,9 @@ public class GameCopyServiceTests {
         UserAccount owner = new UserAccount("Bob", "1234", "djt@mail.com", AccountType.GAMEOWNER);
         Game game = new Game("UNO", "A card game", "Card Game");
 
-        when(userAccountRepository.findUserAccountByUserAccountID(owner.getUserAccountID())).thenReturn(owner);
-        when(gameService.getGameByTitle(game.getTitle())).thenReturn(game);
+        when(userIdentityService.findIdentity(owner.getUserAccountID())).thenReturn(new UserIdentity(owner));
+        when(userIdentityService.findUserAccount(owner.getUserAccountID())).thenReturn(owner);
+        when(gameService.findGame(game.getTitle())).thenReturn(game);
 
         GameCopyCreationDto gameCopyCreationDto = new GameCopyCreationDto("UNO", "In good shape",
                 owner.getUserAccountID());
@@ -71,6 +108,7 @@ public class GameCopyServiceTests {
         assertEquals(gameCopy.getGameCopyKey().getGame(), createdGameCopy.getGameCopyKey().getGame());
         assertEquals(gameCopy.getGameCopyKey().getOwner(), createdGameCopy.getGameCopyKey().getOwner());
         verify(gameCopyRepository, times(1)).save(any(GameCopy.class));
+        verify(gameBrowseService, times(1)).availableCopiesChanged("UNO", 1);
     }
 
     @Test
@@ -81,8 +119,9 @@ public class GameCopyServiceTests {
         GameCopyCreationDto gameCopyCreationDto = new GameCopyCreationDto("Chess", "In good shape",
                 owner.getUserAccountID());
 
-        when(userAccountRepository.findUserAccountByUserAccountID(owner.getUserAccountID())).thenReturn(owner);
-        when(gameService.getGameByTitle("Chess")).thenReturn(null);
+        when(userIdentityService.findIdentity(owner.getUserAccountID())).thenReturn(new UserIdentity(owner));
+        when(userIdentityService.findUserAccount(owner.getUserAccountID())).thenReturn(owner);
+        when(gameService.findGame("Chess")).thenReturn(null);
 
         // Act
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -100,8 +139,9 @@ public class GameCopyServiceTests {
         UserAccount owner = new UserAccount("Bob", "1234", "djt@mail.com", AccountType.PLAYER);
         Game game = new Game("UNO", "A card game", "Card Game");
 
-        when(userAccountRepository.findUserAccountByUserAccountID(owner.getUserAccountID())).thenReturn(owner);
-        when(gameService.getGameByTitle(game.getTitle())).thenReturn(game);
+        when(userIdentityService.findIdentity(owner.getUserAccountID())).thenReturn(new UserIdentity(owner));
+        when(userIdentityService.findUserAccount(owner.getUserAccountID())).thenReturn(owner);
+        when(gameService.findGame(game.getTitle())).thenReturn(game);
 
         GameCopyCreationDto gameCopyCreationDto = new GameCopyCreationDto("UNO", "In good shape",
                 owner.getUserAccountID());
@@ -121,8 +161,8 @@ public class GameCopyServiceTests {
         // Arrange
         Game game = new Game("UNO", "A card game", "Card Game");
 
-        when(userAccountRepository.findUserAccountByUserAccountID(1)).thenReturn(null);
-        when(gameService.getGameByTitle(game.getTitle())).thenReturn(game);
+        when(userIdentityService.findIdentity(1)).thenReturn(null);
+        when(gameService.findGame(game.getTitle())).thenReturn(game);
 
         GameCopyCreationDto gameCopyCreationDto = new GameCopyCreationDto("UNO", "In good shape",
                 1);
@@ -145,8 +185,8 @@ public class GameCopyServiceTests {
 
         GameCopy gameCopy = new GameCopy(new GameCopyKey(owner, game), "In good shape");
 
-        when(userAccountRepository.findUserAccountByUserAccountID(owner.getUserAccountID())).thenReturn(owner);
-        when(gameService.getGameByTitle("UNO")).thenReturn(game);
+        when(userIdentityService.findUserAccount(owner.getUserAccountID())).thenReturn(owner);
+        when(gameService.findGame("UNO")).thenReturn(game);
         when(gameCopyRepository.findGameCopyByGameCopyKey(any(GameCopyKey.class))).thenReturn(gameCopy);
         when(gameCopyRepository.save(any(GameCopy.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -166,8 +206,8 @@ public class GameCopyServiceTests {
 
         GameCopy gameCopy = new GameCopy(new GameCopyKey(owner, game), "In good shape");
 
-        when(userAccountRepository.findUserAccountByUserAccountID(owner.getUserAccountID())).thenReturn(owner);
-        when(gameService.getGameByTitle("UNO")).thenReturn(game);
+        when(userIdentityService.findUserAccount(owner.getUserAccountID())).thenReturn(owner);
+        when(gameService.findGame("UNO")).thenReturn(game);
         when(gameCopyRepository.findGameCopyByGameCopyKey(any(GameCopyKey.class))).thenReturn(gameCopy);
 
         // Act & Assert
@@ -186,8 +226,8 @@ public class GameCopyServiceTests {
 
         GameCopy gameCopy = new GameCopy(new GameCopyKey(owner, game), "In good shape");
 
-        when(userAccountRepository.findUserAccountByUserAccountID(owner.getUserAccountID())).thenReturn(owner);
-        when(gameService.getGameByTitle("UNO")).thenReturn(game);
+        when(userIdentityService.findUserAccount(owner.getUserAccountID())).thenReturn(owner);
+        when(gameService.findGame("UNO")).thenReturn(game);
         when(gameCopyRepository.findGameCopyByGameCopyKey(any(GameCopyKey.class))).thenReturn(gameCopy);
 
         // Act
@@ -196,6 +236,10 @@ public class GameCopyServiceTests {
         // Assert
         verify(gameCopyRepository, times(1)).delete(gameCopy);
         verify(gameCopyRepository, times(1)).findGameCopyByGameCopyKey(any(GameCopyKey.class));
+        verify(borrowRequestRepository, times(1)).deleteBorrowRequestsByOwnerAndGameTitle(owner, "UNO");
+        verify(borrowWindowService, times(1)).invalidateAll();
+        // The copy was available until now
+        verify(gameBrowseService, times(1)).availableCopiesChanged("UNO", -1);
     }
 
     @Test
@@ -206,8 +250,8 @@ public class GameCopyServiceTests {
 
         GameCopy gameCopy = new GameCopy(new GameCopyKey(owner, game), "In good shape");
 
-        when(userAccountRepository.findUserAccountByUserAccountID(owner.getUserAccountID())).thenReturn(owner);
-        when(gameService.getGameByTitle("UNO")).thenReturn(game);
+        when(userIdentityService.findUserAccount(owner.getUserAccountID())).thenReturn(owner);
+        when(gameService.findGame("UNO")).thenReturn(game);
         when(gameCopyRepository.findGameCopyByGameCopyKey(any(GameCopyKey.class))).thenReturn(gameCopy);
         when(gameCopyRepository.save(any(GameCopy.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -217,6 +261,33 @@ public class GameCopyServiceTests {
         // Assert
         assertEquals("DAMAGED", gameCopy.getStatus().toString());
         verify(gameCopyRepository, times(1)).save(gameCopy);
+        verify(gameBrowseService, times(1)).availableCopiesChanged("UNO", -1);
+    }
+
+    @Test
+    public void testUpdateGameCopyStatusWhileHeld() {
+        // Arrange
+        UserAccount owner = new UserAccount("Bob", "1234", "djt@mail.com", AccountType.GAMEOWNER);
+        Game game = new Game("UNO", "A card game", "Card Game");
+
+        GameCopy gameCopy = new GameCopy(new GameCopyKey(owner, game), "In good shape");
+        gameCopy.setStatus(GameStatus.BORROWED);
+
+        when(userIdentityService.findUserAccount(owner.getUserAccountID())).thenReturn(owner);
+        when(gameService.findGame("UNO")).thenReturn(game);
+        when(gameCopyRepository.findGameCopyByGameCopyKey(any(GameCopyKey.class))).thenReturn(gameCopy);
+        when(borrowRequestRepository.existsByGameToBorrowAndStatusIn(gameCopy, BorrowWindowService.HOLDING_STATUSES))
+                .thenReturn(true);
+
+        // Act & Assert
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> gameCopyService.updateStatus("UNO", owner.getUserAccountID(), "AVAILABLE"));
+
+        // Putting it back by hand would leave the pick-up with nothing to return
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        assertEquals(GameStatus.BORROWED, gameCopy.getStatus());
+        verify(gameCopyRepository, never()).save(any(GameCopy.class));
+        verify(gameBrowseService, never()).availableCopiesChanged(any(), anyInt());
     }
 
     @Test
@@ -227,8 +298,8 @@ public class GameCopyServiceTests {
 
         GameCopy gameCopy = new GameCopy(new GameCopyKey(owner, game), "In good shape");
 
-        when(userAccountRepository.findUserAccountByUserAccountID(owner.getUserAccountID())).thenReturn(owner);
-        when(gameService.getGameByTitle("UNO")).thenReturn(game);
+        when(userIdentityService.findUserAccount(owner.getUserAccountID())).thenReturn(owner);
+        when(gameService.findGame("UNO")).thenReturn(game);
         when(gameCopyRepository.findGameCopyByGameCopyKey(any(GameCopyKey.class))).thenReturn(gameCopy);
 
         // Act & Assert
@@ -247,9 +318,9 @@ public class GameCopyServiceTests {
         Game game1 = new Game("UNO", "A card game", "Card Game");
         Game game2 = new Game("Chess", "A board game", "Board Game");
 
-        when(userAccountRepository.findUserAccountByUserAccountID(owner.getUserAccountID())).thenReturn(owner);
-        when(gameService.getGameByTitle("UNO")).thenReturn(game1);
-        when(gameService.getGameByTitle("Chess")).thenReturn(game2);
+        when(userIdentityService.findUserAccount(owner.getUserAccountID())).thenReturn(owner);
+        when(gameService.findGame("UNO")).thenReturn(game1);
+        when(gameService.findGame("Chess")).thenReturn(game2);
 
         GameCopy gameCopy1 = new GameCopy(new GameCopyKey(owner, game1), "In good shape");
         GameCopy gameCopy2 = new GameCopy(new GameCopyKey(owner, game2), "In excellent shape");
@@ -259,7 +330,7 @@ public class GameCopyServiceTests {
 
         List<GameCopy> gameCopies = Arrays.asList(gameCopy2, gameCopy1);
 
-        when(gameCopyRepository.findAllByGameCopyKeyOwner(owner)).thenReturn(gameCopies);
+        when(gameCopyRepository.findAllWithOwnerAndGameByOwnerId(owner.getUserAccountID())).thenReturn(gameCopies);
 
         // Act
         List<GameCopyResponseDto> returnedGameCopies = gameCopyService.getUserGameCopies(owner.getUserAccountID());
@@ -282,4 +353,143 @@ public class GameCopyServiceTests {
                                 dto.getOwnerName().equals(gameCopyResponseDto2.getOwnerName()))));
     }
 
+    @Test
+    public void testGetGameCopiesPage() {
+        Game game = new Game("UNO", "A card game", "Card Game");
+        List<GameCopy> copies = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            UserAccount owner = new UserAccount("Owner" + i, "1234", "owner" + i + "@mail.com", AccountType.GAMEOWNER);
+            owner.setUserAccountID(i);
+            copies.add(new GameCopy(new GameCopyKey(owner, game), "Copy " + i));
+        }
+        when(gameService.findGame("UNO")).thenReturn(game);
+        when(gameCopyRepository.findPageByGameTitle("UNO", EnumSet.of(GameStatus.AVAILABLE), -1L, Limit.of(3)))
+                .thenReturn(copies);
+        when(gameCopyRepository.findPageByGameTitle("UNO", EnumSet.of(GameStatus.AVAILABLE), 2L, Limit.of(3)))
+                .thenReturn(copies.subList(2, 3));
+
+        GameCopyPageDto first = gameCopyService.getGameCopiesPage("UNO", GameStatus.AVAILABLE, null, 2);
+        assertEquals("UNO", first.getTitle());
+        assertEquals(2, first.getCopies().size());
+        assertEquals(1, first.getCopies().get(0).getOwner());
+        assertEquals("Owner2", first.getCopies().get(1).getOwnerName());
+        assertEquals("Copy 2", first.getCopies().get(1).getDescription());
+        assertNotNull(first.getNextCursor());
+
+        GameCopyPageDto second = gameCopyService.getGameCopiesPage("UNO", GameStatus.AVAILABLE,
+                first.getNextCursor(), 2);
+        assertEquals(1, second.getCopies().size());
+        assertEquals(3, second.getCopies().get(0).getOwner());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void testGetGameCopiesPageInvalidCursor() {
+        when(gameService.findGame("UNO")).thenReturn(new Game("UNO", "A card game", "Card Game"));
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> gameCopyService.getGameCopiesPage("UNO", null, "not a cursor!", 10));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    public void testCreateGameCopies() {
+        UserAccount owner = new UserAccount("Bob", "1234", "djt@mail.com", AccountType.GAMEOWNER);
+        owner.setUserAccountID(7);
+        Game uno = new Game("UNO", "A card game", "Card Game");
+        Game catan = new Game("Catan", "Build settlements", "Strategy");
+        when(userIdentityService.findIdentity(7)).thenReturn(new UserIdentity(owner));
+        when(gameRepository.findAllByTitleKeyIn(any())).thenReturn(List.of(uno,
+                new Game("Chess", "A strategic board game", "Strategy"), catan));
+        when(gameCopyRepository.findOwnedTitles(eq(7L), any())).thenReturn(List.of("Chess"));
+        mockPersist(owner, uno, catan);
+
+        List<GameCopyCreationDto> copies = Arrays.asList(
+                new GameCopyCreationDto("UNO", "Complete deck", 0),
+                new GameCopyCreationDto("Chess", "Wooden set", 0),
+                new GameCopyCreationDto("Azul", "Sealed", 0),
+                new GameCopyCreationDto("uno", "Second deck", 0),
+                new GameCopyCreationDto("catan!", "Lent out often", 0),
+                new GameCopyCreationDto("", "No title", 0),
+                new GameCopyCreationDto("Monopoly", " ", 0));
+
+        GameCopyBatchResultDto result = gameCopyService.createGameCopies(7, copies);
+
+        assertEquals(7, result.getOwner());
+        assertEquals(2, result.getCreated());
+        List<GameCopyOutcomeDto> outcomes = result.getOutcomes();
+        assertEquals(copies.size(), outcomes.size());
+        assertEquals(Outcome.CREATED, outcomes.get(0).getOutcome());
+        assertNull(outcomes.get(0).getMessage());
+        assertEquals(Outcome.ALREADY_OWNED, outcomes.get(1).getOutcome());
+        assertEquals("User already owns a copy of the game Chess.", outcomes.get(1).getMessage());
+        assertEquals(Outcome.GAME_NOT_FOUND, outcomes.get(2).getOutcome());
+        assertEquals("Game with title Azul not found", outcomes.get(2).getMessage());
+        // Titles are matched on their title key
+        assertEquals(Outcome.ALREADY_OWNED, outcomes.get(3).getOutcome());
+        assertEquals(Outcome.CREATED, outcomes.get(4).getOutcome());
+        assertEquals(Outcome.INVALID, outcomes.get(5).getOutcome());
+        assertEquals("The game description is required", outcomes.get(6).getMessage());
+
+        verify(userIdentityService, times(1)).findIdentity(7);
+        verify(gameRepository, times(1)).findAllByTitleKeyIn(argThat((Collection<String> keys) -> keys.size() == 5
+                && keys.containsAll(List.of("uno", "chess", "azul", "catan", "monopoly"))));
+        verify(gameCopyRepository, never()).save(any(GameCopy.class));
+        verify(session, times(1)).setJdbcBatchSize(GameCopyService.INSERT_BATCH_SIZE);
+        verify(entityManager, times(1)).persist(argThat((GameCopy copy) -> copy.getGameCopyKey().getGame() == uno
+                && copy.getGameCopyKey().getOwner() == owner && "Complete deck".equals(copy.getDescription())
+                && copy.getStatus() == GameStatus.AVAILABLE));
+        verify(entityManager, times(1)).persist(argThat((GameCopy copy) -> copy.getGameCopyKey().getGame() == catan
+                && "Lent out often".equals(copy.getDescription())));
+        verify(entityManager, times(2)).persist(any(GameCopy.class));
+        verify(entityManager, times(1)).flush();
+        // One grouped count for every created title
+        verify(gameBrowseService, times(1)).availableCopiesChanged(List.of("UNO", "Catan"));
+        verify(gameBrowseService, never()).availableCopiesChanged(any(), anyInt());
+    }
+
+    @Test
+    public void testCreateGameCopiesAddedConcurrently() {
+        UserAccount owner = new UserAccount("Bob", "1234", "djt@mail.com", AccountType.GAMEOWNER);
+        owner.setUserAccountID(7);
+        Game uno = new Game("UNO", "A card game", "Card Game");
+        when(userIdentityService.findIdentity(7)).thenReturn(new UserIdentity(owner));
+        when(gameRepository.findAllByTitleKeyIn(any())).thenReturn(List.of(uno));
+        when(gameCopyRepository.findOwnedTitles(eq(7L), any())).thenReturn(List.of());
+        mockPersist(owner, uno);
+        // Another request inserted the same copy between the ownership check and the flush
+        doThrow(new PersistenceException("duplicate key")).when(entityManager).flush();
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> gameCopyService.createGameCopies(7, List.of(new GameCopyCreationDto("UNO", "Deck", 0))));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        verify(gameBrowseService, never()).availableCopiesChanged(anyCollection());
+    }
+
+    private void mockPersist(UserAccount owner, Game... games) {
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(entityManager.getReference(UserAccount.class, owner.getUserAccountID())).thenReturn(owner);
+        for (Game game : games) {
+            when(entityManager.getReference(Game.class, game.getTitle())).thenReturn(game);
+        }
+    }
+
+    @Test
+    public void testCreateGameCopiesByPlayer() {
+        UserAccount player = new UserAccount("Alice", "1234", "alice@mail.com", AccountType.PLAYER);
+        player.setUserAccountID(8);
+        when(userIdentityService.findIdentity(8)).thenReturn(new UserIdentity(player));
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> gameCopyService.createGameCopies(8, List.of(new GameCopyCreationDto("UNO", "Deck", 0))));
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatus());
+        verify(gameRepository, never()).findAllByTitleKeyIn(any());
+    }
+
+    @Test
+    public void testCreateGameCopiesEmptyBatch() {
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> gameCopyService.createGameCopies(7, List.of()));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
 }
@@ -0,0 +1,251 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ca.mcgill.ecse321.boardgame.dto.GameImportResultDto;
+import ca.mcgill.ecse321.boardgame.dto.ImportErrorDto;
+import ca.mcgill.ecse321.boardgame.exception.BoardGameException;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+@ExtendWith(MockitoExtension.class)
+public class GameImportServiceTests {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private GameSearchService gameSearchService;
+
+    @Mock
+    private GameBrowseService gameBrowseService;
+
+    @InjectMocks
+    private GameImportService gameImportService;
+
+    private final List<Game> persisted = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(gameImportService, "configuredChunkSize", GameImportService.DEFAULT_CHUNK_SIZE);
+    }
+
+    @Test
+    public void testImportCsvInChunks() {
+        mockTransactions();
+        mockPersists();
+        when(gameRepository.findExistingTitleKeys(anyCollection())).thenReturn(List.of());
+        String csv = "title,description,category\n"
+                + "Chess,A classic,Strategy\n"
+                + "\"Ticket to Ride\",\"Trains, routes and \"\"tickets\"\"\",Family\n"
+                + "Azul,\"Tiles\non two lines\",Abstract\n";
+
+        GameImportResultDto result = gameImportService.importGames(stream(csv), "text/csv", 2);
+
+        assertEquals(3, result.getRowsRead());
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertEquals(2, result.getChunks());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(3, persisted.size());
+        assertEquals("Ticket to Ride", persisted.get(1).getTitle());
+        assertEquals("Trains, routes and \"tickets\"", persisted.get(1).getDescription());
+        assertEquals("Family", persisted.get(1).getCategory());
+        assertEquals("Tiles\non two lines", persisted.get(2).getDescription());
+        // One JDBC batch per chunk
+        verify(session).setJdbcBatchSize(2);
+        verify(session).setJdbcBatchSize(1);
+        verify(entityManager, times(2)).flush();
+        verify(gameRepository, times(2)).findExistingTitleKeys(anyCollection());
+    }
+
+    @Test
+    public void testImportClearsPersistenceContextBetweenChunks() {
+        mockTransactions();
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(gameRepository.findExistingTitleKeys(anyCollection())).thenReturn(List.of());
+        List<Game> managed = new ArrayList<>();
+        List<Integer> managedAtFlush = new ArrayList<>();
+        doAnswer(inv -> managed.add(inv.getArgument(0))).when(entityManager).persist(any(Game.class));
+        doAnswer(inv -> managedAtFlush.add(managed.size())).when(entityManager).flush();
+        doAnswer(inv -> {
+            managed.clear();
+            return null;
+        }).when(entityManager).clear();
+        String csv = "title,description,category\n"
+                + "Chess,A classic,Strategy\n"
+                + "Go,Stones,Abstract\n"
+                + "Azul,Tiles,Abstract\n"
+                + "Catan,Trading,Strategy\n"
+                + "Risk,Conquest,Strategy\n";
+
+        GameImportResultDto result = gameImportService.importGames(stream(csv), "text/csv", 2);
+
+        assertEquals(5, result.getImported());
+        // Each flush only sees its own chunk, and nothing stays managed afterwards
+        assertEquals(List.of(2, 2, 1), managedAtFlush);
+        assertTrue(managed.isEmpty());
+    }
+
+    @Test
+    public void testImportSkipsDuplicates() {
+        mockTransactions();
+        mockPersists();
+        when(gameRepository.findExistingTitleKeys(anyCollection())).thenReturn(List.of("chess"));
+        String csv = "category,title,description\n"
+                + "Strategy,Chess,A classic\n"
+                + "Family,Catan,Trading\n"
+                + "Family,CATAN!,Trading again\n";
+
+        GameImportResultDto result = gameImportService.importGames(stream(csv), "text/csv; charset=UTF-8", null);
+
+        assertEquals(3, result.getRowsRead());
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(1, persisted.size());
+        assertEquals("Catan", persisted.get(0).getTitle());
+        assertEquals("catan", persisted.get(0).getTitleKey());
+        verify(gameSearchService).index("Catan", "Trading", "Family");
+        verify(gameBrowseService).index("Catan", "Family");
+        verifyNoMoreInteractions(gameSearchService);
+        List<ImportErrorDto> errors = result.getErrors();
+        assertEquals(2, errors.size());
+        assertEquals(2, errors.get(0).getLine());
+        assertEquals("Chess", errors.get(0).getKey());
+        assertEquals("Game with title 'Chess' already exists", errors.get(0).getMessage());
+        // Same title key as the Catan row above
+        assertEquals(4, errors.get(1).getLine());
+        assertEquals("CATAN!", errors.get(1).getKey());
+    }
+
+    @Test
+    public void testImportReportsInvalidRows() {
+        mockTransactions();
+        mockPersists();
+        when(gameRepository.findExistingTitleKeys(anyCollection())).thenReturn(List.of());
+        String ndjson = "{\"title\":\"Chess\",\"description\":\"A classic\",\"category\":\"Strategy\"}\n"
+                + "\n"
+                + "{\"title\":\"Catan\"}\n"
+                + "{\"title\":\n"
+                + "{\"title\":\"\",\"description\":\"Nameless\"}\n";
+
+        GameImportResultDto result = gameImportService.importGames(stream(ndjson), "application/x-ndjson", null);
+
+        assertEquals(4, result.getRowsRead());
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getFailed());
+        List<ImportErrorDto> errors = result.getErrors();
+        assertEquals(3, errors.get(0).getLine());
+        assertEquals("Game description is required", errors.get(0).getMessage());
+        assertEquals(4, errors.get(1).getLine());
+        assertTrue(errors.get(1).getMessage().startsWith("Invalid JSON"));
+        assertEquals("Game title is required", errors.get(2).getMessage());
+    }
+
+    @Test
+    public void testImportSkipsOversizedJsonRow() {
+        mockTransactions();
+        mockPersists();
+        when(gameRepository.findExistingTitleKeys(anyCollection())).thenReturn(List.of());
+        String huge = "{\"title\":\"" + "x".repeat(CsvRecordReader.MAX_RECORD_CHARS) + "\"}";
+        String ndjson = huge + "\r\n{\"title\":\"Chess\",\"description\":\"A classic\"}\r\n";
+
+        GameImportResultDto result = gameImportService.importGames(stream(ndjson), "application/x-ndjson", null);
+
+        assertEquals(2, result.getRowsRead());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getErrors().get(0).getLine());
+        assertEquals("Row is longer than " + CsvRecordReader.MAX_RECORD_CHARS + " characters",
+                result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    public void testImportFailsChunkThatCannotBeStored() {
+        mockTransactions();
+        when(gameRepository.findExistingTitleKeys(anyCollection())).thenReturn(List.of());
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        doThrow(new PersistenceException("value too long")).when(entityManager).flush();
+        String csv = "title,description\nChess,A classic\nCatan,Trading\n";
+
+        GameImportResultDto result = gameImportService.importGames(stream(csv), "text/csv", null);
+
+        assertEquals(0, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals("Chunk could not be stored: value too long", result.getErrors().get(0).getMessage());
+        verifyNoInteractions(gameSearchService);
+    }
+
+    @Test
+    public void testImportCsvWithoutTitleColumn() {
+        BoardGameException e = assertThrows(BoardGameException.class,
+                () -> gameImportService.importGames(stream("name,description\nChess,A classic\n"), "text/csv", null));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+        assertEquals("The CSV header must have a title column", e.getMessage());
+        verifyNoInteractions(gameRepository, entityManager);
+    }
+
+    @Test
+    public void testImportUnsupportedType() {
+        BoardGameException e = assertThrows(BoardGameException.class,
+                () -> gameImportService.importGames(stream("[]"), "application/json", null));
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, e.getStatus());
+    }
+
+    @Test
+    public void testImportInvalidChunkSize() {
+        BoardGameException e = assertThrows(BoardGameException.class,
+                () -> gameImportService.importGames(stream(""), "text/csv", 0));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    private void mockTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(
+                inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    private void mockPersists() {
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        doAnswer(inv -> persisted.add(inv.getArgument(0))).when(entityManager).persist(any(Game.class));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
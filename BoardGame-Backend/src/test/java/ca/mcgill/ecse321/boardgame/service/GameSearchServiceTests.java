@@ -0,0 +1,139 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ca.mcgill.ecse321.boardgame.dto.GameSearchHitDto;
+import ca.mcgill.ecse321.boardgame.exception.BoardGameException;
+import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameRating;
+import ca.mcgill.ecse321.boardgame.repo.GameRatingRepository;
+import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class GameSearchServiceTests {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private GameRatingRepository gameRatingRepository;
+
+    @InjectMocks
+    private GameSearchService gameSearchService;
+
+    @Test
+    public void testRebuildReadsCatalogInBatches() {
+        List<Game> first = new ArrayList<>();
+        for (int i = 0; i < GameSearchService.BUILD_BATCH_SIZE; i++) {
+            first.add(new Game(String.format("Game %04d", i), "Filler", "Family"));
+        }
+        String last = first.get(first.size() - 1).getTitle();
+        when(gameRepository.findAllByOrderByTitleAsc(any(Limit.class))).thenReturn(first);
+        when(gameRepository.findByTitleGreaterThanOrderByTitleAsc(eq(last), any(Limit.class)))
+                .thenReturn(List.of(new Game("Ticket to Ride", "Trains across America", "Family")));
+        GameRating reviewed = new GameRating("Game 0999");
+        ReflectionTestUtils.setField(reviewed, "reviewCount", 3L);
+        when(gameRatingRepository.findAll()).thenReturn(List.of(reviewed));
+
+        gameSearchService.rebuild();
+
+        assertEquals(GameSearchService.BUILD_BATCH_SIZE + 1, gameSearchService.size());
+        List<GameSearchHitDto> hits = gameSearchService.search("trains", 5);
+        assertEquals(1, hits.size());
+        assertEquals("Ticket to Ride", hits.get(0).getTitle());
+        assertEquals("Family", hits.get(0).getCategory());
+        // Reviewed games come first; the rest in title order
+        assertEquals(List.of("Game 0999", "Game 0000"), gameSearchService.autocomplete("game", 2));
+    }
+
+    @Test
+    public void testRebuildKeepsWritesMadeWhileItRuns() {
+        gameSearchService.index("Catan", "Trading", "Strategy");
+        // The batch is read before the writes below commit, so it holds the rows as they were
+        when(gameRepository.findAllByOrderByTitleAsc(any(Limit.class))).thenAnswer(invocation -> {
+            gameSearchService.remove("Catan");
+            gameSearchService.index("Chess", "A classic with kings", "Strategy");
+            return List.of(new Game("Catan", "Trading", "Strategy"), new Game("Chess", "A classic", "Strategy"));
+        });
+        when(gameRatingRepository.findAll()).thenReturn(List.of());
+
+        gameSearchService.rebuild();
+
+        assertEquals(1, gameSearchService.size());
+        assertTrue(gameSearchService.search("trading", 10).isEmpty());
+        assertEquals("Chess", gameSearchService.search("kings", 10).get(0).getTitle());
+        assertEquals(List.of("Chess"), gameSearchService.autocomplete("c", 10));
+    }
+
+    @Test
+    public void testIndexAndRemoveWithoutTransaction() {
+        gameSearchService.index("Chess", "A classic", "Strategy");
+        gameSearchService.index("Checkers", "Simpler than chess", "Strategy");
+
+        List<GameSearchHitDto> hits = gameSearchService.search("Chess", 10);
+        assertEquals("Chess", hits.get(0).getTitle());
+        assertEquals("Checkers", hits.get(1).getTitle());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+
+        gameSearchService.remove("Chess");
+        assertEquals(1, gameSearchService.search("strategy", 10).size());
+    }
+
+    @Test
+    public void testAutocompleteFollowsReviews() {
+        gameSearchService.index("Catan", "Trading", "Strategy");
+        gameSearchService.index("Carcassonne", "Tiles", "Family");
+        gameSearchService.index("Chess", "A classic", "Strategy");
+
+        gameSearchService.reviewCountChanged("Carcassonne", 1);
+        assertEquals(List.of("Carcassonne", "Catan"), gameSearchService.autocomplete("CA", 10));
+
+        // An update keeps the game's place, a delete drops it
+        gameSearchService.index("Carcassonne", "Tiles and meeples", "Family");
+        assertEquals("Carcassonne", gameSearchService.autocomplete("ca", 1).get(0));
+        gameSearchService.remove("Carcassonne");
+        assertEquals(List.of("Catan"), gameSearchService.autocomplete("ca", 10));
+
+        assertTrue(gameSearchService.autocomplete("  ", 10).isEmpty());
+        assertEquals(2, gameSearchService.getAutocompleteStats().getTitles());
+        assertTrue(gameSearchService.getAutocompleteStats().getMemoryBytes() > 0);
+        assertThrows(BoardGameException.class, () -> gameSearchService.autocomplete("ca", 0));
+    }
+
+    @Test
+    public void testSearchLimitIsCapped() {
+        for (int i = 0; i < GameSearchService.MAX_LIMIT + 10; i++) {
+            gameSearchService.index("Game " + i, "Dice", "Party");
+        }
+
+        assertEquals(GameSearchService.MAX_LIMIT, gameSearchService.search("dice", 1_000).size());
+    }
+
+    @Test
+    public void testSearchRejectsInvalidInput() {
+        BoardGameException empty = assertThrows(BoardGameException.class, () -> gameSearchService.search(" ", 10));
+        assertEquals(HttpStatus.BAD_REQUEST, empty.getStatus());
+        assertEquals("Search query cannot be empty", empty.getMessage());
+
+        BoardGameException limit = assertThrows(BoardGameException.class,
+                () -> gameSearchService.search("chess", 0));
+        assertEquals("Search limit must be positive", limit.getMessage());
+
+        String longQuery = "a".repeat(GameSearchService.MAX_QUERY_LENGTH + 1);
+        assertThrows(BoardGameException.class, () -> gameSearchService.search(longQuery, 10));
+    }
+}
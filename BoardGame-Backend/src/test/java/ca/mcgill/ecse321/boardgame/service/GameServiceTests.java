@@ -4,12 +4,17 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import ca.mcgill.ecse321.boardgame.dto.EventRegistrationResponseDto;
+import ca.mcgill.ecse321.boardgame.dto.GamePageDto;
+import ca.mcgill.ecse321.boardgame.dto.GameRatingDto;
 import ca.mcgill.ecse321.boardgame.dto.GameRequestDto;
 import ca.mcgill.ecse321.boardgame.dto.GameResponseDto;
 import ca.mcgill.ecse321.boardgame.exception.BoardGameException;
 import ca.mcgill.ecse321.boardgame.exception.ResourceNotFoundException;
 import ca.mcgill.ecse321.boardgame.model.Game;
+import ca.mcgill.ecse321.boardgame.model.GameRating;
+import ca.mcgill.ecse321.boardgame.repo.GameRatingRepository;
 import ca.mcgill.ecse321.boardgame.repo.GameRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,11 +22,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @SpringBootTest
 @ExtendWith(MockitoExtension.class)
@@ -30,16 +40,31 @@ public class GameServiceTests {
     @Mock
     private GameRepository gameRepository;
 
+    @Mock
+    private GameRatingRepository gameRatingRepository;
+
+    @Mock
+    private GameSearchService gameSearchService;
+
+    @Mock
+    private GameBrowseService gameBrowseService;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private GameService gameService;
 
     private final String TITLE = "Chess";
+    private final String TITLE_KEY = "chess";
     private final String DESCRIPTION = "A strategic board game.";
     private final String CATEGORY = "Strategy";
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Built through its constructor, so the persistence context is set by hand
+        ReflectionTestUtils.setField(gameService, "entityManager", entityManager);
     }
 
     // CREATE GAME TESTS
@@ -47,7 +72,7 @@ public class GameServiceTests {
     @Test
     void testCreateValidGame() {
         GameRequestDto dto = new GameRequestDto(TITLE, DESCRIPTION, CATEGORY);
-        when(gameRepository.findGameByTitle(TITLE)).thenReturn(null);
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(null);
         when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Game result = gameService.createGame(dto);
@@ -56,17 +81,32 @@ public class GameServiceTests {
         assertEquals(TITLE, result.getTitle());
         assertEquals(DESCRIPTION, result.getDescription());
         assertEquals(CATEGORY, result.getCategory());
+        verify(gameSearchService).index(TITLE, DESCRIPTION, CATEGORY);
+        verify(gameBrowseService).index(TITLE, CATEGORY);
     }
 
     @Test
     void testCreateGameWithExistingTitle() {
         GameRequestDto dto = new GameRequestDto(TITLE, DESCRIPTION, CATEGORY);
-        when(gameRepository.findGameByTitle(TITLE)).thenReturn(new Game(TITLE, DESCRIPTION, CATEGORY));
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(new Game(TITLE, DESCRIPTION, CATEGORY));
 
         BoardGameException exception = assertThrows(BoardGameException.class,
                 () -> gameService.createGame(dto));
         assertEquals(HttpStatus.CONFLICT, exception.getStatus());
         assertTrue(exception.getMessage().contains("already exists"));
+        verifyNoInteractions(gameSearchService);
+    }
+
+    @Test
+    void testCreateGameWithTitleDifferingOnlyInCaseAndPunctuation() {
+        GameRequestDto dto = new GameRequestDto("  CHESS! ", DESCRIPTION, CATEGORY);
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(new Game(TITLE, DESCRIPTION, CATEGORY));
+
+        BoardGameException exception = assertThrows(BoardGameException.class,
+                () -> gameService.createGame(dto));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        assertTrue(exception.getMessage().contains("already exists as 'Chess'"));
+        verify(gameRepository, never()).save(any(Game.class));
     }
 
     @Test
@@ -80,12 +120,26 @@ public class GameServiceTests {
         assertTrue(exception.getMessage().contains("Title cannot be empty"));
     }
 
+    @Test
+    void testCreateGameWithReservedTitle() {
+        // GET /api/games/search is the search route, so such a game could never be fetched
+        GameRequestDto dto = new GameRequestDto("Search", DESCRIPTION, CATEGORY);
+
+        BoardGameException exception = assertThrows(BoardGameException.class,
+                () -> gameService.createGame(dto));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        assertEquals("Title 'Search' is reserved by the catalog", exception.getMessage());
+        verify(gameRepository, never()).save(any(Game.class));
+    }
+
     // GET GAME TESTS
 
     @Test
     void testGetGameByValidTitle() {
         Game game = new Game(TITLE, DESCRIPTION, CATEGORY);
-        when(gameRepository.findGameByTitle(TITLE)).thenReturn(game);
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(game);
+        when(gameRepository.findById(TITLE)).thenReturn(Optional.of(game));
 
         Game result = gameService.getGameByTitle(TITLE);
 
@@ -95,9 +149,46 @@ public class GameServiceTests {
         assertEquals(CATEGORY, result.getCategory());
     }
 
+    @Test
+    void testGetGameByTitleMatchesTitleKey() {
+        Game game = new Game(TITLE, DESCRIPTION, CATEGORY);
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(game);
+        when(gameRepository.findById(TITLE)).thenReturn(Optional.of(game));
+
+        assertEquals(game, gameService.getGameByTitle("CHESS"));
+        assertEquals(game, gameService.getGameByTitle(" chess. "));
+
+        // The second spelling resolves its stored title from the cache; the entity is loaded
+        // by primary key in each caller's persistence context, never shared through the cache
+        verify(gameRepository, times(1)).findGameByTitleKey(TITLE_KEY);
+        verify(gameRepository, times(2)).findById(TITLE);
+        verify(gameRepository, never()).findGameByTitle(anyString());
+        assertEquals(1, gameService.getGameCacheStats().getHits());
+    }
+
+    @Test
+    void testGetGameByTitleDeletedAfterCaching() {
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(new Game(TITLE, DESCRIPTION, CATEGORY));
+        gameService.resolveTitle(TITLE);
+        when(gameRepository.findById(TITLE)).thenReturn(Optional.empty());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> gameService.getGameByTitle(TITLE));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+    }
+
+    @Test
+    void testResolveTitle() {
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(new Game(TITLE, DESCRIPTION, CATEGORY));
+        when(gameRepository.findGameByTitleKey("go")).thenReturn(null);
+
+        assertEquals(TITLE, gameService.resolveTitle("cHeSs"));
+        assertEquals("GO", gameService.resolveTitle("GO"));
+    }
+
     @Test
     void testGetGameByInvalidTitle() {
-        when(gameRepository.findGameByTitle(TITLE)).thenReturn(null);
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(null);
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
                 () -> gameService.getGameByTitle(TITLE));
@@ -114,9 +205,49 @@ public class GameServiceTests {
         assertTrue(exception.getMessage().contains("Title cannot be empty"));
     }
 
+    @Test
+    void testFindGameIsCached() {
+        Game reference = new Game(TITLE, DESCRIPTION, CATEGORY);
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(new Game(TITLE, DESCRIPTION, CATEGORY));
+        when(entityManager.getReference(Game.class, TITLE)).thenReturn(reference);
+
+        assertSame(reference, gameService.findGame("CHESS"));
+        assertSame(reference, gameService.findGame(" chess. "));
+
+        // Both spellings share one cache entry, which holds the stored title only
+        verify(gameRepository, times(1)).findGameByTitleKey(TITLE_KEY);
+        verify(entityManager, times(2)).getReference(Game.class, TITLE);
+        assertEquals(1, gameService.getGameCacheStats().getHits());
+        assertEquals(1, gameService.getGameCacheStats().getMisses());
+    }
+
+    @Test
+    void testFindGameNotFound() {
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(null);
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> gameService.findGame(TITLE));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void testUpdateGameInvalidatesCache() {
+        Game game = new Game(TITLE, "Old Description", "Old Category");
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(game);
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        gameService.findGame(TITLE);
+        gameService.updateGame(TITLE, new GameRequestDto(TITLE, DESCRIPTION, CATEGORY));
+        gameService.findGame(TITLE);
+
+        // One load for each cache miss and one for the update itself
+        verify(gameRepository, times(3)).findGameByTitleKey(TITLE_KEY);
+    }
+
     @Test
     void testGetAllGames_EmptyList() {
-        when(gameRepository.findAll()).thenReturn(Collections.emptyList());
+        when(gameRepository.findAllByOrderByTitleAsc(any(Limit.class))).thenReturn(Collections.emptyList());
 
         List<GameResponseDto> result = gameService.getAllGames();
 
@@ -127,7 +258,8 @@ public class GameServiceTests {
     void testGetAllGames_MultipleGames() {
         Game game1 = new Game("Chess", "Strategy game", "Strategy");
         Game game2 = new Game("Checkers", "Board game for two players", "Classic");
-        when(gameRepository.findAll()).thenReturn(List.of(game1, game2));
+        when(gameRepository.findAllByOrderByTitleAsc(Limit.of(GameService.MAX_UNPAGED_GAMES)))
+                .thenReturn(List.of(game1, game2));
 
         List<GameResponseDto> result = gameService.getAllGames();
 
@@ -143,13 +275,117 @@ public class GameServiceTests {
         assertEquals("Classic", result2.getCategory());
     }
 
+    @Test
+    void testGetAllGames_IncludesRatings() {
+        Game chess = new Game("Chess", "Strategy game", "Strategy");
+        Game checkers = new Game("Checkers", "Board game for two players", "Classic");
+        when(gameRepository.findAllByOrderByTitleAsc(Limit.of(GameService.MAX_UNPAGED_GAMES)))
+                .thenReturn(List.of(chess, checkers));
+        when(gameRatingRepository.findAllByGameTitleIn(List.of("Chess", "Checkers")))
+                .thenReturn(List.of(rating("Chess", 0, 0, 1, 0, 3)));
+
+        List<GameResponseDto> result = gameService.getAllGames();
+
+        GameRatingDto chessRating = result.get(0).getRating();
+        assertEquals(4, chessRating.getReviewCount());
+        assertEquals(18, chessRating.getRatingSum());
+        assertEquals(4.5, chessRating.getAverageRating());
+        assertEquals(List.of(0L, 0L, 1L, 0L, 3L), chessRating.getHistogram());
+        GameRatingDto checkersRating = result.get(1).getRating();
+        assertEquals(0, checkersRating.getReviewCount());
+        assertNull(checkersRating.getAverageRating());
+        verify(gameRatingRepository, times(1)).findAllByGameTitleIn(any());
+    }
+
+    @Test
+    void testGetRatings_KeepsOrderAndDropsRepeats() {
+        when(gameRepository.findAllByTitleKeyIn(any())).thenReturn(List.of(new Game("Catan", "Trading", "Strategy")));
+        when(gameRatingRepository.findAllByGameTitleIn(any())).thenReturn(List.of(rating("Catan", 1, 0, 0, 0, 0)));
+
+        // "catan!" and "RISK" are the same games as "Catan" and "Risk"
+        List<GameRatingDto> ratings = gameService.getRatings(List.of("Risk", "catan!", "RISK"));
+
+        assertEquals(2, ratings.size());
+        assertEquals("Risk", ratings.get(0).getGameTitle());
+        assertEquals(0, ratings.get(0).getReviewCount());
+        assertEquals("Catan", ratings.get(1).getGameTitle());
+        assertEquals(1.0, ratings.get(1).getAverageRating());
+        verify(gameRepository).findAllByTitleKeyIn(Set.of("risk", "catan"));
+        verify(gameRatingRepository).findAllByGameTitleIn(argThat(titles -> titles.size() == 1
+                && titles.contains("Catan")));
+    }
+
+    @Test
+    void testGetRatings_TooManyTitles() {
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i <= GameService.MAX_PAGE_SIZE; i++) {
+            titles.add("Game " + i);
+        }
+
+        BoardGameException exception = assertThrows(BoardGameException.class, () -> gameService.getRatings(titles));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(gameRatingRepository);
+    }
+
+    @Test
+    void testGetGamesPage_FirstPageHasNextCursor() {
+        Game game1 = new Game("Carcassonne", "Tile-laying game", "Strategy");
+        Game game2 = new Game("Catan", "Trading game", "Strategy");
+        Game game3 = new Game("Chess", "Strategy game", "Strategy");
+        when(gameRepository.findAllByOrderByTitleAsc(Limit.of(3))).thenReturn(List.of(game1, game2, game3));
+
+        GamePageDto page = gameService.getGamesPage(null, 2);
+
+        assertEquals(2, page.getGames().size());
+        assertEquals("Carcassonne", page.getGames().get(0).getTitle());
+        assertEquals("Catan", page.getGames().get(1).getTitle());
+        assertNotNull(page.getNextCursor());
+
+        when(gameRepository.findByTitleGreaterThanOrderByTitleAsc("Catan", Limit.of(3))).thenReturn(List.of(game3));
+
+        GamePageDto nextPage = gameService.getGamesPage(page.getNextCursor(), 2);
+
+        assertEquals(1, nextPage.getGames().size());
+        assertEquals("Chess", nextPage.getGames().get(0).getTitle());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    void testGetGamesPage_SizeIsCapped() {
+        when(gameRepository.findAllByOrderByTitleAsc(Limit.of(GameService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(Collections.emptyList());
+
+        GamePageDto page = gameService.getGamesPage(null, GameService.MAX_PAGE_SIZE * 10);
+
+        assertTrue(page.getGames().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(gameRepository, times(1)).findAllByOrderByTitleAsc(Limit.of(GameService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void testGetGamesPage_InvalidSize() {
+        BoardGameException exception = assertThrows(BoardGameException.class,
+                () -> gameService.getGamesPage(null, 0));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void testGetGamesPage_InvalidCursor() {
+        BoardGameException exception = assertThrows(BoardGameException.class,
+                () -> gameService.getGamesPage("not a cursor!", 10));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        assertTrue(exception.getMessage().contains("Invalid page cursor"));
+    }
+
     // UPDATE GAME TESTS
 
     @Test
     void testUpdateGameWithValidTitle() {
         Game existingGame = new Game(TITLE, "Old Description", "Old Category");
         GameRequestDto dto = new GameRequestDto(TITLE, DESCRIPTION, CATEGORY);
-        when(gameRepository.findGameByTitle(TITLE)).thenReturn(existingGame);
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(existingGame);
         when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Game result = gameService.updateGame(TITLE, dto);
@@ -163,7 +399,7 @@ public class GameServiceTests {
     @Test
     void testUpdateGameWithInvalidTitle() {
         GameRequestDto dto = new GameRequestDto(TITLE, DESCRIPTION, CATEGORY);
-        when(gameRepository.findGameByTitle(TITLE)).thenReturn(null);
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(null);
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
                 () -> gameService.updateGame(TITLE, dto));
@@ -186,17 +422,31 @@ public class GameServiceTests {
     @Test
     void testDeleteGameWithValidTitle() {
         Game game = new Game(TITLE, DESCRIPTION, CATEGORY);
-        when(gameRepository.findGameByTitle(TITLE)).thenReturn(game);
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(game);
         doNothing().when(gameRepository).delete(game);
 
         assertDoesNotThrow(() -> gameService.deleteGame(TITLE));
 
         verify(gameRepository, times(1)).delete(game);
+        verify(gameSearchService).remove(TITLE);
+        verify(gameBrowseService).remove(TITLE);
+    }
+
+    @Test
+    void testDeleteGameByTitleKeyRemovesStoredTitle() {
+        Game game = new Game(TITLE, DESCRIPTION, CATEGORY);
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(game);
+
+        gameService.deleteGame("chess");
+
+        verify(gameRepository).delete(game);
+        verify(gameSearchService).remove(TITLE);
+        verify(gameBrowseService).remove(TITLE);
     }
 
     @Test
     void testDeleteGameWithInvalidTitle() {
-        when(gameRepository.findGameByTitle(TITLE)).thenReturn(null);
+        when(gameRepository.findGameByTitleKey(TITLE_KEY)).thenReturn(null);
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
                 () -> gameService.deleteGame(TITLE));
@@ -211,4 +461,19 @@ public class GameServiceTests {
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
         assertTrue(exception.getMessage().contains("Title cannot be empty"));
     }
+
+    private static GameRating rating(String title, long... stars) {
+        GameRating rating = new GameRating(title);
+        String[] fields = { "oneStar", "twoStars", "threeStars", "fourStars", "fiveStars" };
+        long count = 0;
+        long sum = 0;
+        for (int i = 0; i < stars.length; i++) {
+            ReflectionTestUtils.setField(rating, fields[i], stars[i]);
+            count += stars[i];
+            sum += stars[i] * (i + 1);
+        }
+        ReflectionTestUtils.setField(rating, "reviewCount", count);
+        ReflectionTestUtils.setField(rating, "ratingSum", sum);
+        return rating;
+    }
 }
@@ -5,6 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -13,9 +18,11 @@ import static org.mockito.Mockito.spy;
 import java.sql.Date;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -29,8 +36,8 @@ import ca.mcgill.ecse321.boardgame.model.Game;
 import ca.mcgill.ecse321.boardgame.model.Review;
 import ca.mcgill.ecse321.boardgame.model.Review.ReviewKey;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import ca.mcgill.ecse321.boardgame.repo.GameRatingRepository;
 import ca.mcgill.ecse321.boardgame.repo.ReviewRepository;
-import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
 
 @SpringBootTest
 public class ReviewServiceTests {
@@ -42,7 +49,13 @@ public class ReviewServiceTests {
     private GameService gameService;
 
     @Mock
-    private UserAccountRepository userAccountRepository;
+    private UserIdentityService userIdentityService;
+
+    @Mock
+    private GameRatingRepository gameRatingRepository;
+
+    @Mock
+    private GameSearchService gameSearchService;
 
     @InjectMocks
     private ReviewService reviewService;
@@ -62,8 +75,8 @@ public class ReviewServiceTests {
 
         Game game = new Game(gameTitle, "Strategy board game", "Board Game");
 
-        when(userAccountRepository.findUserAccountByUserAccountID(reviewerId)).thenReturn(reviewer);
-        when(gameService.getGameByTitle(gameTitle)).thenReturn(game);
+        when(userIdentityService.findUserAccount(reviewerId)).thenReturn(reviewer);
+        when(gameService.findGame(gameTitle)).thenReturn(game);
 
         ReviewKeyDto reviewKeyDto = new ReviewKeyDto(gameTitle, reviewerId);
         ReviewCreationDto reviewCreationDto = new ReviewCreationDto(rating, comment, reviewKeyDto);
@@ -94,7 +107,7 @@ public class ReviewServiceTests {
         ReviewKeyDto reviewKeyDto = new ReviewKeyDto(gameTitle, reviewerId);
         ReviewCreationDto reviewCreationDto = new ReviewCreationDto(rating, comment, reviewKeyDto);
 
-        when(userAccountRepository.findUserAccountByUserAccountID(reviewerId)).thenReturn(null);
+        when(userIdentityService.findUserAccount(reviewerId)).thenReturn(null);
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -117,8 +130,8 @@ public class ReviewServiceTests {
         UserAccount reviewer = spy(new UserAccount("Alice", "pass", "alice@mail.com", null));
         when(reviewer.getUserAccountID()).thenReturn(reviewerId);
 
-        when(userAccountRepository.findUserAccountByUserAccountID(reviewerId)).thenReturn(reviewer);
-        when(gameService.getGameByTitle(gameTitle)).thenReturn(null);
+        when(userIdentityService.findUserAccount(reviewerId)).thenReturn(reviewer);
+        when(gameService.findGame(gameTitle)).thenReturn(null);
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -143,8 +156,8 @@ public class ReviewServiceTests {
         Review review1 = new Review(key1, 5, "Excellent!", new Date(System.currentTimeMillis()));
         Review review2 = new Review(key2, 4, "Pretty good", new Date(System.currentTimeMillis()));
 
-        Iterable<Review> reviewIterable = Arrays.asList(review1, review2);
-        when(reviewRepository.findAll()).thenReturn(reviewIterable);
+        when(reviewRepository.findAllByReviewKeyReviewerUserAccountID(reviewerId))
+                .thenReturn(Arrays.asList(review1, review2));
 
         // Act
         List<ReviewResponseDto> responseDtos = reviewService.getReviewsByUserId(reviewerId);
@@ -160,7 +173,7 @@ public class ReviewServiceTests {
     public void testGetReviewsByUserIdNotFound() {
         // Arrange
         Long reviewerId = 99L;
-        when(reviewRepository.findAll()).thenReturn(Arrays.asList());
+        when(reviewRepository.findAllByReviewKeyReviewerUserAccountID(reviewerId)).thenReturn(Arrays.asList());
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -186,11 +199,12 @@ public class ReviewServiceTests {
         Review review1 = new Review(key1, 5, "Loved it", new Date(System.currentTimeMillis()));
         Review review2 = new Review(key2, 3, "It was okay", new Date(System.currentTimeMillis()));
 
-        Iterable<Review> reviewIterable = Arrays.asList(review1, review2);
-        when(reviewRepository.findAll()).thenReturn(reviewIterable);
+        when(gameService.resolveTitle("catan")).thenReturn(gameTitle);
+        when(reviewRepository.findAllByReviewKeyGameToReviewTitle(gameTitle))
+                .thenReturn(Arrays.asList(review1, review2));
 
         // Act
-        List<ReviewResponseDto> responseDtos = reviewService.getReviewsByGameTitle(gameTitle);
+        List<ReviewResponseDto> responseDtos = reviewService.getReviewsByGameTitle("catan");
 
         // Assert
         assertEquals(2, responseDtos.size());
@@ -203,7 +217,8 @@ public class ReviewServiceTests {
     public void testGetReviewsByGameTitleNotFound() {
         // Arrange
         String gameTitle = "UnknownGame";
-        when(reviewRepository.findAll()).thenReturn(Arrays.asList());
+        when(gameService.resolveTitle(gameTitle)).thenReturn(gameTitle);
+        when(reviewRepository.findAllByReviewKeyGameToReviewTitle(gameTitle)).thenReturn(Arrays.asList());
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -225,8 +240,8 @@ public class ReviewServiceTests {
         ReviewKey key = new ReviewKey(reviewer, game);
         Review review = new Review(key, 5, "Amazing game!", new Date(System.currentTimeMillis()));
 
-        when(userAccountRepository.findUserAccountByUserAccountID(reviewerId)).thenReturn(reviewer);
-        when(gameService.getGameByTitle(gameTitle)).thenReturn(game);
+        when(userIdentityService.findUserAccount(reviewerId)).thenReturn(reviewer);
+        when(gameService.findGame(gameTitle)).thenReturn(game);
         when(reviewRepository.findReviewByReviewKey(any(ReviewKey.class))).thenReturn(review);
 
         // Act
@@ -252,8 +267,8 @@ public class ReviewServiceTests {
         ReviewKey key = new ReviewKey(reviewer, game);
         Review review = new Review(key, 4, "Good game", new Date(System.currentTimeMillis()));
 
-        when(userAccountRepository.findUserAccountByUserAccountID(reviewerId)).thenReturn(reviewer);
-        when(gameService.getGameByTitle(gameTitle)).thenReturn(game);
+        when(userIdentityService.findUserAccount(reviewerId)).thenReturn(reviewer);
+        when(gameService.findGame(gameTitle)).thenReturn(game);
         when(reviewRepository.findReviewByReviewKey(any(ReviewKey.class))).thenReturn(review);
 
         // Act
@@ -262,5 +277,71 @@ public class ReviewServiceTests {
         // Assert
         verify(reviewRepository, times(1)).delete(review);
         verify(reviewRepository, times(1)).findReviewByReviewKey(any(ReviewKey.class));
+        verify(gameRatingRepository, times(1)).removeRating(gameTitle, 4);
+        verify(gameRatingRepository, times(1)).deleteIfEmpty(gameTitle);
+        // The game's last review is gone, so it drops to the bottom of the ranking
+        verify(gameSearchService, times(1)).reviewCountChanged(gameTitle, 0L);
+    }
+
+    @Test
+    public void testCreateReviewUpdatesRatingTotals() {
+        Long reviewerId = 1L;
+        String gameTitle = "Catan";
+        UserAccount reviewer = spy(new UserAccount("Alice", "pass", "alice@mail.com", null));
+        when(reviewer.getUserAccountID()).thenReturn(reviewerId);
+        Game game = new Game(gameTitle, "Strategy game", "Board Game");
+        when(userIdentityService.findUserAccount(reviewerId)).thenReturn(reviewer);
+        when(gameService.findGame(gameTitle)).thenReturn(game);
+        when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(gameRatingRepository.findReviewCount(gameTitle)).thenReturn(Optional.of(3L));
+
+        reviewService.createReview(new ReviewCreationDto(4, "Good", new ReviewKeyDto(gameTitle, reviewerId)));
+
+        verify(gameRatingRepository, times(1)).addRating(gameTitle, 4);
+        verify(gameRatingRepository, never()).removeRating(anyString(), anyInt());
+        verify(gameSearchService, times(1)).reviewCountChanged(gameTitle, 3L);
+    }
+
+    @Test
+    public void testCreateReviewReplacesEarlierRating() {
+        Long reviewerId = 1L;
+        String gameTitle = "Catan";
+        UserAccount reviewer = spy(new UserAccount("Alice", "pass", "alice@mail.com", null));
+        when(reviewer.getUserAccountID()).thenReturn(reviewerId);
+        Game game = new Game(gameTitle, "Strategy game", "Board Game");
+        Review previous = new Review(new ReviewKey(reviewer, game), 2, "Meh", new Date(System.currentTimeMillis()));
+        when(userIdentityService.findUserAccount(reviewerId)).thenReturn(reviewer);
+        when(gameService.findGame(gameTitle)).thenReturn(game);
+        when(reviewRepository.findReviewByReviewKey(any(ReviewKey.class))).thenReturn(previous);
+        when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Review review = reviewService.createReview(
+                new ReviewCreationDto(5, "Grew on me", new ReviewKeyDto(gameTitle, reviewerId)));
+
+        assertEquals(5, review.getRating());
+        verify(gameRatingRepository, times(1)).removeRating(gameTitle, 2);
+        verify(gameRatingRepository, times(1)).addRating(gameTitle, 5);
+        // Still one review from this reviewer
+        verify(gameSearchService, never()).reviewCountChanged(anyString(), anyLong());
+    }
+
+    @Test
+    public void testCreateReviewWithRatingOutOfRange() {
+        ReviewCreationDto reviewCreationDto = new ReviewCreationDto(9, "Off the scale", new ReviewKeyDto("Catan", 1L));
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> reviewService.createReview(reviewCreationDto));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        assertEquals("Rating must be between 1 and 5", exception.getMessage());
+        verify(reviewRepository, never()).save(any(Review.class));
+    }
+
+    @Test
+    public void testSyncRatings() {
+        reviewService.syncRatings();
+
+        InOrder inOrder = inOrder(gameRatingRepository);
+        inOrder.verify(gameRatingRepository).deleteUnreviewed();
+        inOrder.verify(gameRatingRepository).syncAll();
     }
 }
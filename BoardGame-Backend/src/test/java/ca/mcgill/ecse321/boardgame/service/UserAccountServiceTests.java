@@ -3,8 +3,6 @@ package ca.mcgill.ecse321.boardgame.service;
 import ca.mcgill.ecse321.boardgame.dto.UserAccountRequestDto;
 import ca.mcgill.ecse321.boardgame.exception.BoardGameException;
 import ca.mcgill.ecse321.boardgame.model.AccountType;
-import ca.mcgill.ecse321.boardgame.model.Game;
-import ca.mcgill.ecse321.boardgame.model.GameCopy;
 import ca.mcgill.ecse321.boardgame.model.UserAccount;
 import ca.mcgill.ecse321.boardgame.repo.GameCopyRepository;
 import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
@@ -48,6 +46,9 @@ public class UserAccountServiceTests {
     @Mock
     private GameCopyRepository gameCopyRepo;
 
+    @Mock
+    private UserIdentityService userIdentityService;
+
     @InjectMocks
     private UserAccountService service;
 
@@ -317,6 +318,7 @@ public class UserAccountServiceTests {
         assertEquals(VALID_ACCOUNTTYPE,userAccount.getAccountType());
         verify(repo,times(1)).findUserAccountByUserAccountID(any(Long.class));
         verify(repo,times(1)).save(any(UserAccount.class));
+        verify(userIdentityService,times(1)).invalidate(10);
 
 
     }
@@ -400,42 +402,40 @@ public class UserAccountServiceTests {
     public void testUpdateGameOwnerWithGameCopyToPlayer(){
 
         // Arrange
-        String title = "Monopoly";
-        String description = "Be richer";
-        String category = "Roll and Move";
-        Game monopoly = new Game(title,description,category);
-        UserAccount mudgamepad = new UserAccount(VALID_NAME,NEW_PASSWORD,VALID_EMAIL,VALID_ACCOUNTTYPE);
-        description = "mudgamepad's monopoly";
-        GameCopy mudgamepadMonopoly = new GameCopy(new GameCopy.GameCopyKey(mudgamepad,monopoly),description);
-        List<GameCopy> gameCopies = new ArrayList<GameCopy>();
-        gameCopies.add(mudgamepadMonopoly);
-        UserAccountRequestDto dto = new UserAccountRequestDto(NEW_NAME,NEW_PASSWORD,NEW_EMAIL,NEW_ACCOUNTTYPE);
-        UserAccount fetchedUser = new UserAccount(VALID_NAME,NEW_PASSWORD,VALID_EMAIL,VALID_ACCOUNTTYPE);
-        when(gameCopyRepo.findAll()).thenReturn(gameCopies);
+        UserAccountRequestDto dto = new UserAccountRequestDto(NEW_NAME,NEW_PASSWORD,NEW_EMAIL,AccountType.PLAYER);
+        when(repo.findUserAccountByUserAccountID(10)).thenReturn(new UserAccount(VALID_NAME,NEW_PASSWORD,VALID_EMAIL,AccountType.GAMEOWNER));
+        when(gameCopyRepo.existsByGameCopyKeyOwnerUserAccountID(10)).thenReturn(true);
 
         // Act + Assert
         BoardGameException e = assertThrows(
                 BoardGameException.class,
-                () -> {
-                    if (fetchedUser.getAccountType().equals(AccountType.GAMEOWNER) && dto.getAccountType().equals(AccountType.PLAYER)){
-                        Iterable<GameCopy> fetchedGameCopies = gameCopyRepo.findAll();
-                        for (GameCopy gameCopy : fetchedGameCopies){
-                            if (10 == 10){
-                                throw new BoardGameException(HttpStatus.FORBIDDEN,"game owner need to delete all his game copies before become player");
-                            }
-                        }
-                    }
-                    service.updateUserAccountByUserAccountID(10,dto);
-
-                });
+                () -> service.updateUserAccountByUserAccountID(10,dto));
         assertEquals(HttpStatus.FORBIDDEN, e.getStatus());
         assertEquals("game owner need to delete all his game copies before become player", e.getMessage());
-        verify(repo,never()).findUserAccountByUserAccountID(any(Long.class));
-        verify(gameCopyRepo,times(1)).findAll();
+        verify(gameCopyRepo,times(1)).existsByGameCopyKeyOwnerUserAccountID(10);
+        verify(gameCopyRepo,never()).findAll();
         verify(repo,never()).save(any(UserAccount.class));
 
     }
 
+    @Test
+    public void testUpdateGameOwnerWithoutGameCopyToPlayer(){
+
+        // Arrange
+        UserAccountRequestDto dto = new UserAccountRequestDto(NEW_NAME,NEW_PASSWORD,NEW_EMAIL,AccountType.PLAYER);
+        when(repo.findUserAccountByUserAccountID(10)).thenReturn(new UserAccount(VALID_NAME,NEW_PASSWORD,VALID_EMAIL,AccountType.GAMEOWNER));
+        when(gameCopyRepo.existsByGameCopyKeyOwnerUserAccountID(10)).thenReturn(false);
+        when(repo.save(any(UserAccount.class))).thenAnswer((InvocationOnMock iom) -> iom.getArgument(0));
+
+        // Act
+        UserAccount updatedUserAccount = service.updateUserAccountByUserAccountID(10,dto);
+
+        // Assert
+        assertEquals(AccountType.PLAYER,updatedUserAccount.getAccountType());
+        verify(gameCopyRepo,never()).findAll();
+        verify(repo,times(1)).save(any(UserAccount.class));
+    }
+
     @Test
     public void testUpdateUserAccountSuccess(){
 
@@ -455,6 +455,7 @@ public class UserAccountServiceTests {
         assertEquals(NEW_ACCOUNTTYPE,createdUserAccount.getAccountType());
         verify(repo,times(1)).findUserAccountByUserAccountID(any(Long.class));
         verify(repo,times(1)).save(any(UserAccount.class));
+        verify(userIdentityService,times(1)).invalidate(10);
     }
 
     @Test
@@ -552,6 +553,7 @@ public class UserAccountServiceTests {
         assertEquals("no userAccount has userAccountID " + 10 + ".", e.getMessage());
         verify(repo,times(2)).findUserAccountByUserAccountID(any(Long.class));
         verify(repo,times(1)).delete(any(UserAccount.class));
+        verify(userIdentityService,times(1)).invalidate(10);
 
     }
 
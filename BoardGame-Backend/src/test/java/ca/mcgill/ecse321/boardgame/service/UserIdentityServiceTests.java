@@ -0,0 +1,82 @@
+package ca.mcgill.ecse321.boardgame.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ca.mcgill.ecse321.boardgame.cache.UserIdentity;
+import ca.mcgill.ecse321.boardgame.model.AccountType;
+import ca.mcgill.ecse321.boardgame.model.UserAccount;
+import ca.mcgill.ecse321.boardgame.repo.UserAccountRepository;
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+public class UserIdentityServiceTests {
+
+    @Mock
+    private UserAccountRepository userAccountRepo;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private UserIdentityService userIdentityService;
+
+    @Test
+    public void testFindIdentityIsCached() {
+        UserAccount user = new UserAccount("Bob", "12345678", "bob@mail.com", AccountType.GAMEOWNER);
+        user.setUserAccountID(7);
+        when(userAccountRepo.findUserAccountByUserAccountID(7)).thenReturn(user);
+
+        UserIdentity first = userIdentityService.findIdentity(7);
+        UserIdentity second = userIdentityService.findIdentity(7);
+
+        assertEquals(7, second.getUserAccountID());
+        assertEquals("Bob", second.getName());
+        assertEquals("bob@mail.com", second.getEmail());
+        assertEquals(AccountType.GAMEOWNER, second.getAccountType());
+        assertSame(first, second);
+        verify(userAccountRepo, times(1)).findUserAccountByUserAccountID(7);
+    }
+
+    @Test
+    public void testInvalidateReloadsIdentity() {
+        UserAccount user = new UserAccount("Bob", "12345678", "bob@mail.com", AccountType.GAMEOWNER);
+        user.setUserAccountID(7);
+        when(userAccountRepo.findUserAccountByUserAccountID(7)).thenReturn(user);
+
+        userIdentityService.findIdentity(7);
+        user.setAccountType(AccountType.PLAYER);
+        userIdentityService.invalidate(7);
+
+        assertEquals(AccountType.PLAYER, userIdentityService.findIdentity(7).getAccountType());
+        verify(userAccountRepo, times(2)).findUserAccountByUserAccountID(7);
+    }
+
+    @Test
+    public void testFindUserAccountReturnsReference() {
+        UserAccount user = new UserAccount("Bob", "12345678", "bob@mail.com", AccountType.PLAYER);
+        user.setUserAccountID(7);
+        when(userAccountRepo.findUserAccountByUserAccountID(7)).thenReturn(user);
+        when(entityManager.getReference(UserAccount.class, 7L)).thenReturn(user);
+
+        assertSame(user, userIdentityService.findUserAccount(7));
+        assertSame(user, userIdentityService.findUserAccount(7));
+        verify(userAccountRepo, times(1)).findUserAccountByUserAccountID(7);
+    }
+
+    @Test
+    public void testMissingUserIsNotCached() {
+        when(userAccountRepo.findUserAccountByUserAccountID(9)).thenReturn(null);
+
+        assertNull(userIdentityService.findIdentity(9));
+        assertNull(userIdentityService.findUserAccount(9));
+        verify(userAccountRepo, times(2)).findUserAccountByUserAccountID(9);
+        verifyNoInteractions(entityManager);
+    }
+}